@@ -13,6 +13,10 @@ public class DistanceGreedy extends Greedy {
                 demand, readyTime, dueDate, service, "distance");
     }
 
+    public DistanceGreedy(String instanceName, CVRPTW problem) {
+        super(instanceName, problem, "distance");
+    }
+
     // Euclidean distance beetwen point (x1,y1) and (x2, y2)
     public double distance(double x1, double y1, double x2, double y2) {
         return Math.sqrt(Math.pow(x1 - x2, 2) + Math.pow(y1 - y2, 2));
@@ -55,8 +59,7 @@ public class DistanceGreedy extends Greedy {
                     if (usedCapacity + demand_[i] <= capacity_) {
                         // Check time window
                         if (usedTime <= dueDate_[i]) {
-                            double distance = this.distance(customers_[0][prevCustomer], customers_[1][prevCustomer],
-                                    customers_[0][i], customers_[1][i]);
+                            double distance = this.distance(prevCustomer, i);
                             if (!lastCustomers.containsKey(distance)) {
                                 lastCustomers.put(distance, new HashSet<>());
                             }
@@ -102,16 +105,7 @@ public class DistanceGreedy extends Greedy {
 
         for (int i = 0; i < problemList1.length; i++) {
             CVRPTW p = new CVRPTW(problemList1[i] + ".txt");
-            DistanceGreedy dg = new DistanceGreedy(
-                    "CVRPTW" + problemList1[i],
-                    p.getVehicleNumber_(),
-                    p.getCapacity_(),
-                    p.getCustomerNumber_(),
-                    p.getCustomers_(),
-                    p.getDemand_(),
-                    p.getReadyTime_(),
-                    p.getDueDate_(),
-                    p.getService_());
+            DistanceGreedy dg = new DistanceGreedy("CVRPTW" + problemList1[i], p);
             List<Integer> sol = dg.execute();
 //            sol.forEach(elem -> {
 //                System.out.print(elem + " ");
@@ -129,16 +123,7 @@ public class DistanceGreedy extends Greedy {
 
         for (int i = 0; i < problemList2.length; i++) {
             CVRPTW p = new CVRPTW(problemList2[i] + ".txt");
-            DistanceGreedy dg = new DistanceGreedy(
-                    "CVRPTW" + problemList2[i],
-                    p.getVehicleNumber_(),
-                    p.getCapacity_(),
-                    p.getCustomerNumber_(),
-                    p.getCustomers_(),
-                    p.getDemand_(),
-                    p.getReadyTime_(),
-                    p.getDueDate_(),
-                    p.getService_());
+            DistanceGreedy dg = new DistanceGreedy("CVRPTW" + problemList2[i], p);
             List<Integer> sol = dg.execute();
 //            sol.forEach(elem -> {
 //                System.out.print(elem + " ");
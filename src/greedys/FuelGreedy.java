@@ -12,6 +12,10 @@ public class FuelGreedy extends Greedy {
                 demand, readyTime, dueDate, service, "fuel");
     }
 
+    public FuelGreedy(String instanceName, CVRPTW problem) {
+        super(instanceName, problem, "fuel");
+    }
+
     // Returns the greedy solution for the instance data in the attributes of this class
     public List<Integer> execute() {
         List<Integer> solution = new ArrayList<>();
@@ -96,16 +100,7 @@ public class FuelGreedy extends Greedy {
 
         for (int i=0; i<problemList1.length; i++) {
             CVRPTW p = new CVRPTW(problemList1[i]+".txt");
-            FuelGreedy fg = new FuelGreedy(
-                    "CVRPTW"+problemList1[i],
-                    p.getVehicleNumber_(),
-                    p.getCapacity_(),
-                    p.getCustomerNumber_(),
-                    p.getCustomers_(),
-                    p.getDemand_(),
-                    p.getReadyTime_(),
-                    p.getDueDate_(),
-                    p.getService_());
+            FuelGreedy fg = new FuelGreedy("CVRPTW"+problemList1[i], p);
             List<Integer> sol = fg.execute();
 //            sol.forEach(elem -> {
 //                System.out.print(elem + " ");
@@ -123,16 +118,7 @@ public class FuelGreedy extends Greedy {
 
         for (int i=0; i<problemList2.length; i++) {
             CVRPTW p = new CVRPTW(problemList2[i]+".txt");
-            FuelGreedy fg = new FuelGreedy(
-                    "CVRPTW"+problemList2[i],
-                    p.getVehicleNumber_(),
-                    p.getCapacity_(),
-                    p.getCustomerNumber_(),
-                    p.getCustomers_(),
-                    p.getDemand_(),
-                    p.getReadyTime_(),
-                    p.getDueDate_(),
-                    p.getService_());
+            FuelGreedy fg = new FuelGreedy("CVRPTW"+problemList2[i], p);
             List<Integer> sol = fg.execute();
 //            sol.forEach(elem -> {
 //                System.out.print(elem + " ");
@@ -18,30 +18,12 @@ public class GenerateFronts {
 			CVRPTW p = new CVRPTW(problemList[i]+".txt");
 
 			// Execute distance greedy
-			DistanceGreedy dg = new DistanceGreedy(
-							"CVRPTW"+problemList[i],
-							p.getVehicleNumber_(),
-							p.getCapacity_(),
-							p.getCustomerNumber_(),
-							p.getCustomers_(),
-							p.getDemand_(),
-							p.getReadyTime_(),
-							p.getDueDate_(),
-							p.getService_());
+			DistanceGreedy dg = new DistanceGreedy("CVRPTW"+problemList[i], p);
 			List<Integer> solD = dg.execute();
 			dg.generateFront(solD);
 
 			// Execute fuel greedy
-			FuelGreedy fg = new FuelGreedy(
-							"CVRPTW"+problemList[i],
-							p.getVehicleNumber_(),
-							p.getCapacity_(),
-							p.getCustomerNumber_(),
-							p.getCustomers_(),
-							p.getDemand_(),
-							p.getReadyTime_(),
-							p.getDueDate_(),
-							p.getService_());
+			FuelGreedy fg = new FuelGreedy("CVRPTW"+problemList[i], p);
 			List<Integer> solF = fg.execute();
 			fg.generateFront(solF);
 		}
@@ -1,8 +1,10 @@
 package greedys;
 
+import jmetal.problems.CVRPTW;
 import jmetal.util.Configuration;
 
 import java.io.*;
+import java.util.BitSet;
 import java.util.List;
 
 public class Greedy {
@@ -16,6 +18,7 @@ public class Greedy {
     protected double [] dueDate_;
     protected double [] service_;
     protected String type_;     // Type of greedy: distance or fuel
+    protected CVRPTW problem_;  // Problem holding the precomputed distance matrix (may be null)
 
     public Greedy(String instanceName, int vehicleNumber, double capacity, int customerNumber, double[][] customers,
                           double[] demand, double[] readyTime, double[] dueDate, double[] service, String type) {
@@ -31,20 +34,35 @@ public class Greedy {
         type_ = type;
     }
 
-    public boolean isValid(List<Integer> sol) {
-    	int zeros = 0;
-        for (int i = 0; i < sol.size(); i++) {
-        	if (sol.get(i) == 0) zeros++;
-        }
-//        System.out.println("Zeros: " + zeros);
+    public Greedy(String instanceName, CVRPTW problem, String type) {
+        this(instanceName, problem.getVehicleNumber_(), problem.getCapacity_(), problem.getCustomerNumber_(),
+                problem.getCustomers_(), problem.getDemand_(), problem.getReadyTime_(), problem.getDueDate_(),
+                problem.getService_(), type);
+        problem_ = problem;
+    }
 
+    // Distance between customers i and j. Uses the distance matrix of the problem if there is one
+    protected double distance(int i, int j) {
+        if (problem_ != null) return problem_.getDistance(i, j);
+        return Math.sqrt(Math.pow(customers_[0][i] - customers_[0][j], 2) +
+                Math.pow(customers_[1][i] - customers_[1][j], 2));
+    }
+
+    public boolean isValid(List<Integer> sol) {
+        // Count the separators and look for repeated customers in a single pass
+        int zeros = 0;
         boolean repeated = false;
+        BitSet visited = new BitSet(customerNumber_ + 1);
         for (int i = 0; i < sol.size() && !repeated; i++) {
-        	for (int j = i+1; j < sol.size() && !repeated; j++) {
-        		if (sol.get(i) == sol.get(j) && sol.get(i) != 0) repeated = true;
-        	}
+            int customer = sol.get(i);
+            if (customer == 0) {
+                zeros++;
+            } else if (visited.get(customer)) {
+                repeated = true;
+            } else {
+                visited.set(customer);
+            }
         }
-//        System.out.println("Repeated: " + repeated);
 
       if (zeros > vehicleNumber_-1 || repeated) return false;
 
@@ -83,8 +101,7 @@ public class Greedy {
             do {
                 if (newVehicle) {
                     // Distance from depot to first customer
-                    f[0] += Math.sqrt(Math.pow(customers_[0][0] - customers_[0][sol.get(i)], 2) +
-                            Math.pow(customers_[1][0] - customers_[1][sol.get(i)], 2));
+                    f[0] += distance(0, sol.get(i));
                     newVehicle = false;
                 }
                 // Add capacity demanded by current customer
@@ -92,16 +109,14 @@ public class Greedy {
 
                 // If there is next customer, add the distance to him
                 if (i+1 < sol.size() && sol.get(i+1) != 0) {
-                    f[0] += Math.sqrt(Math.pow(customers_[0][sol.get(i)] - customers_[0][sol.get(i+1)], 2) +
-                            Math.pow(customers_[1][sol.get(i)] - customers_[1][sol.get(i+1)], 2));
+                    f[0] += distance(sol.get(i), sol.get(i+1));
                 }
 
                 i++;
             } while (i < sol.size() && sol.get(i) != 0);
 
             // Add the distance from the last customer back to the depot
-            f[0] += Math.sqrt(Math.pow(customers_[0][sol.get(i-1)] - customers_[0][0], 2) +
-                    Math.pow(customers_[1][sol.get(i-1)] - customers_[1][0], 2));
+            f[0] += distance(sol.get(i-1), 0);
             // Add capacity demanded by last customer
             capacityVehicle[vehicleNumber] += demand_[sol.get(i-1)];
         }
@@ -122,18 +137,14 @@ public class Greedy {
             do {
                 if (newVehicle) {
                     // Fuel consumption from depot to first customer
-                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                            Math.sqrt(Math.pow(customers_[0][0] - customers_[0][sol.get(i)], 2) +
-                                    Math.pow(customers_[1][0] - customers_[1][sol.get(i)], 2));
+                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) * distance(0, sol.get(i));
                     newVehicle = false;
                 }
 
                 // If there is next customer, add fuel consumption to him
                 if (i+1 < sol.size() && sol.get(i+1) != 0) {
                     capacityVehicle[vehicleNumber] -= demand_[sol.get(i)]; // Leave demanded capacity on customer
-                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                            Math.sqrt(Math.pow(customers_[0][sol.get(i)] - customers_[0][sol.get(i+1)], 2) +
-                                    Math.pow(customers_[1][sol.get(i)] - customers_[1][sol.get(i+1)], 2));
+                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) * distance(sol.get(i), sol.get(i+1));
                 }
 
                 i++;
@@ -142,9 +153,7 @@ public class Greedy {
             // Add fuel consumption from the last customer back to the depot
             capacityVehicle[vehicleNumber] -= demand_[sol.get(i-1)]; // Leave demanded capacity on customer
             assert capacityVehicle[vehicleNumber] == 0;
-            f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                    Math.sqrt(Math.pow(customers_[0][sol.get(i-1)] - customers_[0][0], 2) +
-                            Math.pow(customers_[1][sol.get(i-1)] - customers_[1][0], 2));
+            f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) * distance(sol.get(i-1), 0);
         }
 
         return f;
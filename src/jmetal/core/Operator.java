@@ -21,6 +21,7 @@
 
 package jmetal.core;
 
+import jmetal.util.Configuration;
 import jmetal.util.JMException;
 
 import java.io.Serializable;
@@ -78,4 +79,25 @@ public abstract class Operator implements Serializable {
     return parameters_.get(name);
   } //getParameter  
 
+  /**
+   * Creates a new operator of the same class with a copy of the parameters of this one, so that
+   * several threads can apply the operator without sharing its internal state. The class of the
+   * operator must have a public constructor receiving the parameters as a <code>HashMap</code>.
+   * @return The new operator
+   * @throws JMException
+   */
+  public Operator copy() throws JMException {
+    HashMap<String, Object> parameters = null ;
+    if (parameters_ != null)
+      parameters = new HashMap<String, Object>(parameters_) ;
+
+    try {
+      return getClass().getConstructor(HashMap.class).newInstance(parameters) ;
+    } catch (ReflectiveOperationException e) {
+      Configuration.logger_.severe("Operator.copy: the operator " + getClass().getName() +
+          " cannot be copied") ;
+      throw new JMException("Exception in " + getClass().getName() + ".copy()") ;
+    }
+  } // copy
+
 } // Operator
@@ -166,6 +166,36 @@ public abstract class Problem implements Serializable {
     // re-define this method
   } // evaluateConstraints
 
+  /**
+   * Evaluates the objectives and the constraints of a range of solutions. By default
+   * they are evaluated one by one; problems which can evaluate many solutions at once
+   * more cheaply may re-define this method. It is called concurrently on disjoint
+   * ranges by parallel evaluators, so it must be thread-safe like <code>evaluate</code>.
+   * @param solutions The solutions
+   * @param from First solution of the range
+   * @param to Position after the last solution of the range
+   * @throws JMException
+   */
+  public void evaluateAll(Solution [] solutions, int from, int to) throws JMException {
+    for (int i = from; i < to; i++) {
+      evaluate(solutions[i]) ;
+      evaluateConstraints(solutions[i]) ;
+    } // for
+  } // evaluateAll
+
+  /**
+   * Evaluates the objectives and the constraints of all the solutions of a
+   * <code>SolutionSet</code>.
+   * @param solutionSet The solutions
+   * @throws JMException
+   */
+  public void evaluateAll(SolutionSet solutionSet) throws JMException {
+    Solution [] solutions = new Solution[solutionSet.size()] ;
+    for (int i = 0; i < solutions.length; i++)
+      solutions[i] = solutionSet.get(i) ;
+    evaluateAll(solutions, 0, solutions.length) ;
+  } // evaluateAll
+
   /**
    * Returns the number of bits that must be used to encode binary-real variables
    * @return the number of bits.
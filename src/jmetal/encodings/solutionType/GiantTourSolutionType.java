@@ -0,0 +1,50 @@
+//  GiantTourSolutionType.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.encodings.solutionType;
+
+import jmetal.core.Variable;
+import jmetal.encodings.variable.GiantTour;
+import jmetal.problems.CVRPTW;
+
+/**
+ * Class representing the solution type of the CVRPTW solutions, composed of a GiantTour. It is an
+ * ArrayInt solution type, so the ArrayInt operators and wrappers accept it
+ */
+public class GiantTourSolutionType extends ArrayIntSolutionType {
+
+  /**
+   * Constructor
+   * @param problem Problem being solved
+   */
+  public GiantTourSolutionType(CVRPTW problem) {
+    super(problem) ;
+  } // GiantTourSolutionType
+
+  /**
+   * Creates the variables of the solution
+   */
+  public Variable[] createVariables() {
+    Variable [] variables = new Variable[1] ;
+    variables[0] = new GiantTour((CVRPTW) problem_) ;
+    return variables ;
+  } // createVariables
+} // GiantTourSolutionType
@@ -23,17 +23,10 @@ package jmetal.encodings.variable;
 
 import jmetal.core.Problem;
 import jmetal.core.Variable;
-import jmetal.problems.CVRPTW;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.PseudoRandom;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
-
 /**
  * Class implementing a decision encodings.variable representing an array of integers.
  * The integer values of the array have their own bounds.
@@ -62,6 +55,12 @@ public class ArrayInt extends Variable {
   private int []lowerBounds_ ;
   private int []upperBounds_ ;
 
+  /**
+   * Aggregates of the routes of the array, when it encodes a giant tour
+   * (only used by problem CVRPTW, null otherwise)
+   */
+  private RouteCache routeCache_ ;
+
   /**
    * Constructor
    */
@@ -97,32 +96,11 @@ public class ArrayInt extends Variable {
     lowerBounds_ = new int[size_];
     upperBounds_ = new int[size_];
 
-    List<Integer> listArray = new ArrayList<>();
-
-    if (problem.getName().equals("CVRPTW")) {
-        // Generate a random solution with the correct number of zeros
-        for (int i = 0; i < ((CVRPTW)problem).getCustomerNumber_(); i++) {
-            listArray.add(i+1);
-        }
-        for (int i = ((CVRPTW)problem).getCustomerNumber_(); i < size_; i++) {
-            listArray.add(0);
-        }
-        // Shuffle the array until a feasible solution is found
-        //do {
-            Collections.shuffle(listArray);
-        //    System.out.println(listArray.toString());
-        //} while (!((CVRPTW)problem).isFeasible(listArray));
-        // Set the array_ variable with the feasible solution found
-        for (int i = 0; i < size_; i++){
-            array_[i] = listArray.get(i);
-        }
-    } else {
-        for (int i = 0; i < size_ ; i++) {
-            lowerBounds_[i] = (int)problem_.getLowerLimit(i);
-            upperBounds_[i] = (int)problem_.getUpperLimit(i);
-            array_[i] = PseudoRandom.randInt(lowerBounds_[i], upperBounds_[i]);
-        }
-    }
+    for (int i = 0; i < size_ ; i++) {
+      lowerBounds_[i] = (int)problem_.getLowerLimit(i);
+      upperBounds_[i] = (int)problem_.getUpperLimit(i);
+      array_[i] = PseudoRandom.randInt(lowerBounds_[i], upperBounds_[i]);
+    } // for
   } // Constructor
 
   /**
@@ -145,22 +123,32 @@ public class ArrayInt extends Variable {
     } // for
   } // Constructor
   
+  /**
+   * Constructor for subclasses keeping the bounds elsewhere
+   * @param array The array of values, used without copying it
+   */
+  protected ArrayInt(int [] array) {
+    size_ = array.length;
+    array_ = array;
+    lowerBounds_ = null ;
+    upperBounds_ = null ;
+    problem_ = null ;
+  } // Constructor
+
   /** 
-   * Copy Constructor
+   * Copy Constructor. The bounds are never modified, so they are shared with the copy
    * @param arrayInt The arrayInt to copy
    */
   private ArrayInt(ArrayInt arrayInt) {
     size_   = arrayInt.size_;
-    array_ = new int[size_];
+    array_ = arrayInt.array_.clone();
         	
-    lowerBounds_ = new int[size_] ;
-   	upperBounds_ = new int[size_] ;
-    	
-    for (int i = 0; i < size_; i++) {
-      array_[i] = arrayInt.array_[i];
-      lowerBounds_[i] = arrayInt.lowerBounds_[i] ;
-      upperBounds_[i] = arrayInt.upperBounds_[i] ;
-    } // for
+    lowerBounds_ = arrayInt.lowerBounds_ ;
+    upperBounds_ = arrayInt.upperBounds_ ;
+    problem_ = arrayInt.problem_ ;
+
+    if (arrayInt.routeCache_ != null)
+      routeCache_ = new RouteCache(arrayInt.routeCache_) ;
   } // Copy Constructor
 
   @Override
@@ -196,8 +184,11 @@ public class ArrayInt extends Variable {
     * @param value The value to be set in position index
     */
   public void setValue(int index, int value) throws JMException {
-    if ((index >= 0) && (index < size_))
+    if ((index >= 0) && (index < size_)) {
+      if ((routeCache_ != null) && (array_[index] != value))
+        routeCache_.markDirty(index) ;
       array_[index] = value;
+    }
    else {
      Configuration.logger_.severe(jmetal.encodings.variable.ArrayInt.class+".setValue(): index value (" + index + ") invalid");
      throw new JMException(jmetal.encodings.variable.ArrayInt.class+": index value (" + index + ") invalid") ;
@@ -205,6 +196,32 @@ public class ArrayInt extends Variable {
   } // setValue
   
 
+  /**
+   * Marks as outdated the cached aggregates of the routes affected by a change in a position.
+   * Operators writing <code>array_</code> directly must call it for every modified position
+   * @param index The modified position
+   */
+  public void markDirty(int index) {
+    if (routeCache_ != null)
+      routeCache_.markDirty(index) ;
+  } // markDirty
+
+  /**
+   * Returns the cached aggregates of the routes encoded in the array
+   * @return The route cache, or null if it has not been computed
+   */
+  public RouteCache getRouteCache() {
+    return routeCache_ ;
+  } // getRouteCache
+
+  /**
+   * Sets the cached aggregates of the routes encoded in the array
+   * @param routeCache The route cache
+   */
+  public void setRouteCache(RouteCache routeCache) {
+    routeCache_ = routeCache ;
+  } // setRouteCache
+
 	/**
 	 * Get the lower bound of a value
 	 * @param index The index of the value
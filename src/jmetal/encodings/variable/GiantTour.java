@@ -0,0 +1,211 @@
+//  GiantTour.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.encodings.variable;
+
+import jmetal.core.Variable;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+/**
+ * Array of integers encoding a giant tour of problem CVRPTW: customers 1..n with zeros separating the
+ * routes of consecutive vehicles. Unlike a plain ArrayInt it only stores the tour: the bounds, the same
+ * for every solution, are taken from the problem, so creating and copying a tour allocates a single array.
+ * Next to the tour it keeps the number of separators and the position of every customer, updated by
+ * <code>setValue</code> and <code>markDirty</code>, and gives access to the routes (start and end of each
+ * one, and the route of a customer) through the route cache of the problem, so consumers do not have to
+ * scan the tour for zeros. Operators writing <code>array_</code> directly must only permute its values
+ * and call <code>markDirty</code> for every modified position once they are done.
+ */
+public class GiantTour extends ArrayInt {
+
+  /**
+   * Problem using the tour
+   */
+  private CVRPTW problem_ ;
+
+  /**
+   * Number of zeros in the tour
+   */
+  private int separators_ ;
+
+  /**
+   * position_[c] is the position of customer c in the tour (-1 if unknown, e.g. after the customer has
+   * been overwritten). Built on the first query, and rebuilt in a new array which is then published, so
+   * that a query on a tour shared by several threads never writes the array others are reading
+   */
+  private volatile int [] position_ ;
+
+  /**
+   * Constructor. Creates a random giant tour with the right number of separators
+   * @param problem The problem
+   */
+  public GiantTour(CVRPTW problem) {
+    super(new int[problem.getNumberOfVariables()]) ;
+    problem_ = problem ;
+    separators_ = array_.length - problem.getCustomerNumber_() ;
+    position_ = null ;
+
+    int customers = problem.getCustomerNumber_() ;
+    for (int i = 0; i < customers; i++)
+      array_[i] = i + 1 ;
+    // The remaining positions are already zero. Shuffled with PseudoRandom so that the initial
+    // population can be reproduced
+    for (int i = array_.length - 1; i > 0; i--) {
+      int j = PseudoRandom.randInt(0, i) ;
+      int swap = array_[i] ;
+      array_[i] = array_[j] ;
+      array_[j] = swap ;
+    } // for
+  } // GiantTour
+
+  /**
+   * Copy constructor
+   * @param tour The tour to copy
+   */
+  private GiantTour(GiantTour tour) {
+    super(tour.array_.clone()) ;
+    problem_ = tour.problem_ ;
+    separators_ = tour.separators_ ;
+    position_ = (tour.position_ == null) ? null : tour.position_.clone() ;
+    if (tour.getRouteCache() != null)
+      setRouteCache(new RouteCache(tour.getRouteCache())) ;
+  } // GiantTour
+
+  @Override
+  public Variable deepCopy() {
+    return new GiantTour(this) ;
+  } // deepCopy
+
+  /**
+   * setValue
+   * @param index Index of value to be returned
+   * @param value The value to be set in position index
+   */
+  public void setValue(int index, int value) throws JMException {
+    if ((index >= 0) && (index < array_.length) && (array_[index] != value)) {
+      int old = array_[index] ;
+      if (old == 0)
+        separators_-- ;
+      else if ((position_ != null) && (position_[old] == index))
+        position_[old] = -1 ;
+      if (value == 0)
+        separators_++ ;
+      else if (position_ != null)
+        position_[value] = index ;
+    } // if
+    super.setValue(index, value) ;
+  } // setValue
+
+  /**
+   * Marks a position as modified by an operator writing <code>array_</code> directly
+   * @param index The modified position
+   */
+  public void markDirty(int index) {
+    super.markDirty(index) ;
+    if ((position_ != null) && (array_[index] != 0))
+      position_[array_[index]] = index ;
+  } // markDirty
+
+  /**
+   * Replaces the whole tour, marking as modified only the positions whose value changes, so that the
+   * routes left untouched are not re-evaluated
+   * @param tour The new tour, a permutation of the current one
+   */
+  public void setTour(int [] tour) {
+    for (int i = 0; i < array_.length; i++) {
+      if (array_[i] != tour[i]) {
+        array_[i] = tour[i] ;
+        markDirty(i) ;
+      } // if
+    } // for
+  } // setTour
+
+  /**
+   * Returns the number of separators (zeros) of the tour
+   */
+  public int getNumberOfSeparators() {
+    return separators_ ;
+  } // getNumberOfSeparators
+
+  /**
+   * Returns the position of a customer in the tour
+   * @param customer The customer (1..n)
+   */
+  public int positionOf(int customer) {
+    int [] position = position_ ;
+    if ((position == null) || (position[customer] < 0) || (array_[position[customer]] != customer)) {
+      position = new int[problem_.getCustomerNumber_() + 1] ;
+      position[0] = -1 ;
+      for (int i = 0; i < array_.length; i++)
+        if (array_[i] != 0)
+          position[array_[i]] = i ;
+      position_ = position ;
+    } // if
+    return position[customer] ;
+  } // positionOf
+
+  /**
+   * Returns the routes of the tour, with their first and last positions and their aggregates. Only the
+   * routes modified since the last call (or evaluation) are re-evaluated
+   */
+  public RouteCache getRoutes() {
+    return problem_.getRoutes(this) ;
+  } // getRoutes
+
+  /**
+   * Returns the index of the route visiting a customer
+   * @param customer The customer (1..n)
+   */
+  public int routeOf(int customer) {
+    return getRoutes().routeOf(positionOf(customer)) ;
+  } // routeOf
+
+  /**
+   * Get the lower bound of a value
+   * @param index The index of the value
+   * @return the lower bound
+   */
+  public double getLowerBound(int index) throws JMException {
+    if ((index >= 0) && (index < array_.length))
+      return problem_.getLowerLimit(index) ;
+    else {
+      Configuration.logger_.severe(GiantTour.class + ".getLowerBound(): index value (" + index + ") invalid") ;
+      throw new JMException(GiantTour.class + ".getLowerBound: index value (" + index + ") invalid") ;
+    } // else
+  } // getLowerBound
+
+  /**
+   * Get the upper bound of a value
+   * @param index The index of the value
+   * @return the upper bound
+   */
+  public double getUpperBound(int index) throws JMException {
+    if ((index >= 0) && (index < array_.length))
+      return problem_.getUpperLimit(index) ;
+    else {
+      Configuration.logger_.severe(GiantTour.class + ".getUpperBound(): index value (" + index + ") invalid") ;
+      throw new JMException(GiantTour.class + ".getUpperBound: index value (" + index + ") invalid") ;
+    } // else
+  } // getUpperBound
+} // GiantTour
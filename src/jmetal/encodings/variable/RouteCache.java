@@ -0,0 +1,198 @@
+//  RouteCache.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.encodings.variable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Class storing the aggregates of each route of a giant tour (routes of consecutive vehicles
+ * separated by zeros), so that a problem can re-evaluate only the routes changed by an operator.
+ * Route r spans the positions [start_[r], end_[r]), where end_[r] is the position of the separator
+ * closing the route (or the length of the tour for the last one). Empty routes are also stored, so
+ * there is always one route more than separators.
+ * The values are filled in and kept up to date by the problem (see CVRPTW); operators only have to
+ * call <code>markDirty</code> for every position they modify.
+ */
+public class RouteCache implements Serializable {
+
+  /**
+   * Number of routes of the tour
+   */
+  public int numberOfRoutes_;
+
+  /**
+   * First position and closing separator position of each route
+   */
+  public int [] start_;
+  public int [] end_;
+
+  /**
+   * Aggregates of each route: load, distance, fuel consumption, time window violation and
+   * capacity violation (violations are zero or negative)
+   */
+  public double [] load_;
+  public double [] distance_;
+  public double [] fuel_;
+  public double [] timeViolation_;
+  public double [] capacityViolation_;
+
+  /**
+   * Sum of each aggregate over all the routes: distance, fuel, time window violation and
+   * capacity violation
+   */
+  public double [] totals_;
+
+  /**
+   * Routes whose aggregates are outdated
+   */
+  private boolean [] dirty_;
+  private int numberOfDirtyRoutes_;
+
+  /**
+   * Constructor
+   * @param capacity Initial number of routes that can be stored
+   */
+  public RouteCache(int capacity) {
+    numberOfRoutes_ = 0;
+    start_ = new int[capacity];
+    end_ = new int[capacity];
+    load_ = new double[capacity];
+    distance_ = new double[capacity];
+    fuel_ = new double[capacity];
+    timeViolation_ = new double[capacity];
+    capacityViolation_ = new double[capacity];
+    totals_ = new double[4];
+    dirty_ = new boolean[capacity];
+    numberOfDirtyRoutes_ = 0;
+  } // RouteCache
+
+  /**
+   * Copy constructor
+   * @param cache The cache to copy
+   */
+  public RouteCache(RouteCache cache) {
+    numberOfRoutes_ = cache.numberOfRoutes_;
+    start_ = cache.start_.clone();
+    end_ = cache.end_.clone();
+    load_ = cache.load_.clone();
+    distance_ = cache.distance_.clone();
+    fuel_ = cache.fuel_.clone();
+    timeViolation_ = cache.timeViolation_.clone();
+    capacityViolation_ = cache.capacityViolation_.clone();
+    totals_ = cache.totals_.clone();
+    dirty_ = cache.dirty_.clone();
+    numberOfDirtyRoutes_ = cache.numberOfDirtyRoutes_;
+  } // RouteCache
+
+  /**
+   * Appends a route to the cache, growing the arrays if needed
+   * @param start First position of the route
+   * @param end Position of the separator closing the route
+   * @return The index of the route
+   */
+  public int addRoute(int start, int end) {
+    if (numberOfRoutes_ == start_.length) {
+      int capacity = 2 * start_.length + 1;
+      start_ = Arrays.copyOf(start_, capacity);
+      end_ = Arrays.copyOf(end_, capacity);
+      load_ = Arrays.copyOf(load_, capacity);
+      distance_ = Arrays.copyOf(distance_, capacity);
+      fuel_ = Arrays.copyOf(fuel_, capacity);
+      timeViolation_ = Arrays.copyOf(timeViolation_, capacity);
+      capacityViolation_ = Arrays.copyOf(capacityViolation_, capacity);
+      dirty_ = Arrays.copyOf(dirty_, capacity);
+    } // if
+    start_[numberOfRoutes_] = start;
+    end_[numberOfRoutes_] = end;
+    return numberOfRoutes_++;
+  } // addRoute
+
+  /**
+   * Removes all the routes
+   */
+  public void clear() {
+    Arrays.fill(dirty_, 0, numberOfRoutes_, false);
+    numberOfRoutes_ = 0;
+    numberOfDirtyRoutes_ = 0;
+  } // clear
+
+  /**
+   * Returns the route containing a position of the tour. A separator belongs to the route it closes
+   * @param position The position
+   * @return The index of the route
+   */
+  public int routeOf(int position) {
+    int low = 0;
+    int high = numberOfRoutes_ - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (start_[middle] <= position)
+        low = middle;
+      else
+        high = middle - 1;
+    } // while
+    return low;
+  } // routeOf
+
+  /**
+   * Marks as outdated the routes affected by a change in a position of the tour. Changing a separator
+   * affects both the route it closes and the following one
+   * @param position The modified position
+   */
+  public void markDirty(int position) {
+    int route = routeOf(position);
+    setDirty(route);
+    if ((position == end_[route]) && (route + 1 < numberOfRoutes_))
+      setDirty(route + 1);
+  } // markDirty
+
+  private void setDirty(int route) {
+    if (!dirty_[route]) {
+      dirty_[route] = true;
+      numberOfDirtyRoutes_++;
+    } // if
+  } // setDirty
+
+  /**
+   * Returns true if a route is outdated
+   * @param route The route
+   */
+  public boolean isDirty(int route) {
+    return dirty_[route];
+  } // isDirty
+
+  /**
+   * Returns true if any route is outdated
+   */
+  public boolean isDirty() {
+    return numberOfDirtyRoutes_ > 0;
+  } // isDirty
+
+  /**
+   * Marks every route as up to date
+   */
+  public void clearDirty() {
+    Arrays.fill(dirty_, 0, numberOfRoutes_, false);
+    numberOfDirtyRoutes_ = 0;
+  } // clearDirty
+} // RouteCache
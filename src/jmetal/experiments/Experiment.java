@@ -23,10 +23,13 @@
 package jmetal.experiments;
 
 import jmetal.core.Algorithm;
+import jmetal.experiments.util.ExperimentScheduler;
+import jmetal.experiments.util.ExperimentShard;
 import jmetal.experiments.util.RBoxplot;
 import jmetal.experiments.util.RWilcoxon;
 import jmetal.experiments.util.RunExperiment;
 import jmetal.experiments.util.Statistics;
+import jmetal.problems.ProblemFactory;
 import jmetal.qualityIndicator.Epsilon;
 import jmetal.qualityIndicator.Hypervolume;
 import jmetal.qualityIndicator.InvertedGenerationalDistance;
@@ -36,7 +39,13 @@ import jmetal.util.JMException;
 import jmetal.util.NonDominatedSolutionList;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,6 +69,8 @@ public abstract class Experiment {
   // Pareto set
   public int independentRuns_; // Number of independent runs per algorithm
   public Settings[] algorithmSettings_; // Paremeter experiments.settings of each algorithm
+  public long seed_; // Seed of the random streams of the runs (the same seed replays the experiment)
+  public boolean resume_; // Whether the runs finished by a previous execution are skipped
   //Algorithm[] algorithm_; // jMetal algorithms to be executed
   HashMap<String, Object> map_; // Map used to send experiment parameters to threads
   public HashMap<String, Boolean> indicatorMinimize_; // To indicate whether an indicator
@@ -112,6 +123,10 @@ public abstract class Experiment {
 
     independentRuns_ = 0;
 
+    seed_ = System.currentTimeMillis();
+
+    resume_ = true;
+
     indicatorMinimize_ = new HashMap<String, Boolean>();
     indicatorMinimize_.put("HV", false);
     indicatorMinimize_.put("EPSILON", true);
@@ -140,13 +155,41 @@ public abstract class Experiment {
     System.out.println("Experiment: Number of algorithms: " + algorithmNameList_.length);
     System.out.println("Experiment: Number of problems: " + problemList_.length);
     System.out.println("Experiment: runs: " + independentRuns_);
+    System.out.println("Experiment: seed: " + seed_);
     System.out.println("Experiment: Experiment directory: " + experimentBaseDirectory_);
 
     // Fin modificación planificación Threads
 
+    // The tasks are enumerated up front and run on a work-stealing pool, largest problems first
+    new ExperimentScheduler(this, numberOfThreads).run();
+
+    // Inicio modificación ReferenceFronts
+    //generateQualityIndicators();
+    // Fin modificación ReferenceFronts
+  }
+
+  /**
+   * Runs the experiment as one of several processes sharing experimentBaseDirectory_ (see ExperimentShard),
+   * and generates the quality indicators once every process has finished its tasks
+   * @return true if this process generated the quality indicators
+   */
+  public boolean runShardedExperiment(int numberOfThreads) throws JMException, IOException {
+    System.out.println("Experiment: Name: " + experimentName_);
+    System.out.println("Experiment: shard " + ManagementFactory.getRuntimeMXBean().getName() +
+        " creating " + numberOfThreads + " threads");
+    System.out.println("Experiment: seed: " + seed_);
+    System.out.println("Experiment: Experiment directory: " + experimentBaseDirectory_);
+
+    return new ExperimentShard(this, numberOfThreads).run();
+  } // runShardedExperiment
+
+  /**
+   * Runs the experiment with the former engine: every thread polls getNextProblem and configures every
+   * algorithm of the experiment to run one of them
+   */
+  public void runExperimentWithThreads(int numberOfThreads) throws JMException, IOException {
     Thread[] p = new RunExperiment[numberOfThreads];
     for (int i = 0; i < numberOfThreads; i++) {
-      //p[i] = new Experiment(map_, i, numberOfThreads, problemList_.length);
       p[i] = new RunExperiment(this, map_, i, numberOfThreads, problemList_.length);
       p[i].start();
     }
@@ -158,11 +201,7 @@ public abstract class Experiment {
     } catch (InterruptedException ex) {
       Logger.getLogger(Experiment.class.getName()).log(Level.SEVERE, null, ex);
     }
-
-    // Inicio modificación ReferenceFronts
-    //generateQualityIndicators();
-    // Fin modificación ReferenceFronts
-  }
+  } // runExperimentWithThreads
 
   /**
    * Runs the experiment
@@ -183,6 +222,7 @@ public abstract class Experiment {
     map_.put("paretoFrontDirectory", paretoFrontDirectory_);
     map_.put("paretoFrontFile", paretoFrontFile_);
     map_.put("independentRuns", independentRuns_);
+    map_.put("seed", seed_);
     map_.put("outputParetoFrontFile", outputParetoFrontFile_);
     map_.put("outputParetoSetFile", outputParetoSetFile_);
     map_.put("problemsSettings", problemsSettings_);
@@ -234,6 +274,39 @@ public abstract class Experiment {
    */
   public abstract void algorithmSettings(String problemName, int problemId, Algorithm[] algorithm) throws ClassNotFoundException;
 
+  /**
+   * Configures the algorithm of a single task. By default it configures every algorithm with
+   * algorithmSettings and returns the requested one, so experiments with many algorithms should
+   * override it to build only that one
+   *
+   * @param problemName Problem to solve
+   * @param problemId   Index of the problem in problemList_
+   * @param algorithmId Index of the algorithm in algorithmNameList_
+   * @return The algorithm, or null if it could not be configured
+   * @throws ClassNotFoundException
+   */
+  public Algorithm algorithmSettings(String problemName, int problemId, int algorithmId) throws ClassNotFoundException {
+    Algorithm[] algorithm = new Algorithm[algorithmNameList_.length];
+    algorithmSettings(problemName, problemId, algorithm);
+    return algorithm[algorithmId];
+  } // algorithmSettings
+
+  /**
+   * Estimates the size of a problem, used to run the tasks on the largest problems first. By default it
+   * is the number of variables of the problem (e.g. customers plus vehicles of a CVRPTW instance), or 0
+   * if the problem cannot be built by ProblemFactory
+   *
+   * @param problemId Index of the problem in problemList_
+   */
+  public double problemSize(int problemId) {
+    try {
+      Object[] problemParams = {"Real"};
+      return new ProblemFactory().getProblem(problemList_[problemId], problemParams).getNumberOfVariables();
+    } catch (JMException | RuntimeException e) {
+      return 0;
+    }
+  } // problemSize
+
   public static void main(String[] args) throws JMException, IOException {
   }
 
@@ -265,127 +338,108 @@ public abstract class Experiment {
   } // checkParetoFronts
 
   /**
-   * Generate the Quality Indicators
+   * Generate the Quality Indicators, with one thread per available core
    */
   public void generateQualityIndicators() {
+    generateQualityIndicators(Runtime.getRuntime().availableProcessors());
+  } // generateQualityIndicators
+
+  /**
+   * Generate the Quality Indicators. The indicators of every algorithm and problem are computed on a pool
+   * of threads; each reference front and each front of a run is read once, and each indicator file is
+   * written at once
+   * @param numberOfThreads Number of threads of the pool
+   */
+  public void generateQualityIndicators(int numberOfThreads) {
 
     checkParetoFronts();
 
     if (indicatorList_.length > 0) {
 
-      for (int algorithmIndex = 0; algorithmIndex < algorithmNameList_.length; algorithmIndex++) {
-
-        String algorithmDirectory;
-        algorithmDirectory = experimentBaseDirectory_ + "/data/" + algorithmNameList_[algorithmIndex] + "/";
-
-        for (int problemIndex = 0; problemIndex < problemList_.length; problemIndex++) {
-
-          String problemDirectory = algorithmDirectory + problemList_[problemIndex];
-          String paretoFrontPath = frontPath_[problemIndex];
-
-          for (String anIndicatorList_ : indicatorList_) {
-            System.out.println("Experiment - Quality indicator: " + anIndicatorList_);
-
-            resetFile(problemDirectory + "/" + anIndicatorList_);
-
-            for (int numRun = 0; numRun < independentRuns_; numRun++) {
-
-              String outputParetoFrontFilePath;
-              outputParetoFrontFilePath = problemDirectory + "/FUN." + numRun;
-              String solutionFrontFile = outputParetoFrontFilePath;
-              String qualityIndicatorFile = problemDirectory;
-              double value = 0;
-
-              double[][] trueFront =  new Hypervolume().utils_.readFront(paretoFrontPath);
-
-              if (anIndicatorList_.equals("HV")) {
-
-                Hypervolume indicators = new Hypervolume();
-                double[][] solutionFront =
-                        indicators.utils_.readFront(solutionFrontFile);
-                //double[][] trueFront =
-                //        indicators.utils_.readFront(paretoFrontPath);
-                value = indicators.hypervolume(solutionFront, trueFront, trueFront[0].length);
-
-                qualityIndicatorFile = qualityIndicatorFile + "/HV";
-
-              }
-              if (anIndicatorList_.equals("SPREAD")) {
-                Spread indicators = new Spread();
-                double[][] solutionFront =
-                        indicators.utils_.readFront(solutionFrontFile);
-                //double[][] trueFront =
-                //        indicators.utils_.readFront(paretoFrontPath);
-                value = indicators.spread(solutionFront, trueFront, trueFront[0].length);
-
-                qualityIndicatorFile = qualityIndicatorFile + "/SPREAD";
-              }
-              if (anIndicatorList_.equals("IGD")) {
-                InvertedGenerationalDistance indicators = new InvertedGenerationalDistance();
-                double[][] solutionFront =
-                        indicators.utils_.readFront(solutionFrontFile);
-                //double[][] trueFront =
-                //        indicators.utils_.readFront(paretoFrontPath);
-                value = indicators.invertedGenerationalDistance(solutionFront, trueFront, trueFront[0].length);
-
-                qualityIndicatorFile = qualityIndicatorFile + "/IGD";
-              }
-              if (anIndicatorList_.equals("EPSILON")) {
-                Epsilon indicators = new Epsilon();
-                double[][] solutionFront =
-                        indicators.utils_.readFront(solutionFrontFile);
-                //double[][] trueFront =
-                //        indicators.utils_.readFront(paretoFrontPath);
-                value = indicators.epsilon(solutionFront, trueFront, trueFront[0].length);
-
-                qualityIndicatorFile = qualityIndicatorFile + "/EPSILON";
-              }
-
-
-              if (!qualityIndicatorFile.equals(problemDirectory)) {
-                FileWriter os;
-                try {
-                  os = new FileWriter(qualityIndicatorFile, true);
-                  os.write("" + value + "\n");
-                  os.close();
-                } catch (IOException ex) {
-                  Logger.getLogger(Experiment.class.getName()).log(Level.SEVERE, null, ex);
-                }
-              } // if
-            } // for
+      // The reference fronts are shared by the tasks, which only read them
+      final double[][][] trueFronts = new double[problemList_.length][][];
+      MetricsUtil utils = new MetricsUtil();
+      for (int problemIndex = 0; problemIndex < problemList_.length; problemIndex++)
+        trueFronts[problemIndex] = utils.readFront(frontPath_[problemIndex]);
+
+      ForkJoinPool pool = new ForkJoinPool(Math.max(1, numberOfThreads));
+      try {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int algorithmIndex = 0; algorithmIndex < algorithmNameList_.length; algorithmIndex++) {
+          for (int problemIndex = 0; problemIndex < problemList_.length; problemIndex++) {
+            final int algorithm = algorithmIndex;
+            final int problem = problemIndex;
+            futures.add(pool.submit(() -> {
+              generateQualityIndicators(algorithm, problem, trueFronts[problem]);
+              return null;
+            }));
           } // for
         } // for
-      } // for
+
+        for (Future<Void> future : futures) {
+          try {
+            future.get();
+          } catch (ExecutionException ex) {
+            Logger.getLogger(Experiment.class.getName()).log(Level.SEVERE, null, ex.getCause());
+          }
+        } // for
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        Logger.getLogger(Experiment.class.getName()).log(Level.SEVERE, null, ex);
+      } finally {
+        pool.shutdownNow();
+      }
     } // if
-  }
+  } // generateQualityIndicators
 
   /**
-   * @param file
+   * Computes the quality indicators of the runs of an algorithm on a problem, writing one file per indicator
+   * with a value per run
+   * @param algorithmIndex Index of the algorithm
+   * @param problemIndex Index of the problem
+   * @param trueFront Reference front of the problem
    */
-  private void resetFile(String file) {
-    File f = new File(file);
-    if (f.exists()) {
-      System.out.println("File " + file + " exist.");
-
-      if (f.isDirectory()) {
-        System.out.println("File " + file + " is a directory. Deleting directory.");
-        if (f.delete()) {
-          System.out.println("Directory successfully deleted.");
-        } else {
-          System.out.println("Error deleting directory.");
-        }
-      } else {
-        System.out.println("File " + file + " is a file. Deleting file.");
-        if (f.delete()) {
-          System.out.println("File succesfully deleted.");
-        } else {
-          System.out.println("Error deleting file.");
-        }
-      }
-    } else {
-      System.out.println("File " + file + " does NOT exist.");
-    }
-  } // resetFile
+  private void generateQualityIndicators(int algorithmIndex, int problemIndex, double[][] trueFront)
+      throws IOException {
+    String problemDirectory = experimentBaseDirectory_ + "/data/" + algorithmNameList_[algorithmIndex] + "/" +
+                              problemList_[problemIndex];
+    System.out.println("Experiment - Quality indicators: " + algorithmNameList_[algorithmIndex] + ", " +
+                       problemList_[problemIndex]);
+
+    // The fronts of the runs are read once for all the indicators
+    MetricsUtil utils = new MetricsUtil();
+    double[][][] solutionFronts = new double[independentRuns_][][];
+    for (int numRun = 0; numRun < independentRuns_; numRun++)
+      solutionFronts[numRun] = utils.readFront(problemDirectory + "/FUN." + numRun);
+
+    int numberOfObjectives = trueFront[0].length;
+    for (String anIndicatorList_ : indicatorList_) {
+      StringBuilder values = new StringBuilder();
+      for (int numRun = 0; (values != null) && (numRun < independentRuns_); numRun++) {
+        double value;
+        if (anIndicatorList_.equals("HV"))
+          value = new Hypervolume().hypervolume(solutionFronts[numRun], trueFront, numberOfObjectives);
+        else if (anIndicatorList_.equals("SPREAD"))
+          value = new Spread().spread(solutionFronts[numRun], trueFront, numberOfObjectives);
+        else if (anIndicatorList_.equals("IGD"))
+          value = new InvertedGenerationalDistance().invertedGenerationalDistance(solutionFronts[numRun],
+                                                                                  trueFront, numberOfObjectives);
+        else if (anIndicatorList_.equals("EPSILON"))
+          value = new Epsilon().epsilon(solutionFronts[numRun], trueFront, numberOfObjectives);
+        else {
+          values = null; // Unknown indicator, no file is written
+          break;
+        } // else
+        values.append(value).append('\n');
+      } // for
+
+      File file = new File(problemDirectory, anIndicatorList_);
+      if (values == null)
+        file.delete();
+      else
+        Files.write(file.toPath(), values.toString().getBytes(StandardCharsets.US_ASCII));
+    } // for
+  } // generateQualityIndicators
 
   /**
    * @param problemIndex
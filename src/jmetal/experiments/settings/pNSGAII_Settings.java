@@ -31,8 +31,8 @@ import jmetal.operators.selection.Selection;
 import jmetal.operators.selection.SelectionFactory;
 import jmetal.problems.ProblemFactory;
 import jmetal.util.JMException;
+import jmetal.util.parallel.BatchEvaluator;
 import jmetal.util.parallel.IParallelEvaluator;
-import jmetal.util.parallel.MultithreadedEvaluator;
 
 import java.util.HashMap;
 import java.util.Properties;
@@ -85,7 +85,7 @@ public class pNSGAII_Settings extends Settings {
 
     HashMap  parameters ; // Operator parameters
 
-    IParallelEvaluator parallelEvaluator = new MultithreadedEvaluator(numberOfThreads_) ;
+    IParallelEvaluator parallelEvaluator = new BatchEvaluator(numberOfThreads_) ;
 
     // Creating the algorithm. 
     algorithm = new pNSGAII(problem_, parallelEvaluator) ;
@@ -132,7 +132,7 @@ public class pNSGAII_Settings extends Settings {
 
     numberOfThreads_ = Integer.parseInt(configuration.getProperty("numberOfThreads",String.valueOf(numberOfThreads_)));
 
-    IParallelEvaluator parallelEvaluator = new MultithreadedEvaluator(numberOfThreads_) ;
+    IParallelEvaluator parallelEvaluator = new BatchEvaluator(numberOfThreads_) ;
 
     // Creating the algorithm.
     algorithm = new pNSGAII(problem_, parallelEvaluator) ;
@@ -41,6 +41,10 @@ import java.util.logging.Logger;
  */
 public class ParametricConfiguration extends Experiment {
 
+  private static final double[] MUTATION_PROBABILITIES = {0.1, 0.01, 0.001};
+  private static final double[] CROSSOVER_PROBABILITIES = {0.7, 0.8, 0.9};
+  private static final int[] POPULATION_SIZES = {50, 100, 150};
+
   /**
    * Configures the algorithms in each independent run
    * @param problemName The problem to solve
@@ -50,44 +54,40 @@ public class ParametricConfiguration extends Experiment {
   public void algorithmSettings(String problemName, 
   		                          int problemIndex, 
   		                          Algorithm[] algorithm) throws ClassNotFoundException {
+    for (int i = 0; i < algorithmNameList_.length; i++)
+      algorithm[i] = algorithmSettings(problemName, problemIndex, i);
+  } // algorithmSettings
+
+  /**
+   * Configures only the algorithm of a task
+   * @param problemName The problem to solve
+   * @param problemIndex
+   * @param algorithmIndex
+   * @throws ClassNotFoundException 
+   */
+  public Algorithm algorithmSettings(String problemName,
+                                     int problemIndex,
+                                     int algorithmIndex) throws ClassNotFoundException {
     try {
-      int numberOfAlgorithms = algorithmNameList_.length;
-
-      HashMap[] parameters = new HashMap[numberOfAlgorithms];
-
-      for (int i = 0; i < numberOfAlgorithms; i++) {
-        parameters[i] = new HashMap();
-      } // for
-
-      if (!(paretoFrontFile_[problemIndex] == null) && !paretoFrontFile_[problemIndex].equals("")) {
-        for (int i = 0; i < numberOfAlgorithms; i++)
-          parameters[i].put("paretoFrontFile_", paretoFrontFile_[problemIndex]);
-        } // if
-
-
-        double[] mutProb = new double[3];
-        mutProb[0] = 0.1; mutProb[1] = 0.01; mutProb[2] = 0.001;
-        double[] crossProb = new double[3];
-        crossProb[0] = 0.7; crossProb[1] = 0.8; crossProb[2] = 0.9;
-        int[] popNum = new int[3];
-        popNum[0] = 50; popNum[1] =100; popNum[2] =150;
-        for (int i = 0; i < 3; i++) {
-          for (int j = 0; j < 3; j++) {
-            for (int k = 0; k < 3; k++) {
-              parameters[9*i+3*j+k].put("populationSize_", popNum[k]);
-              parameters[9*i+3*j+k].put("crossoverProbability_", crossProb[j]);
-              parameters[9*i+3*j+k].put("mutationProbability_", mutProb[i]);
-              algorithm[9*i+3*j+k] = new NSGAII_Settings(problemName).configure(parameters[9*i+3*j+k]);
-            }
-          }
-        }
-      } catch (IllegalArgumentException ex) {
+      HashMap parameters = new HashMap();
+      if (!(paretoFrontFile_[problemIndex] == null) && !paretoFrontFile_[problemIndex].equals(""))
+        parameters.put("paretoFrontFile_", paretoFrontFile_[problemIndex]);
+
+      // Algorithm 9*i+3*j+k uses the i-th mutation probability, the j-th crossover probability and
+      // the k-th population size
+      parameters.put("populationSize_", POPULATION_SIZES[algorithmIndex % 3]);
+      parameters.put("crossoverProbability_", CROSSOVER_PROBABILITIES[(algorithmIndex / 3) % 3]);
+      parameters.put("mutationProbability_", MUTATION_PROBABILITIES[algorithmIndex / 9]);
+
+      return new NSGAII_Settings(problemName).configure(parameters);
+    } catch (IllegalArgumentException ex) {
       Logger.getLogger(ParametricConfiguration.class.getName()).log(Level.SEVERE, null, ex);
     } catch (IllegalAccessException ex) {
       Logger.getLogger(ParametricConfiguration.class.getName()).log(Level.SEVERE, null, ex);
     } catch  (JMException ex) {
       Logger.getLogger(ParametricConfiguration.class.getName()).log(Level.SEVERE, null, ex);
     }
+    return null;
   } // algorithmSettings
 
   /**
@@ -41,6 +41,9 @@ import java.util.logging.Logger;
  */
 public class ParametricConfiguration2 extends Experiment {
 
+  private static final double[] MUTATION_PROBABILITIES = {0.1, 0.01, 0.001};
+  private static final double[] CROSSOVER_PROBABILITIES = {0.7, 0.8, 0.9};
+
   /**
    * Configures the algorithms in each independent run
    * @param problemName The problem to solve
@@ -50,43 +53,44 @@ public class ParametricConfiguration2 extends Experiment {
   public void algorithmSettings(String problemName, 
   		                          int problemIndex, 
   		                          Algorithm[] algorithm) throws ClassNotFoundException {
+    for (int i = 0; i < algorithmNameList_.length; i++)
+      algorithm[i] = algorithmSettings(problemName, problemIndex, i);
+  } // algorithmSettings
+
+  /**
+   * Configures only the algorithm of a task
+   * @param problemName The problem to solve
+   * @param problemIndex
+   * @param algorithmIndex
+   * @throws ClassNotFoundException 
+   */
+  public Algorithm algorithmSettings(String problemName,
+                                     int problemIndex,
+                                     int algorithmIndex) throws ClassNotFoundException {
     try {
-      int numberOfAlgorithms = algorithmNameList_.length;
-
-      HashMap[] parameters = new HashMap[numberOfAlgorithms];
-
-      for (int i = 0; i < numberOfAlgorithms; i++) {
-        parameters[i] = new HashMap();
-      } // for
-
-      if (!(paretoFrontFile_[problemIndex] == null) && !paretoFrontFile_[problemIndex].equals("")) {
-        for (int i = 0; i < numberOfAlgorithms; i++)
-          parameters[i].put("paretoFrontFile_", paretoFrontFile_[problemIndex]);
-        } // if
-
-
-        double[] mutProb = new double[3];
-        mutProb[0] = 0.1; mutProb[1] = 0.01; mutProb[2] = 0.001;
-        double[] crossProb = new double[3];
-        crossProb[0] = 0.7; crossProb[1] = 0.8; crossProb[2] = 0.9;
-        for (int i = 0; i < 3; i++) {
-          for (int j = 0; j < 3; j++) {
-            parameters[3*i+j].put("crossoverProbability_", crossProb[j]);
-            parameters[3*i+j].put("mutationProbability_", mutProb[i]);
-            algorithm[3*i+j] = new NSGAII_Settings(problemName).configure(parameters[3*i+j]);
-          }
-        }
-      } catch (IllegalArgumentException ex) {
+      HashMap parameters = new HashMap();
+      if (!(paretoFrontFile_[problemIndex] == null) && !paretoFrontFile_[problemIndex].equals(""))
+        parameters.put("paretoFrontFile_", paretoFrontFile_[problemIndex]);
+
+      // Algorithm 3*i+j uses the i-th mutation probability and the j-th crossover probability
+      parameters.put("crossoverProbability_", CROSSOVER_PROBABILITIES[algorithmIndex % 3]);
+      parameters.put("mutationProbability_", MUTATION_PROBABILITIES[algorithmIndex / 3]);
+
+      return new NSGAII_Settings(problemName).configure(parameters);
+    } catch (IllegalArgumentException ex) {
       Logger.getLogger(ParametricConfiguration2.class.getName()).log(Level.SEVERE, null, ex);
     } catch (IllegalAccessException ex) {
       Logger.getLogger(ParametricConfiguration2.class.getName()).log(Level.SEVERE, null, ex);
     } catch  (JMException ex) {
       Logger.getLogger(ParametricConfiguration2.class.getName()).log(Level.SEVERE, null, ex);
     }
+    return null;
   } // algorithmSettings
 
   /**
-   * Main method
+   * Main method. With the arguments -shard numberOfThreads seed, runs as one of several processes sharing
+   * the experiment directory (see ExperimentShard); all of them must be given the same seed, and the one
+   * generating the quality indicators also generates the latex tables and the Friedman tests
    * @param args
    * @throws JMException
    * @throws IOException
@@ -118,12 +122,21 @@ public class ParametricConfiguration2 extends Experiment {
 
     exp.independentRuns_ = 20;
 
+    boolean shard = (args.length == 3) && args[0].equals("-shard");
+    if (shard)
+      exp.seed_ = Long.parseLong(args[2]);
+
     exp.initExperiment();
 
     // Run the experiments
     int numberOfThreads;
-    exp.runExperiment(numberOfThreads = 4);
-    exp.generateQualityIndicators();
+    if (shard) {
+      if (!exp.runShardedExperiment(numberOfThreads = Integer.parseInt(args[1])))
+        return; // Another shard generated the quality indicators
+    } else {
+      exp.runExperiment(numberOfThreads = 4);
+      exp.generateQualityIndicators();
+    }
 
     // Generate latex tables
     exp.generateLatexTables();
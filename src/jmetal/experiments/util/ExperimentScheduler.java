@@ -0,0 +1,361 @@
+//  ExperimentScheduler.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.util;
+
+import jmetal.core.Algorithm;
+import jmetal.core.SolutionSet;
+import jmetal.experiments.Experiment;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Engine running the (algorithm, problem, run) tasks of an experiment. The tasks are enumerated before
+ * starting and submitted to a work-stealing pool from the largest problem to the smallest one (see
+ * <code>Experiment.problemSize</code>), so that the long runs do not form the tail of the experiment.
+ * Every task builds only the algorithm it runs (see <code>Experiment.algorithmSettings(String, int, int)</code>)
+ * and runs with the random stream of its run, derived from the seed of the experiment, so the results do
+ * not depend on the number of threads nor on the order in which the tasks are executed.
+ * A task stores its front in temporary files which are renamed to FUN.i and VAR.i once complete, and then
+ * records its completion with a marker file DONE.i, written in the same way. Unless
+ * <code>Experiment.resume_</code> is false, the tasks whose marker and fronts exist are skipped, so an
+ * experiment killed midway is resumed by running it again. The markers record the seed of the experiment,
+ * which a resumed execution adopts (see <code>adoptSeed</code>) so that its runs use the same streams as
+ * if the experiment had not been interrupted.
+ */
+public class ExperimentScheduler {
+
+  /**
+   * Prefix of the files marking the finished runs, followed by the index of the run
+   */
+  public static final String MARKER = "DONE" ;
+
+  /**
+   * Suffix of the files being written, before they are renamed
+   */
+  private static final String TEMPORARY = ".tmp" ;
+
+  /**
+   * Run of an algorithm on a problem
+   */
+  public static class Task {
+    private final int problemId_ ;
+    private final int algorithmId_ ;
+    private final int run_ ;
+    private final double size_ ;
+
+    public Task(int problemId, int algorithmId, int run, double size) {
+      problemId_ = problemId ;
+      algorithmId_ = algorithmId ;
+      run_ = run ;
+      size_ = size ;
+    } // Task
+
+    public int getProblemId() {
+      return problemId_ ;
+    } // getProblemId
+
+    public int getAlgorithmId() {
+      return algorithmId_ ;
+    } // getAlgorithmId
+
+    public int getRun() {
+      return run_ ;
+    } // getRun
+
+    public double getSize() {
+      return size_ ;
+    } // getSize
+  } // Task
+
+  private Experiment experiment_ ;
+  private int numberOfThreads_ ;
+
+  /**
+   * Constructor
+   * @param experiment Experiment to run
+   * @param numberOfThreads Number of threads of the pool (0 - one per available core)
+   */
+  public ExperimentScheduler(Experiment experiment, int numberOfThreads) {
+    experiment_ = experiment ;
+    numberOfThreads_ = numberOfThreads ;
+    if (numberOfThreads_ <= 0)
+      numberOfThreads_ = Runtime.getRuntime().availableProcessors() ;
+  } // ExperimentScheduler
+
+  /**
+   * Returns the tasks of the experiment, in the order they are submitted: from the largest problem to the
+   * smallest one, and then by problem, algorithm and run
+   */
+  public List<Task> tasks() {
+    int numberOfProblems = experiment_.problemList_.length ;
+    double [] size = new double[numberOfProblems] ;
+    for (int p = 0; p < numberOfProblems; p++)
+      size[p] = experiment_.problemSize(p) ;
+
+    List<Task> tasks = new ArrayList<Task>() ;
+    for (int p = 0; p < numberOfProblems; p++)
+      for (int a = 0; a < experiment_.algorithmNameList_.length; a++)
+        for (int r = 0; r < experiment_.independentRuns_; r++)
+          tasks.add(new Task(p, a, r, size[p])) ;
+
+    // The sort is stable, so tasks on problems of the same size keep the order above
+    Collections.sort(tasks, new Comparator<Task>() {
+      public int compare(Task t1, Task t2) {
+        return Double.compare(t2.size_, t1.size_) ;
+      }
+    }) ;
+    return tasks ;
+  } // tasks
+
+  /**
+   * Runs every task, waiting for all of them
+   * @throws JMException if some task failed (the other ones are run anyway)
+   */
+  public void run() throws JMException {
+    List<Task> tasks = tasks() ;
+    if (experiment_.resume_) {
+      adoptSeed(tasks) ;
+      List<Task> pending = new ArrayList<Task>() ;
+      for (Task task : tasks)
+        if (!isFinished(task))
+          pending.add(task) ;
+      if (pending.size() < tasks.size())
+        System.out.println("Experiment: skipping " + (tasks.size() - pending.size()) + " of " + tasks.size() +
+            " tasks finished by a previous execution") ;
+      tasks = pending ;
+    } // if
+    run(tasks) ;
+  } // run
+
+  /**
+   * Runs a list of tasks, submitted in its order, waiting for all of them
+   * @throws JMException if some task failed (the other ones are run anyway)
+   */
+  public void run(List<Task> tasks) throws JMException {
+    ForkJoinPool pool = new ForkJoinPool(numberOfThreads_) ;
+    int failures = 0 ;
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>() ;
+      for (final Task task : tasks)
+        futures.add(pool.submit(() -> {
+          runTask(task) ;
+          return null ;
+        })) ;
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          futures.get(i).get() ;
+        } catch (ExecutionException e) {
+          failures++ ;
+          Logger.getLogger(ExperimentScheduler.class.getName()).log(Level.SEVERE,
+              "Task failed: " + describe(tasks.get(i)), e.getCause()) ;
+        }
+      } // for
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("ExperimentScheduler: interrupted") ;
+    } finally {
+      pool.shutdownNow() ;
+    }
+
+    if (failures > 0)
+      throw new JMException("ExperimentScheduler: " + failures + " of " + tasks.size() + " tasks failed") ;
+  } // run
+
+  /**
+   * Runs a task, storing its front in the directory of its algorithm and problem
+   */
+  public void runTask(Task task) throws JMException {
+    String problemName = experiment_.problemList_[task.problemId_] ;
+    String directory = directory(task) ;
+
+    // Every run has its own random stream, whatever thread executes it
+    PseudoRandom.setRun(experiment_.seed_, stream(task)) ;
+    try {
+      Algorithm algorithm ;
+      try {
+        algorithm = experiment_.algorithmSettings(problemName, task.problemId_, task.algorithmId_) ;
+      } catch (ClassNotFoundException e) {
+        JMException exception = new JMException("ExperimentScheduler: " + e) ;
+        exception.initCause(e) ;
+        throw exception ;
+      }
+      if (algorithm == null)
+        throw new JMException("ExperimentScheduler: no algorithm configured for " + describe(task)) ;
+
+      if (new File(directory).mkdirs())
+        System.out.println("Creating " + directory) ;
+
+      System.out.println(Thread.currentThread().getName() + " Running " + describe(task)) ;
+      SolutionSet resultFront ;
+      try {
+        resultFront = algorithm.execute() ;
+      } catch (ClassNotFoundException e) {
+        JMException exception = new JMException("ExperimentScheduler: " + e) ;
+        exception.initCause(e) ;
+        throw exception ;
+      }
+
+      // The fronts are renamed once complete, and the marker is only written after both
+      String fun = directory + "/" + experiment_.outputParetoFrontFile_ + "." + task.run_ ;
+      String var = directory + "/" + experiment_.outputParetoSetFile_ + "." + task.run_ ;
+      resultFront.printObjectivesToFile(fun + TEMPORARY) ;
+      resultFront.printVariablesToFile(var + TEMPORARY) ;
+      rename(fun + TEMPORARY, fun) ;
+      rename(var + TEMPORARY, var) ;
+      markFinished(task) ;
+    } finally {
+      PseudoRandom.setThreadRandomGenerator(null) ;
+    }
+  } // runTask
+
+  /**
+   * Returns the id of the random stream of a task
+   */
+  private long stream(Task task) {
+    return ((long) task.problemId_ * experiment_.algorithmNameList_.length + task.algorithmId_) *
+        experiment_.independentRuns_ + task.run_ ;
+  } // stream
+
+  /**
+   * Returns the directory of the results of a task
+   */
+  String directory(Task task) {
+    return experiment_.experimentBaseDirectory_ + "/data/" + experiment_.algorithmNameList_[task.algorithmId_] +
+        "/" + experiment_.problemList_[task.problemId_] ;
+  } // directory
+
+  /**
+   * Returns whether a task was finished: its marker and both its fronts exist
+   */
+  public boolean isFinished(Task task) {
+    String directory = directory(task) ;
+    return new File(directory, MARKER + "." + task.run_).isFile() &&
+        new File(directory, experiment_.outputParetoFrontFile_ + "." + task.run_).isFile() &&
+        new File(directory, experiment_.outputParetoSetFile_ + "." + task.run_).isFile() ;
+  } // isFinished
+
+  /**
+   * Makes the experiment use the seed recorded in the markers of the tasks finished by a previous
+   * execution, so that the remaining tasks continue the same experiment even if its seed was left to its
+   * default (the current time)
+   * @param tasks The tasks of the experiment
+   * @throws JMException if the finished tasks were run with different seeds, or a marker cannot be read
+   */
+  public void adoptSeed(List<Task> tasks) throws JMException {
+    Long seed = null ;
+    for (Task task : tasks) {
+      if (!isFinished(task))
+        continue ;
+      long taskSeed = readSeed(task) ;
+      if (seed == null)
+        seed = taskSeed ;
+      else if (seed.longValue() != taskSeed)
+        throw new JMException("ExperimentScheduler: the finished runs were run with different seeds (" +
+            seed + " and " + taskSeed + " for " + describe(task) + ")") ;
+    } // for
+
+    if ((seed != null) && (seed.longValue() != experiment_.seed_)) {
+      System.out.println("Experiment: resuming with the seed " + seed + " of the finished runs instead of " +
+          experiment_.seed_) ;
+      experiment_.seed_ = seed ;
+    } // if
+  } // adoptSeed
+
+  /**
+   * Returns the seed recorded in the marker of a finished task
+   */
+  private long readSeed(Task task) throws JMException {
+    String marker = directory(task) + "/" + MARKER + "." + task.run_ ;
+    try {
+      String [] fields = new String(Files.readAllBytes(Paths.get(marker)), StandardCharsets.US_ASCII).trim()
+          .split("\\s+") ;
+      if ((fields.length < 2) || !fields[0].equals("seed"))
+        throw new JMException("ExperimentScheduler: malformed marker " + marker) ;
+      return Long.parseLong(fields[1]) ;
+    } catch (IOException | NumberFormatException e) {
+      JMException exception = new JMException("ExperimentScheduler: cannot read the seed of " + marker) ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // readSeed
+
+  /**
+   * Writes the marker of a finished task, which holds the seed of the experiment and the random stream
+   * of the run
+   */
+  private void markFinished(Task task) throws JMException {
+    String marker = directory(task) + "/" + MARKER + "." + task.run_ ;
+    try {
+      Files.write(Paths.get(marker + TEMPORARY),
+          ("seed " + experiment_.seed_ + " stream " + stream(task) + "\n").getBytes(StandardCharsets.US_ASCII)) ;
+    } catch (IOException e) {
+      JMException exception = new JMException("ExperimentScheduler: cannot write " + marker + TEMPORARY) ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+    rename(marker + TEMPORARY, marker) ;
+  } // markFinished
+
+  /**
+   * Renames a file atomically if the file system allows it, replacing the target
+   */
+  private static void rename(String source, String target) throws JMException {
+    try {
+      try {
+        Files.move(Paths.get(source), Paths.get(target), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING) ;
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(Paths.get(source), Paths.get(target), StandardCopyOption.REPLACE_EXISTING) ;
+      }
+    } catch (IOException e) {
+      JMException exception = new JMException("ExperimentScheduler: cannot rename " + source + " to " + target) ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // rename
+
+  /**
+   * Returns a description of a task for the log
+   */
+  public String describe(Task task) {
+    return "algorithm: " + experiment_.algorithmNameList_[task.algorithmId_] +
+        ", problem: " + experiment_.problemList_[task.problemId_] +
+        ", run: " + task.run_ ;
+  } // describe
+} // ExperimentScheduler
@@ -0,0 +1,240 @@
+//  ExperimentShard.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.experiments.util;
+
+import jmetal.experiments.Experiment;
+import jmetal.experiments.util.ExperimentScheduler.Task;
+import jmetal.util.JMException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs an experiment as one of several processes (shards) sharing its base directory, e.g. on different
+ * machines mounting the same file system. Every shard enumerates the tasks of the experiment in the order
+ * of <code>ExperimentScheduler.tasks</code> and claims each unfinished one by locking a file CLAIM.i, next to
+ * the marker DONE.i of the run, with <code>FileChannel.tryLock</code>; the tasks locked by other shards are
+ * skipped. The locks are held by the operating system on behalf of the process, so the claims of a shard
+ * which dies are released with it and the remaining shards claim its tasks again. The file system must
+ * support file locks across the processes (local file systems do, NFS does through its lock manager).
+ * Once a shard has no task left to claim it waits for the tasks of the other shards, and when every task is
+ * finished exactly one of them generates the quality indicators, under the lock of INDICATORS.lock in the
+ * base directory, recording it with a marker INDICATORS (delete it to generate them again).
+ * The shards must use the same seed (see <code>Experiment.seed_</code>) for the experiment to be
+ * reproducible; a shard started once some tasks are finished adopts the seed recorded in their markers.
+ * They always skip the finished tasks, whatever the value of <code>Experiment.resume_</code>.
+ */
+public class ExperimentShard {
+
+  /**
+   * Prefix of the files locked by the shards running a task, followed by the index of the run
+   */
+  public static final String CLAIM = "CLAIM" ;
+
+  /**
+   * Name of the marker of the generated quality indicators, in the base directory of the experiment
+   */
+  public static final String INDICATORS = "INDICATORS" ;
+
+  /**
+   * Default time, in milliseconds, between checks for the tasks run by other shards
+   */
+  public static final long DEFAULT_POLL_INTERVAL = 10000 ;
+
+  private Experiment experiment_ ;
+  private ExperimentScheduler scheduler_ ;
+  private int numberOfThreads_ ;
+  private long pollInterval_ ;
+
+  /**
+   * Constructor
+   * @param experiment Experiment to run
+   * @param numberOfThreads Number of threads of this shard (0 - one per available core)
+   */
+  public ExperimentShard(Experiment experiment, int numberOfThreads) {
+    experiment_ = experiment ;
+    scheduler_ = new ExperimentScheduler(experiment, numberOfThreads) ;
+    numberOfThreads_ = numberOfThreads ;
+    if (numberOfThreads_ <= 0)
+      numberOfThreads_ = Runtime.getRuntime().availableProcessors() ;
+    pollInterval_ = DEFAULT_POLL_INTERVAL ;
+  } // ExperimentShard
+
+  /**
+   * Sets the time between checks for the tasks run by other shards
+   * @param pollInterval Time in milliseconds
+   */
+  public void setPollInterval(long pollInterval) {
+    pollInterval_ = pollInterval ;
+  } // setPollInterval
+
+  /**
+   * Runs the tasks of the experiment not claimed by other shards until every task is finished, and
+   * then generates the quality indicators if no other shard has done it
+   * @return true if this shard generated the quality indicators
+   * @throws JMException if some task failed in this shard (the other ones are run anyway, and the
+   * quality indicators are not generated)
+   */
+  public boolean run() throws JMException {
+    List<Task> tasks = scheduler_.tasks() ;
+    scheduler_.adoptSeed(tasks) ;
+    Set<Task> failed = Collections.newSetFromMap(new IdentityHashMap<Task, Boolean>()) ;
+    int ran = 0 ;
+
+    ForkJoinPool pool = new ForkJoinPool(numberOfThreads_) ;
+    try {
+      while (true) {
+        List<Task> pending = new ArrayList<Task>() ;
+        for (Task task : tasks)
+          if (!failed.contains(task) && !scheduler_.isFinished(task))
+            pending.add(task) ;
+        if (pending.isEmpty())
+          break ;
+
+        int claimed = runPass(pool, pending, failed) ;
+        ran += claimed ;
+        if (claimed == 0) {
+          // Every pending task is being run by another shard, or failed here
+          if (failed.containsAll(pending))
+            break ;
+          Thread.sleep(pollInterval_) ;
+        } // if
+      } // while
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("ExperimentShard: interrupted") ;
+    } finally {
+      pool.shutdownNow() ;
+    }
+
+    System.out.println("Experiment: this shard ran " + (ran - failed.size()) + " of " + tasks.size() + " tasks") ;
+    if (!failed.isEmpty())
+      throw new JMException("ExperimentShard: " + failed.size() + " of " + tasks.size() + " tasks failed") ;
+
+    return generateQualityIndicators() ;
+  } // run
+
+  /**
+   * Submits the pending tasks to the pool, each one running only if it can be claimed, and waits for them
+   * @return The number of tasks run by this shard, failed or not
+   */
+  private int runPass(ForkJoinPool pool, List<Task> pending, Set<Task> failed) throws InterruptedException {
+    List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>() ;
+    for (final Task task : pending)
+      futures.add(pool.submit(() -> claimAndRun(task))) ;
+
+    int claimed = 0 ;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        if (futures.get(i).get())
+          claimed++ ;
+      } catch (ExecutionException e) {
+        claimed++ ;
+        failed.add(pending.get(i)) ;
+        Logger.getLogger(ExperimentShard.class.getName()).log(Level.SEVERE,
+            "Task failed: " + scheduler_.describe(pending.get(i)), e.getCause()) ;
+      }
+    } // for
+    return claimed ;
+  } // runPass
+
+  /**
+   * Runs a task if no other shard holds its claim and it is not finished yet
+   * @return true if the task was run by this shard
+   */
+  private boolean claimAndRun(Task task) throws JMException {
+    File claim = new File(scheduler_.directory(task), CLAIM + "." + task.getRun()) ;
+    claim.getParentFile().mkdirs() ;
+    try (FileChannel channel = FileChannel.open(claim.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE)) {
+      FileLock lock = channel.tryLock() ;
+      if (lock == null)
+        return false ;
+      try {
+        // Another shard may have finished it between the check and the claim
+        if (scheduler_.isFinished(task))
+          return false ;
+
+        // The claim records its holder, for the user to know who is running what
+        channel.truncate(0) ;
+        channel.write(ByteBuffer.wrap((ManagementFactory.getRuntimeMXBean().getName() + "\n")
+            .getBytes(StandardCharsets.US_ASCII))) ;
+
+        scheduler_.runTask(task) ;
+        return true ;
+      } finally {
+        lock.release() ;
+      }
+    } catch (IOException e) {
+      JMException exception = new JMException("ExperimentShard: cannot claim " + claim) ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // claimAndRun
+
+  /**
+   * Generates the quality indicators unless another shard has done it. The lock is waited for, so when
+   * this method returns the indicators exist whichever shard generated them
+   * @return true if this shard generated them
+   */
+  private boolean generateQualityIndicators() throws JMException {
+    File lockFile = new File(experiment_.experimentBaseDirectory_, INDICATORS + ".lock") ;
+    File marker = new File(experiment_.experimentBaseDirectory_, INDICATORS) ;
+    try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE)) {
+      FileLock lock = channel.lock() ;
+      try {
+        if (marker.isFile())
+          return false ;
+
+        experiment_.generateQualityIndicators() ;
+        Files.write(Paths.get(marker.getPath()),
+            (ManagementFactory.getRuntimeMXBean().getName() + "\n").getBytes(StandardCharsets.US_ASCII)) ;
+        return true ;
+      } finally {
+        lock.release() ;
+      }
+    } catch (IOException e) {
+      JMException exception = new JMException("ExperimentShard: cannot lock " + lockFile) ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // generateQualityIndicators
+} // ExperimentShard
@@ -28,6 +28,7 @@ import jmetal.core.SolutionSet;
 import jmetal.experiments.Experiment;
 import jmetal.experiments.Settings;
 import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
 
 import java.io.File;
 import java.util.HashMap;
@@ -63,6 +64,7 @@ public class RunExperiment extends Thread {
 	String outputParetoSetFile_; // Name of the file containing the output
 	// Pareto set
 	int independentRuns_; // Number of independent runs per algorithm
+	long seed_; // Seed of the random streams of the runs
 	Settings[] algorithmSettings_; // Paremeter experiments.settings of each algorithm
 	
 
@@ -93,6 +95,7 @@ public class RunExperiment extends Thread {
 		paretoFrontDirectory_ = (String) map_.get("paretoFrontDirectory");
 		paretoFrontFile_ = (String[]) map_.get("paretoFrontFile");
 		independentRuns_ = (Integer) map_.get("independentRuns");
+		seed_ = (Long) map_.get("seed");
 		outputParetoFrontFile_ = (String) map_.get("outputParetoFrontFile");
 		outputParetoSetFile_ = (String) map_.get("outputParetoSetFile");
 
@@ -125,6 +128,9 @@ public class RunExperiment extends Thread {
 
 				// STEP 3: check the file containing the Pareto front of the problem
 
+				// Every run has its own random stream, whatever thread executes it
+				PseudoRandom.setRun(seed_, ((long) problemId * numberOfAlgorithms + alg) * independentRuns_ + runs);
+
 				// STEP 4: configure the algorithms
 				try {
 					experiment_.algorithmSettings(problemName, problemId, algorithm);
@@ -169,6 +175,7 @@ public class RunExperiment extends Thread {
 				// STEP 8: put the results in the output directory
 				resultFront.printObjectivesToFile(directory + "/" + outputParetoFrontFile_ + "." + runs);
 				resultFront.printVariablesToFile(directory + "/" + outputParetoSetFile_ + "." + runs);
+				PseudoRandom.setThreadRandomGenerator(null);
 				if(!finished){
 					if(experiment_.finished_){
 						finished = true;						
@@ -0,0 +1,261 @@
+//  DistributedIslandNSGAII.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.*;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.Ranking;
+import jmetal.util.SplittableRandomGenerator;
+import jmetal.util.cache.EvaluationCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An island of a distributed island model NSGA-II for the CVRPTW, meant to run in its own process.
+ * It connects to an IslandCoordinator listening on the loopback interface, which gives it its id, and
+ * then runs the same generational NSGA-II as the islands of IslandNSGAII, with the random stream
+ * derived from the seed of the run and its id. Its migrants are sent to the coordinator as binary tours
+ * (see MigrationProtocol), which relays them to the neighbours of the island; the migrants received are
+ * evaluated again when they arrive, without counting those evaluations. After every migration and at
+ * the end the island also sends its non-dominated tours to the coordinator, which builds the global
+ * front from them.
+ * If the coordinator cannot be reached or the connection is lost, the island goes on without
+ * migrations. The result is the first front of the final population of the island.
+ */
+public class DistributedIslandNSGAII extends Algorithm {
+
+  // Milliseconds waited for the coordinator to close the connection at the end
+  private static final long CLOSE_TIMEOUT = 5000 ;
+
+  private int port_ ;
+  private long seed_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve, the same instance of the CVRPTW for every island
+   * @param port Port of the coordinator, on the loopback interface
+   * @param seed Seed of the run, the same for every island
+   */
+  public DistributedIslandNSGAII(Problem problem, int port, long seed) {
+    super (problem) ;
+
+    port_ = port ;
+    seed_ = seed ;
+  } // DistributedIslandNSGAII
+
+  /**
+   * Runs the island.
+   * @return a <code>SolutionSet</code> that is a set of non dominated solutions
+   * as a result of the algorithm execution
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    int populationSize = ((Integer) getInputParameter("populationSize")).intValue() ;
+    int maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue() ;
+    int migrationInterval = IslandNSGAII.DEFAULT_MIGRATION_INTERVAL ;
+    if (getInputParameter("migrationInterval") != null)
+      migrationInterval = ((Integer) getInputParameter("migrationInterval")).intValue() ;
+    int migrationSize = IslandNSGAII.DEFAULT_MIGRATION_SIZE ;
+    if (getInputParameter("migrationSize") != null)
+      migrationSize = ((Integer) getInputParameter("migrationSize")).intValue() ;
+    EvaluationCache cache = (EvaluationCache) getInputParameter("evaluationCache") ;
+
+    Connection connection = new Connection(new Solution(problem_), cache) ;
+    int id = connection.connect() ;
+    Island island = new Island(problem_, operators_.get("selection"), operators_.get("crossover"),
+        operators_.get("mutation"), new SplittableRandomGenerator(seed_, id), populationSize, maxEvaluations,
+        migrationInterval, migrationSize, cache, connection) ;
+    try {
+      island.call() ;
+    } finally {
+      connection.close() ;
+    }
+
+    setOutputParameter("id", id) ;
+    setOutputParameter("evaluations", island.getEvaluations()) ;
+
+    // Return the first non-dominated front
+    Ranking ranking = new Ranking(island.getPopulation()) ;
+    return ranking.getSubfront(0) ;
+  } // execute
+
+  /**
+   * Closes a socket, ignoring the errors
+   */
+  static void closeQuietly(Socket socket) {
+    try {
+      socket.close() ;
+    } catch (IOException e) {
+      // Nothing else to do
+    }
+  } // closeQuietly
+
+  /**
+   * Connection of the island with the coordinator. A daemon thread reads the migrants relayed by the
+   * coordinator into a queue, which the island drains at every generation
+   */
+  private class Connection implements MigrationChannel {
+    private final Solution prototype_ ;
+    private final EvaluationCache cache_ ;
+    private final Queue<int []> migrants_ = new ConcurrentLinkedQueue<int []>() ;
+
+    private Socket socket_ ;
+    private DataOutputStream out_ ;
+    private Thread reader_ ;
+
+    Connection(Solution prototype, EvaluationCache cache) {
+      prototype_ = prototype ;
+      cache_ = cache ;
+    } // Connection
+
+    /**
+     * Connects to the coordinator and starts reading the migrants
+     * @return The id given by the coordinator, or 0 if it cannot be reached
+     */
+    int connect() {
+      try {
+        socket_ = new Socket(InetAddress.getLoopbackAddress(), port_) ;
+        socket_.setTcpNoDelay(true) ;
+        out_ = new DataOutputStream(new BufferedOutputStream(socket_.getOutputStream())) ;
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(socket_.getInputStream())) ;
+        out_.writeByte(MigrationProtocol.HELLO) ;
+        out_.flush() ;
+        if (in.readByte() != MigrationProtocol.HELLO)
+          throw new IOException("unexpected answer") ;
+        int id = in.readInt() ;
+        int islands = in.readInt() ;
+        Configuration.logger_.info("DistributedIslandNSGAII: island " + id + " of " + islands) ;
+
+        reader_ = new Thread(() -> read(in), "island-" + id + "-reader") ;
+        reader_.setDaemon(true) ;
+        reader_.start() ;
+        return id ;
+      } catch (IOException e) {
+        Configuration.logger_.warning("DistributedIslandNSGAII: cannot reach the coordinator on port " +
+            port_ + " (" + e + "), running without migrations") ;
+        disconnect() ;
+        return 0 ;
+      }
+    } // connect
+
+    private void read(DataInputStream in) {
+      try {
+        while (true) {
+          byte type = in.readByte() ;
+          if (type != MigrationProtocol.MIGRANTS)
+            throw new IOException("unexpected message " + type) ;
+          migrants_.addAll(MigrationProtocol.readTours(in)) ;
+        } // while
+      } catch (IOException e) {
+        // The coordinator closed the connection or is gone: no more migrants will arrive
+      }
+    } // read
+
+    public void emigrate(List<Solution> migrants) {
+      List<int []> tours = new ArrayList<int []>(migrants.size()) ;
+      for (Solution migrant : migrants)
+        tours.add(MigrationProtocol.tourOf(migrant)) ;
+      send(MigrationProtocol.MIGRANTS, tours) ;
+    } // emigrate
+
+    public void immigrate(List<Solution> migrants) throws JMException {
+      for (int [] tour = migrants_.poll(); tour != null; tour = migrants_.poll()) {
+        Solution migrant = MigrationProtocol.solutionOf(prototype_, tour) ;
+        if (migrant == null) {
+          Configuration.logger_.warning("DistributedIslandNSGAII: discarding an invalid tour") ;
+          continue ;
+        } // if
+        EvaluationCache.evaluate(problem_, migrant, cache_) ;
+        migrants.add(migrant) ;
+      } // for
+    } // immigrate
+
+    public void publish(SolutionSet front, boolean last) {
+      List<int []> tours = new ArrayList<int []>(front.size()) ;
+      for (int k = 0; k < front.size(); k++)
+        tours.add(MigrationProtocol.tourOf(front.get(k))) ;
+      send(last ? MigrationProtocol.DONE : MigrationProtocol.FRONT, tours) ;
+    } // publish
+
+    /**
+     * Sends a message to the coordinator. A failure only disables the migrations
+     */
+    private synchronized void send(byte type, List<int []> tours) {
+      if (out_ == null)
+        return ;
+      try {
+        MigrationProtocol.writeTours(out_, type, tours) ;
+        out_.flush() ;
+      } catch (IOException e) {
+        Configuration.logger_.warning("DistributedIslandNSGAII: connection with the coordinator lost (" +
+            e + "), running without migrations") ;
+        disconnect() ;
+      }
+    } // send
+
+    /**
+     * Closes the connection once the island has finished. The output is shut down first and the
+     * coordinator is given some time to close its side, so that the last front is not lost
+     */
+    void close() {
+      Socket socket ;
+      synchronized (this) {
+        socket = socket_ ;
+        socket_ = null ;
+        out_ = null ;
+      }
+      if (socket == null)
+        return ;
+      try {
+        socket.shutdownOutput() ;
+        reader_.join(CLOSE_TIMEOUT) ;
+      } catch (IOException e) {
+        // The connection is already broken
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt() ;
+      } finally {
+        closeQuietly(socket) ;
+      }
+    } // close
+
+    /**
+     * Drops the connection after a failure
+     */
+    private synchronized void disconnect() {
+      out_ = null ;
+      if (socket_ != null)
+        closeQuietly(socket_) ;
+      socket_ = null ;
+    } // disconnect
+  } // Connection
+} // DistributedIslandNSGAII
@@ -0,0 +1,125 @@
+//  DistributedIslandNSGAII_main.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.logging.Logger;
+
+/** 
+ * Class to configure and execute an island of the distributed island model
+ * NSGA-II, in its own process. The islands of a run are started after an
+ * IslandCoordinator, with the same instance, port and seed, e.g.:
+ *   java jmetal.metaheuristics.nsgaII.IslandCoordinator C101.txt 5000 4 &
+ *   for i in 1 2 3 4; do
+ *     java jmetal.metaheuristics.nsgaII.DistributedIslandNSGAII_main C101.txt 5000 &
+ *   done
+ * The coordinator writes the global front to the files FUN and VAR.
+ */ 
+
+
+public class DistributedIslandNSGAII_main {
+  public static Logger      logger_ ;      // Logger object
+
+  /**
+   * @param args Command line arguments.
+   * @throws JMException 
+   * @throws IOException 
+   * @throws SecurityException 
+   * Usage: jmetal.metaheuristics.nsgaII.DistributedIslandNSGAII_main instance port [seed [evaluations]]
+   *      - instance: CVRPTW instance, e.g. C101.txt
+   *      - port: port of the coordinator
+   *      - seed: seed of the run, the same for every island (1 by default)
+   *      - evaluations: evaluations of this island (25000 by default)
+   */
+  public static void main(String [] args) throws 
+  JMException, 
+  SecurityException, 
+  IOException, 
+  ClassNotFoundException {
+    Problem   problem   ; // The problem to solve
+    Algorithm algorithm ; // The algorithm to use
+    Operator  crossover ; // Crossover operator
+    Operator  mutation  ; // Mutation operator
+    Operator  selection ; // Selection operator
+
+    HashMap  parameters ; // Operator parameters
+
+    // Logger object. Every island logs to the console only, as they share the working directory
+    logger_      = Configuration.logger_ ;
+
+    if (args.length < 2) {
+      logger_.severe("Usage: DistributedIslandNSGAII_main instance port [seed [evaluations]]") ;
+      throw new JMException("DistributedIslandNSGAII_main: wrong number of arguments") ;
+    } // if
+    problem = new CVRPTW(args[0]);
+    int port = Integer.parseInt(args[1]) ;
+    long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1 ;
+    int evaluations = (args.length > 3) ? Integer.parseInt(args[3]) : 25000 ;
+
+    algorithm = new DistributedIslandNSGAII(problem, port, seed);
+
+    // Algorithm parameters (the evaluations are the ones of this island)
+    algorithm.setInputParameter("populationSize",100);
+    algorithm.setInputParameter("maxEvaluations",evaluations);
+    algorithm.setInputParameter("migrationInterval",10);
+    algorithm.setInputParameter("migrationSize",2);
+
+    // Mutation and Crossover for the CVRPTW giant tour 
+    parameters = new HashMap() ;
+    parameters.put("probability", 0.9) ;
+    crossover = CrossoverFactory.getCrossoverOperator("PMXCrossoverArrayInt", parameters);
+
+    parameters = new HashMap() ;
+    parameters.put("probability", 1.0/problem.getNumberOfVariables()) ;
+    mutation = MutationFactory.getMutationOperator("ExchangeMutation", parameters);
+
+    // Selection Operator 
+    parameters = null ;
+    selection = SelectionFactory.getSelectionOperator("BinaryTournament2", parameters) ;                           
+
+    // Add the operators to the algorithm
+    algorithm.addOperator("crossover",crossover);
+    algorithm.addOperator("mutation",mutation);
+    algorithm.addOperator("selection",selection);
+
+    // Execute the Algorithm
+    long initTime = System.currentTimeMillis();
+    SolutionSet population = algorithm.execute();
+    long estimatedTime = System.currentTimeMillis() - initTime;
+
+    // Result messages 
+    logger_.info("Island " + algorithm.getOutputParameter("id") + ": total execution time: " +
+        estimatedTime + "ms, " + population.size() + " non-dominated solutions");
+  } //main
+} // DistributedIslandNSGAII_main
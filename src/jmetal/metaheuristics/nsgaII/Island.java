@@ -0,0 +1,237 @@
+//  Island.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.Ranking;
+import jmetal.util.cache.EvaluationCache;
+import jmetal.util.comparators.CrowdingComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * An island of an island model NSGA-II: a generational NSGA-II with its own operators and random stream,
+ * which every <code>migrationInterval</code> generations sends copies of <code>migrationSize</code> random
+ * non-dominated solutions of its population through a MigrationChannel. The migrants received join the
+ * union of the population and the offspring of the next generation, so they only stay if they survive
+ * its selection.
+ */
+class Island implements Callable<Void> {
+  private final Problem problem_ ;
+  private final int populationSize_ ;
+  private final int maxEvaluations_ ;
+  private final int migrationInterval_ ;
+  private final int migrationSize_ ;
+  private final EvaluationCache cache_ ;
+
+  private final Operator selection_ ;
+  private final Operator crossover_ ;
+  private final Operator mutation_ ;
+  private final IRandomGenerator random_ ;
+  private final MigrationChannel channel_ ;
+
+  private SolutionSet population_ ;
+  private int evaluations_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   * @param selection Selection operator, owned by the island
+   * @param crossover Crossover operator, owned by the island
+   * @param mutation Mutation operator, owned by the island
+   * @param random Random stream of the island
+   * @param populationSize Size of the population
+   * @param maxEvaluations Evaluations done by the island
+   * @param migrationInterval Generations between migrations
+   * @param migrationSize Solutions sent in each migration
+   * @param cache Evaluation cache (null - no cache)
+   * @param channel Channel to the other islands
+   */
+  Island(Problem problem, Operator selection, Operator crossover, Operator mutation, IRandomGenerator random,
+         int populationSize, int maxEvaluations, int migrationInterval, int migrationSize,
+         EvaluationCache cache, MigrationChannel channel) {
+    problem_ = problem ;
+    selection_ = selection ;
+    crossover_ = crossover ;
+    mutation_ = mutation ;
+    random_ = random ;
+    populationSize_ = populationSize ;
+    maxEvaluations_ = maxEvaluations ;
+    migrationInterval_ = migrationInterval ;
+    migrationSize_ = migrationSize ;
+    cache_ = cache ;
+    channel_ = channel ;
+  } // Island
+
+  /**
+   * Returns the final population of the island
+   */
+  SolutionSet getPopulation() {
+    return population_ ;
+  } // getPopulation
+
+  /**
+   * Returns the number of evaluations done by the island
+   */
+  int getEvaluations() {
+    return evaluations_ ;
+  } // getEvaluations
+
+  public Void call() throws JMException, ClassNotFoundException {
+    PseudoRandom.setThreadRandomGenerator(random_) ;
+    try {
+      evolve() ;
+    } finally {
+      PseudoRandom.setThreadRandomGenerator(null) ;
+    }
+    return null ;
+  } // call
+
+  private void evolve() throws JMException, ClassNotFoundException {
+    Distance distance = new Distance() ;
+
+    // Create the initial solutionSet
+    population_ = new SolutionSet(populationSize_) ;
+    evaluations_ = 0 ;
+    for (int i = 0; i < populationSize_; i++) {
+      Solution newSolution = new Solution(problem_) ;
+      EvaluationCache.evaluate(problem_, newSolution, cache_) ;
+      evaluations_++ ;
+      population_.add(newSolution) ;
+    } // for
+
+    // Generations
+    int generation = 0 ;
+    List<Solution> migrants = new ArrayList<Solution>() ;
+    while (evaluations_ < maxEvaluations_) {
+      if (Thread.currentThread().isInterrupted())
+        throw new JMException("Island: interrupted") ;
+
+      // Create the offSpring solutionSet
+      SolutionSet offspringPopulation = new SolutionSet(populationSize_) ;
+      Solution[] parents = new Solution[2] ;
+      for (int i = 0; (i < (populationSize_ / 2)) && (evaluations_ < maxEvaluations_); i++) {
+        parents[0] = (Solution) selection_.execute(population_) ;
+        parents[1] = (Solution) selection_.execute(population_) ;
+        Solution[] offSpring = (Solution[]) crossover_.execute(parents) ;
+        for (int k = 0; k < 2; k++) {
+          mutation_.execute(offSpring[k]) ;
+          EvaluationCache.evaluate(problem_, offSpring[k], cache_) ;
+          offspringPopulation.add(offSpring[k]) ;
+        } // for
+        evaluations_ += 2 ;
+      } // for
+      generation++ ;
+
+      // Union of the population, the offspring and the migrants received since the last generation
+      migrants.clear() ;
+      channel_.immigrate(migrants) ;
+      SolutionSet union = new SolutionSet(population_.size() + offspringPopulation.size() + migrants.size()) ;
+      for (int k = 0; k < population_.size(); k++)
+        union.add(population_.get(k)) ;
+      for (int k = 0; k < offspringPopulation.size(); k++)
+        union.add(offspringPopulation.get(k)) ;
+      for (Solution migrant : migrants)
+        union.add(migrant) ;
+
+      select(union, distance) ;
+
+      if ((generation % migrationInterval_ == 0) && (evaluations_ < maxEvaluations_)) {
+        emigrate() ;
+        channel_.publish(nonDominated(), false) ;
+      } // if
+    } // while
+    channel_.publish(nonDominated(), true) ;
+  } // evolve
+
+  /**
+   * Keeps the best solutions of a union as the new population, as NSGA-II does
+   */
+  private void select(SolutionSet union, Distance distance) throws JMException {
+    Ranking ranking = new Ranking(union) ;
+
+    int remain = populationSize_ ;
+    int index = 0 ;
+    population_.clear() ;
+    while ((remain > 0) && (index < ranking.getNumberOfSubfronts())) {
+      SolutionSet front = ranking.getSubfront(index) ;
+      distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives()) ;
+      if (remain >= front.size()) {
+        for (int k = 0; k < front.size(); k++)
+          population_.add(front.get(k)) ;
+        remain -= front.size() ;
+      } else {
+        front.sort(new CrowdingComparator()) ;
+        for (int k = 0; k < remain; k++)
+          population_.add(front.get(k)) ;
+        remain = 0 ;
+      } // if
+      index++ ;
+    } // while
+  } // select
+
+  /**
+   * Returns the non-dominated solutions of the population, which come first since it has just been selected
+   */
+  private SolutionSet nonDominated() {
+    int size = 0 ;
+    while ((size < population_.size()) && (population_.get(size).getRank() == 0))
+      size++ ;
+    SolutionSet front = new SolutionSet(size) ;
+    for (int k = 0; k < size; k++)
+      front.add(population_.get(k)) ;
+    return front ;
+  } // nonDominated
+
+  /**
+   * Sends copies of random non-dominated solutions of the population. The solutions are copied because
+   * their rank and crowding distance are overwritten by the island receiving them
+   */
+  private void emigrate() throws JMException {
+    int nonDominated = 0 ;
+    while ((nonDominated < population_.size()) && (population_.get(nonDominated).getRank() == 0))
+      nonDominated++ ;
+
+    int [] chosen = new int[nonDominated] ;
+    for (int k = 0; k < nonDominated; k++)
+      chosen[k] = k ;
+    int size = Math.min(migrationSize_, nonDominated) ;
+    List<Solution> migrants = new ArrayList<Solution>(size) ;
+    for (int k = 0; k < size; k++) {
+      int j = PseudoRandom.randInt(k, nonDominated - 1) ;
+      int swap = chosen[k] ;
+      chosen[k] = chosen[j] ;
+      chosen[j] = swap ;
+      migrants.add(new Solution(population_.get(chosen[k]))) ;
+    } // for
+    channel_.emigrate(migrants) ;
+  } // emigrate
+} // Island
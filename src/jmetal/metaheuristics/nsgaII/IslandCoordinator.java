@@ -0,0 +1,350 @@
+//  IslandCoordinator.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.Ranking;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.FileHandler;
+import java.util.logging.Logger;
+
+/**
+ * Coordinator of a distributed island model NSGA-II, whose islands are DistributedIslandNSGAII
+ * processes on the same machine. It listens on the loopback interface only, gives every island that
+ * connects its id, relays the migrants of each island to its neighbours in the migration topology and
+ * keeps the last non-dominated tours published by each island (see MigrationProtocol).
+ * An island whose connection is lost (e.g. because its process was killed) is skipped from then on:
+ * its migrants go to the next live island in id order, and the last front it published still takes
+ * part in the result. The result, once every island has finished or been lost, is the first front of
+ * the union of those fronts, evaluated again by the coordinator.
+ */
+public class IslandCoordinator {
+
+  /**
+   * Default milliseconds waited for the islands to connect
+   */
+  public static final int DEFAULT_JOIN_TIMEOUT = 60000 ;
+
+  private Problem problem_ ;
+  private int numberOfIslands_ ;
+  private IslandNSGAII.Topology topology_ ;
+  private int joinTimeout_ ;
+
+  private ServerSocket server_ ;
+  // Written by the accepting thread while the readers of the islands already connected relay migrants
+  private AtomicReferenceArray<Peer> peers_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem solved by the islands, used to evaluate the tours they publish
+   * @param numberOfIslands Number of islands expected
+   * @param topology Migration topology
+   */
+  public IslandCoordinator(Problem problem, int numberOfIslands, IslandNSGAII.Topology topology) {
+    problem_ = problem ;
+    numberOfIslands_ = numberOfIslands ;
+    topology_ = topology ;
+    joinTimeout_ = DEFAULT_JOIN_TIMEOUT ;
+  } // IslandCoordinator
+
+  /**
+   * Sets the milliseconds waited for the islands to connect. If fewer islands connect in that time, the
+   * run goes on with those that did
+   */
+  public void setJoinTimeout(int joinTimeout) {
+    joinTimeout_ = joinTimeout ;
+  } // setJoinTimeout
+
+  /**
+   * Starts listening on the loopback interface
+   * @param port The port (0 - any free port)
+   * @return The port
+   */
+  public int bind(int port) throws JMException {
+    try {
+      server_ = new ServerSocket(port, numberOfIslands_, InetAddress.getLoopbackAddress()) ;
+      return server_.getLocalPort() ;
+    } catch (IOException e) {
+      Configuration.logger_.severe("IslandCoordinator.bind: cannot listen on port " + port + ": " + e) ;
+      throw new JMException("IslandCoordinator.bind: cannot listen on port " + port) ;
+    }
+  } // bind
+
+  /**
+   * Waits for the islands to connect, coordinates them until every one has finished or been lost and
+   * returns the global front
+   * @return The first front of the last fronts published by the islands, without copies
+   * @throws JMException
+   */
+  public SolutionSet run() throws JMException, ClassNotFoundException {
+    if (server_ == null)
+      bind(0) ;
+
+    peers_ = new AtomicReferenceArray<Peer>(numberOfIslands_) ;
+    List<Thread> readers = new ArrayList<Thread>() ;
+    try {
+      long deadline = System.currentTimeMillis() + joinTimeout_ ;
+      for (int id = 0; id < numberOfIslands_; id++) {
+        long wait = deadline - System.currentTimeMillis() ;
+        Socket socket ;
+        try {
+          if (wait <= 0)
+            throw new SocketTimeoutException() ;
+          server_.setSoTimeout((int) wait) ;
+          socket = server_.accept() ;
+        } catch (SocketTimeoutException e) {
+          Configuration.logger_.warning("IslandCoordinator.run: only " + id + " of " + numberOfIslands_ +
+              " islands connected") ;
+          break ;
+        }
+
+        Peer peer = new Peer(id, socket) ;
+        if (!peer.greet())
+          continue ;
+        peers_.set(id, peer) ;
+        Thread reader = new Thread(peer, "coordinator-reader-" + id) ;
+        reader.setDaemon(true) ;
+        reader.start() ;
+        readers.add(reader) ;
+      } // for
+    } catch (IOException e) {
+      Configuration.logger_.severe("IslandCoordinator.run: " + e) ;
+      throw new JMException("IslandCoordinator.run: " + e) ;
+    } finally {
+      try {
+        server_.close() ;
+      } catch (IOException e) {
+        // Nothing else to do
+      }
+    }
+
+    try {
+      for (Thread reader : readers)
+        reader.join() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("IslandCoordinator: interrupted") ;
+    }
+
+    // Evaluate the fronts of the islands again and merge them
+    Solution prototype = new Solution(problem_) ;
+    List<Solution> solutions = new ArrayList<Solution>() ;
+    for (int id = 0; id < numberOfIslands_; id++) {
+      Peer peer = peers_.get(id) ;
+      if (peer == null)
+        continue ;
+      for (int [] tour : peer.front_) {
+        Solution solution = MigrationProtocol.solutionOf(prototype, tour) ;
+        if (solution != null)
+          solutions.add(solution) ;
+      } // for
+    } // for
+    if (solutions.isEmpty()) {
+      Configuration.logger_.severe("IslandCoordinator.run: no island published a front") ;
+      throw new JMException("IslandCoordinator.run: no island published a front") ;
+    } // if
+    SolutionSet union = new SolutionSet(solutions.size()) ;
+    for (Solution solution : solutions)
+      union.add(solution) ;
+    problem_.evaluateAll(union) ;
+
+    Ranking ranking = new Ranking(union) ;
+    return IslandNSGAII.withoutCopies(ranking.getSubfront(0)) ;
+  } // run
+
+  /**
+   * Returns the number of islands that finished normally in the last run
+   */
+  public int getFinishedIslands() {
+    int finished = 0 ;
+    if (peers_ != null)
+      for (int id = 0; id < peers_.length(); id++)
+        if ((peers_.get(id) != null) && peers_.get(id).done_)
+          finished++ ;
+    return finished ;
+  } // getFinishedIslands
+
+  /**
+   * Sends the migrants of an island to its neighbours, replacing each neighbour which is not connected by
+   * the next live island in id order
+   */
+  private void relay(int from, List<int []> migrants) {
+    Set<Integer> targets = new LinkedHashSet<Integer>() ;
+    for (int neighbour : IslandNSGAII.neighbours(from, numberOfIslands_, topology_)) {
+      for (int k = 0; k < numberOfIslands_; k++) {
+        int id = (neighbour + k) % numberOfIslands_ ;
+        Peer peer = peers_.get(id) ;
+        if ((id != from) && (peer != null) && peer.alive_) {
+          targets.add(id) ;
+          break ;
+        } // if
+      } // for
+    } // for
+    for (int id : targets)
+      peers_.get(id).send(migrants) ;
+  } // relay
+
+  /**
+   * Connection with an island. Its run method reads the messages of the island until it finishes or the
+   * connection is lost
+   */
+  private class Peer implements Runnable {
+    private final int id_ ;
+    private final Socket socket_ ;
+    private DataInputStream in_ ;
+    private DataOutputStream out_ ;
+
+    private volatile boolean alive_ ;
+    private volatile boolean done_ ;
+    private volatile List<int []> front_ = new ArrayList<int []>() ;
+
+    Peer(int id, Socket socket) {
+      id_ = id ;
+      socket_ = socket ;
+    } // Peer
+
+    /**
+     * Reads the HELLO of the island and answers with its id
+     * @return false if the handshake fails
+     */
+    boolean greet() {
+      try {
+        socket_.setTcpNoDelay(true) ;
+        socket_.setSoTimeout(joinTimeout_) ;
+        in_ = new DataInputStream(new BufferedInputStream(socket_.getInputStream())) ;
+        out_ = new DataOutputStream(new BufferedOutputStream(socket_.getOutputStream())) ;
+        if (in_.readByte() != MigrationProtocol.HELLO)
+          throw new IOException("unexpected message") ;
+        out_.writeByte(MigrationProtocol.HELLO) ;
+        out_.writeInt(id_) ;
+        out_.writeInt(numberOfIslands_) ;
+        out_.flush() ;
+        socket_.setSoTimeout(0) ;
+        alive_ = true ;
+        return true ;
+      } catch (IOException e) {
+        Configuration.logger_.warning("IslandCoordinator: handshake with island " + id_ + " failed: " + e) ;
+        DistributedIslandNSGAII.closeQuietly(socket_) ;
+        return false ;
+      }
+    } // greet
+
+    public void run() {
+      try {
+        while (!done_) {
+          byte type = in_.readByte() ;
+          List<int []> tours = MigrationProtocol.readTours(in_) ;
+          switch (type) {
+            case MigrationProtocol.MIGRANTS:
+              relay(id_, tours) ;
+              break ;
+            case MigrationProtocol.DONE:
+              front_ = tours ;
+              done_ = true ;
+              break ;
+            case MigrationProtocol.FRONT:
+              front_ = tours ;
+              break ;
+            default:
+              throw new IOException("unexpected message " + type) ;
+          } // switch
+        } // while
+      } catch (IOException e) {
+        Configuration.logger_.warning("IslandCoordinator: island " + id_ + " lost (" + e +
+            "), keeping the last front it published (" + front_.size() + " tours)") ;
+      } finally {
+        alive_ = false ;
+        DistributedIslandNSGAII.closeQuietly(socket_) ;
+      }
+    } // run
+
+    /**
+     * Sends migrants to the island. A failure marks it as lost
+     */
+    synchronized void send(List<int []> migrants) {
+      if (!alive_)
+        return ;
+      try {
+        MigrationProtocol.writeTours(out_, MigrationProtocol.MIGRANTS, migrants) ;
+        out_.flush() ;
+      } catch (IOException e) {
+        alive_ = false ;
+      }
+    } // send
+  } // Peer
+
+  /**
+   * Runs a coordinator on the loopback interface and writes the global front to the files FUN and VAR
+   * Usage: jmetal.metaheuristics.nsgaII.IslandCoordinator instance port islands [topology]
+   *      - instance: CVRPTW instance solved by the islands, e.g. C101.txt
+   *      - port: port the islands connect to (0 - any free port, which is logged)
+   *      - islands: number of islands
+   *      - topology: RING (default), TORUS or FULL
+   */
+  public static void main(String [] args) throws JMException, IOException, ClassNotFoundException {
+    Logger logger = Configuration.logger_ ;
+    FileHandler fileHandler = new FileHandler("IslandCoordinator.log") ;
+    logger.addHandler(fileHandler) ;
+
+    if (args.length < 3) {
+      logger.severe("Usage: IslandCoordinator instance port islands [topology]") ;
+      throw new JMException("IslandCoordinator: wrong number of arguments") ;
+    } // if
+    Problem problem = new CVRPTW(args[0]) ;
+    IslandNSGAII.Topology topology = IslandNSGAII.Topology.RING ;
+    if (args.length > 3)
+      topology = IslandNSGAII.Topology.valueOf(args[3]) ;
+    IslandCoordinator coordinator = new IslandCoordinator(problem, Integer.parseInt(args[2]), topology) ;
+    int port = coordinator.bind(Integer.parseInt(args[1])) ;
+    logger.info("IslandCoordinator: listening on port " + port) ;
+
+    long initTime = System.currentTimeMillis() ;
+    SolutionSet front = coordinator.run() ;
+    long estimatedTime = System.currentTimeMillis() - initTime ;
+
+    logger.info("Total execution time: " + estimatedTime + "ms") ;
+    logger.info("Islands finished: " + coordinator.getFinishedIslands() + " of " + args[2]) ;
+    logger.info("Variables values have been writen to file VAR") ;
+    front.printVariablesToFile("VAR") ;
+    logger.info("Objectives values have been writen to file FUN") ;
+    front.printObjectivesToFile("FUN") ;
+  } // main
+} // IslandCoordinator
@@ -0,0 +1,251 @@
+//  IslandNSGAII.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.*;
+import jmetal.util.JMException;
+import jmetal.util.Ranking;
+import jmetal.util.SplittableRandomGenerator;
+import jmetal.util.cache.EvaluationCache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Island model NSGA-II. The evaluations are split among a number of islands, each one running a
+ * generational NSGA-II on its own population, in its own thread, with its own copies of the operators
+ * (see <code>Operator.copy</code>) and its own random stream derived from the seed of the run.
+ * Every <code>migrationInterval</code> generations an island sends copies of <code>migrationSize</code>
+ * random non-dominated solutions of its population to each of its neighbours in the migration topology,
+ * through lock-free mailboxes; the migrants received by an island join the union of its population and
+ * offspring in its next generation, so they only stay if they survive its selection. The result is the
+ * first front of the union of the final populations of the islands, keeping a single solution of each
+ * vector of objectives (migrations spread copies of the same solutions).
+ * As the migrations are asynchronous, runs are not reproducible unless there is a single island. The
+ * evaluation of the problem must be thread-safe. An EvaluationCache, shared by the islands, can be given
+ * as input parameter "evaluationCache".
+ */
+public class IslandNSGAII extends Algorithm {
+
+  /**
+   * Migration topologies: a directed ring (island i sends to island i + 1), a two-dimensional torus
+   * (each island sends to its four neighbours in a grid as square as possible, which is a bidirectional
+   * ring for a prime number of islands) and a fully connected one
+   */
+  public enum Topology { RING, TORUS, FULL }
+
+  /**
+   * Default number of generations between migrations
+   */
+  public static final int DEFAULT_MIGRATION_INTERVAL = 10 ;
+
+  /**
+   * Default number of solutions sent to each neighbour in a migration
+   */
+  public static final int DEFAULT_MIGRATION_SIZE = 2 ;
+
+  private int numberOfIslands_ ;
+  private Topology topology_ ;
+  private long seed_ ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   * @param numberOfIslands Number of islands (0 - one per available core)
+   * @param topology Migration topology
+   * @param seed Seed of the run
+   */
+  public IslandNSGAII(Problem problem, int numberOfIslands, Topology topology, long seed) {
+    super (problem) ;
+
+    numberOfIslands_ = numberOfIslands ;
+    if (numberOfIslands_ <= 0)
+      numberOfIslands_ = Runtime.getRuntime().availableProcessors() ;
+    topology_ = topology ;
+    seed_ = seed ;
+  } // IslandNSGAII
+
+  /**
+   * Runs the island model NSGA-II.
+   * @return a <code>SolutionSet</code> that is a set of non dominated solutions
+   * as a result of the algorithm execution
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    int populationSize = ((Integer) getInputParameter("populationSize")).intValue() ;
+    int maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue() ;
+    int migrationInterval = DEFAULT_MIGRATION_INTERVAL ;
+    if (getInputParameter("migrationInterval") != null)
+      migrationInterval = ((Integer) getInputParameter("migrationInterval")).intValue() ;
+    int migrationSize = DEFAULT_MIGRATION_SIZE ;
+    if (getInputParameter("migrationSize") != null)
+      migrationSize = ((Integer) getInputParameter("migrationSize")).intValue() ;
+    EvaluationCache cache = (EvaluationCache) getInputParameter("evaluationCache") ;
+
+    // Create the islands, splitting the evaluations among them
+    Mailbox [] mailboxes = new Mailbox[numberOfIslands_] ;
+    for (int i = 0; i < numberOfIslands_; i++)
+      mailboxes[i] = new Mailbox() ;
+    Island [] islands = new Island[numberOfIslands_] ;
+    for (int i = 0; i < numberOfIslands_; i++) {
+      int [] neighbours = neighbours(i, numberOfIslands_, topology_) ;
+      mailboxes[i].neighbours_ = new Mailbox[neighbours.length] ;
+      for (int k = 0; k < neighbours.length; k++)
+        mailboxes[i].neighbours_[k] = mailboxes[neighbours[k]] ;
+
+      int evaluations = (int) ((long) maxEvaluations * (i + 1) / numberOfIslands_ -
+          (long) maxEvaluations * i / numberOfIslands_) ;
+      islands[i] = new Island(problem_, operators_.get("selection").copy(), operators_.get("crossover").copy(),
+          operators_.get("mutation").copy(), new SplittableRandomGenerator(seed_, i), populationSize,
+          evaluations, migrationInterval, migrationSize, cache, mailboxes[i]) ;
+    } // for
+
+    // Run them, each one on its own thread
+    ExecutorService pool = Executors.newFixedThreadPool(numberOfIslands_) ;
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>() ;
+      for (Island island : islands)
+        futures.add(pool.submit(island)) ;
+      for (Future<Void> future : futures)
+        future.get() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("IslandNSGAII: interrupted") ;
+    } catch (ExecutionException e) {
+      JMException exception = new JMException("IslandNSGAII: " + e.getCause()) ;
+      exception.initCause(e.getCause()) ;
+      throw exception ;
+    } finally {
+      pool.shutdownNow() ;
+    }
+
+    // Merge the islands
+    int evaluations = 0 ;
+    int size = 0 ;
+    for (Island island : islands) {
+      evaluations += island.getEvaluations() ;
+      size += island.getPopulation().size() ;
+    } // for
+    SolutionSet union = new SolutionSet(size) ;
+    for (Island island : islands)
+      for (int k = 0; k < island.getPopulation().size(); k++)
+        union.add(island.getPopulation().get(k)) ;
+
+    setOutputParameter("evaluations", evaluations) ;
+
+    // Return the first non-dominated front, without the copies spread by the migrations
+    Ranking ranking = new Ranking(union) ;
+    return withoutCopies(ranking.getSubfront(0)) ;
+  } // execute
+
+  /**
+   * Returns the solutions of a set which have different objectives or constraint violation than every
+   * previous one
+   */
+  static SolutionSet withoutCopies(SolutionSet solutionSet) {
+    Set<List<Double>> seen = new HashSet<List<Double>>() ;
+    SolutionSet result = new SolutionSet(solutionSet.size()) ;
+    for (int i = 0; i < solutionSet.size(); i++) {
+      Solution solution = solutionSet.get(i) ;
+      List<Double> key = new ArrayList<Double>() ;
+      for (int j = 0; j < solution.getNumberOfObjectives(); j++)
+        key.add(solution.getObjective(j)) ;
+      key.add(solution.getOverallConstraintViolation()) ;
+      if (seen.add(key))
+        result.add(solution) ;
+    } // for
+    return result ;
+  } // withoutCopies
+
+  /**
+   * Returns the islands an island sends its migrants to
+   * @param island Index of the island
+   * @param numberOfIslands Number of islands
+   * @param topology Migration topology
+   * @return The indexes of the neighbours of the island, without repetitions and without itself
+   */
+  static int [] neighbours(int island, int numberOfIslands, Topology topology) {
+    Set<Integer> neighbours = new LinkedHashSet<Integer>() ;
+    switch (topology) {
+      case RING:
+        neighbours.add((island + 1) % numberOfIslands) ;
+        break ;
+      case TORUS:
+        // Grid of rows x columns, with rows the largest divisor not above the square root
+        int rows = (int) Math.sqrt(numberOfIslands) ;
+        while (numberOfIslands % rows != 0)
+          rows-- ;
+        int columns = numberOfIslands / rows ;
+        int row = island / columns ;
+        int column = island % columns ;
+        neighbours.add(row * columns + (column + 1) % columns) ;
+        neighbours.add(row * columns + (column + columns - 1) % columns) ;
+        neighbours.add(((row + 1) % rows) * columns + column) ;
+        neighbours.add(((row + rows - 1) % rows) * columns + column) ;
+        break ;
+      case FULL:
+        for (int i = 0; i < numberOfIslands; i++)
+          neighbours.add(i) ;
+        break ;
+    } // switch
+    neighbours.remove(island) ;
+
+    int [] result = new int[neighbours.size()] ;
+    int k = 0 ;
+    for (int neighbour : neighbours)
+      result[k++] = neighbour ;
+    return result ;
+  } // neighbours
+
+  /**
+   * In-process channel of an island: a lock-free mailbox receiving the migrants of its neighbours
+   */
+  private static class Mailbox implements MigrationChannel {
+    private final Queue<Solution> migrants_ = new ConcurrentLinkedQueue<Solution>() ;
+    private Mailbox [] neighbours_ ;
+
+    public void emigrate(List<Solution> migrants) {
+      // Every neighbour gets its own copies, the first one gets the migrants themselves
+      for (int n = 0; n < neighbours_.length; n++)
+        for (Solution migrant : migrants)
+          neighbours_[n].migrants_.offer(n == 0 ? migrant : new Solution(migrant)) ;
+    } // emigrate
+
+    public void immigrate(List<Solution> migrants) {
+      for (Solution migrant = migrants_.poll(); migrant != null; migrant = migrants_.poll())
+        migrants.add(migrant) ;
+    } // immigrate
+
+    public void publish(SolutionSet front, boolean last) {
+      // The fronts are merged by execute once every island has finished
+    } // publish
+  } // Mailbox
+} // IslandNSGAII
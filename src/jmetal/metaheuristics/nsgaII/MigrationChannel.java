@@ -0,0 +1,53 @@
+//  MigrationChannel.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
+
+import java.util.List;
+
+/**
+ * Connection of an island of an island model NSGA-II with the rest of the islands, either in the same
+ * process (IslandNSGAII) or in other processes (IslandCoordinator and DistributedIslandNSGAII.Connection)
+ */
+interface MigrationChannel {
+  /**
+   * Sends migrants to the neighbours of the island. The migrants are copies owned by the channel
+   * @param migrants The migrants
+   */
+  void emigrate(List<Solution> migrants) throws JMException ;
+
+  /**
+   * Moves the migrants received since the last call to a list, without blocking
+   * @param migrants List receiving the migrants
+   */
+  void immigrate(List<Solution> migrants) throws JMException ;
+
+  /**
+   * Publishes the non-dominated solutions of the island, after every migration and at the end
+   * @param front The non-dominated solutions of the population of the island
+   * @param last Whether the island has finished
+   */
+  void publish(SolutionSet front, boolean last) throws JMException ;
+} // MigrationChannel
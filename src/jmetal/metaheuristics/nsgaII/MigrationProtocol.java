@@ -0,0 +1,135 @@
+//  MigrationProtocol.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Solution;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.GiantTour;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary protocol between the island processes of a distributed island model NSGA-II (see
+ * DistributedIslandNSGAII) and their IslandCoordinator. A message is a type byte followed by its body:
+ * <ul>
+ *   <li>HELLO: sent by an island when it connects, with an empty body. The coordinator answers with a
+ *   HELLO whose body is the id of the island and the number of islands (two ints)</li>
+ *   <li>MIGRANTS: tours sent by an island, relayed by the coordinator to its neighbours</li>
+ *   <li>FRONT: the current non-dominated tours of an island, replacing the previous ones</li>
+ *   <li>DONE: the final non-dominated tours of an island, which closes its connection afterwards</li>
+ * </ul>
+ * The body of the last three is the number of tours (an int) followed by the tours. A tour is a width
+ * byte (2 or 4), its length (an int) and its nodes, written as unsigned shorts when they all fit in
+ * two bytes (always, for the CVRPTW instances) or as ints otherwise. Only the tours are sent, the
+ * receiver evaluates them again, so the protocol does not depend on the objectives of the problem.
+ */
+final class MigrationProtocol {
+  static final byte HELLO = 'H' ;
+  static final byte MIGRANTS = 'M' ;
+  static final byte FRONT = 'F' ;
+  static final byte DONE = 'D' ;
+
+  // Limits of a message, to fail fast on a corrupt stream instead of allocating huge arrays
+  private static final int MAX_TOURS = 1 << 20 ;
+  private static final int MAX_LENGTH = 1 << 24 ;
+
+  private MigrationProtocol() {
+  } // MigrationProtocol
+
+  /**
+   * Writes a message with a list of tours, without flushing the stream
+   */
+  static void writeTours(DataOutputStream out, byte type, List<int []> tours) throws IOException {
+    out.writeByte(type) ;
+    out.writeInt(tours.size()) ;
+    for (int [] tour : tours) {
+      int max = 0 ;
+      for (int node : tour)
+        max = Math.max(max, node) ;
+      boolean narrow = max <= 0xffff ;
+      out.writeByte(narrow ? 2 : 4) ;
+      out.writeInt(tour.length) ;
+      for (int node : tour) {
+        if (narrow)
+          out.writeShort(node) ;
+        else
+          out.writeInt(node) ;
+      } // for
+    } // for
+  } // writeTours
+
+  /**
+   * Reads the body of a MIGRANTS, FRONT or DONE message, whose type has already been read
+   */
+  static List<int []> readTours(DataInputStream in) throws IOException {
+    int count = in.readInt() ;
+    if ((count < 0) || (count > MAX_TOURS))
+      throw new IOException("MigrationProtocol.readTours: invalid number of tours " + count) ;
+    List<int []> tours = new ArrayList<int []>(count) ;
+    for (int t = 0; t < count; t++) {
+      int width = in.readByte() ;
+      int length = in.readInt() ;
+      if (((width != 2) && (width != 4)) || (length < 0) || (length > MAX_LENGTH))
+        throw new IOException("MigrationProtocol.readTours: invalid tour header " + width + " " + length) ;
+      int [] tour = new int[length] ;
+      for (int i = 0; i < length; i++)
+        tour[i] = (width == 2) ? in.readUnsignedShort() : in.readInt() ;
+      tours.add(tour) ;
+    } // for
+    return tours ;
+  } // readTours
+
+  /**
+   * Returns the giant tour of a solution
+   */
+  static int [] tourOf(Solution solution) {
+    return ((ArrayInt) solution.getDecisionVariables()[0]).array_.clone() ;
+  } // tourOf
+
+  /**
+   * Builds a solution with a given tour from a solution of the same problem
+   * @param prototype A solution of the problem, which is not modified
+   * @param tour The tour
+   * @return The new solution, not evaluated, or null if the tour is not a permutation of the tour of the
+   * prototype (i.e. it does not visit every customer once with the same number of vehicles)
+   */
+  static Solution solutionOf(Solution prototype, int [] tour) {
+    int [] reference = ((ArrayInt) prototype.getDecisionVariables()[0]).array_ ;
+    if (tour.length != reference.length)
+      return null ;
+    int [] count = new int[reference.length + 1] ;
+    for (int node : reference)
+      count[node]++ ;
+    for (int node : tour) {
+      if ((node < 0) || (node >= count.length) || (--count[node] < 0))
+        return null ;
+    } // for
+
+    Solution solution = new Solution(prototype) ;
+    ((GiantTour) solution.getDecisionVariables()[0]).setTour(tour) ;
+    return solution ;
+  } // solutionOf
+} // MigrationProtocol
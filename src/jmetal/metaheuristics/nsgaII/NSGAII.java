@@ -24,8 +24,11 @@ package jmetal.metaheuristics.nsgaII;
 import jmetal.core.*;
 import jmetal.qualityIndicator.QualityIndicator;
 import jmetal.util.Distance;
+import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.Ranking;
+import jmetal.util.cache.EvaluationCache;
+import jmetal.util.checkpoint.Checkpoint;
 import jmetal.util.comparators.CrowdingComparator;
 
 /** 
@@ -36,6 +39,15 @@ import jmetal.util.comparators.CrowdingComparator;
  *     A.J. Nebro, J.J. Durillo, C.A. Coello Coello, F. Luna, E. Alba 
  *     "A Study of Convergence Speed in Multi-Objective Metaheuristics." 
  *     To be presented in: PPSN'08. Dortmund. September 2008.
+ *  An EvaluationCache can be given as input parameter "evaluationCache", so
+ *  that repeated solutions are not evaluated again.
+ *  If the input parameter "checkpointFile" is given, the state of the run is
+ *  stored in that file every "checkpointInterval" evaluations (by default
+ *  Checkpoint.DEFAULT_INTERVAL), at the end of a generation, and a run
+ *  finding the file resumes from it, giving the same results as if it had not
+ *  been interrupted unless an EvaluationCache is used (the cache is not stored
+ *  and its hits may differ from a fresh evaluation in the last bits). The file
+ *  is deleted when the run finishes.
  */
 
 public class NSGAII extends Algorithm {
@@ -59,6 +71,9 @@ public class NSGAII extends Algorithm {
     int evaluations;
 
     QualityIndicator indicators; // QualityIndicator object
+    EvaluationCache cache; // Optional cache of evaluations
+    String checkpointFile; // Optional file storing the state of the run
+    int checkpointInterval; // Evaluations between checkpoints
     int requiredEvaluations; // Use in the example of use of the
     // indicators object (see below)
 
@@ -77,6 +92,16 @@ public class NSGAII extends Algorithm {
     maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue();
     maxEvaluations *= 10;
     indicators = (QualityIndicator) getInputParameter("indicators");
+    cache = (EvaluationCache) getInputParameter("evaluationCache");
+    checkpointFile = (String) getInputParameter("checkpointFile");
+    checkpointInterval = Checkpoint.DEFAULT_INTERVAL;
+    if (getInputParameter("checkpointInterval") != null)
+      checkpointInterval = ((Integer) getInputParameter("checkpointInterval")).intValue();
+    if (checkpointInterval <= 0) {
+      Configuration.logger_.severe("NSGAII.execute: checkpointInterval must be positive, got " +
+          checkpointInterval);
+      throw new JMException("Exception in NSGAII.execute()");
+    }
 
     //Initialize the variables
     population = new SolutionSet(populationSize);
@@ -89,15 +114,26 @@ public class NSGAII extends Algorithm {
     crossoverOperator = operators_.get("crossover");
     selectionOperator = operators_.get("selection");
 
-    // Create the initial solutionSet
-    Solution newSolution;
-    for (int i = 0; i < populationSize; i++) {
-      newSolution = new Solution(problem_);
-      problem_.evaluate(newSolution);
-      problem_.evaluateConstraints(newSolution);
-      evaluations++;
-      population.add(newSolution);
-    } //for       
+    // Resume the run from its checkpoint, or else create the initial solutionSet
+    Operator[] checkpointed = {selectionOperator, crossoverOperator, mutationOperator};
+    Checkpoint checkpoint = null;
+    if (checkpointFile != null)
+      checkpoint = Checkpoint.read(checkpointFile, "NSGAII", problem_, checkpointed);
+    if (checkpoint != null) {
+      for (int i = 0; i < checkpoint.getPopulation().size(); i++)
+        population.add(checkpoint.getPopulation().get(i));
+      evaluations = checkpoint.getCounters()[0];
+      requiredEvaluations = checkpoint.getCounters()[1];
+    } else {
+      Solution newSolution;
+      for (int i = 0; i < populationSize; i++) {
+        newSolution = new Solution(problem_);
+        EvaluationCache.evaluate(problem_, newSolution, cache);
+        evaluations++;
+        population.add(newSolution);
+      } //for
+    } // else
+    int nextCheckpoint = (evaluations / checkpointInterval + 1) * checkpointInterval;
 
     // Generations 
     while (evaluations < maxEvaluations) {
@@ -113,10 +149,8 @@ public class NSGAII extends Algorithm {
           Solution[] offSpring = (Solution[]) crossoverOperator.execute(parents);
           mutationOperator.execute(offSpring[0]);
           mutationOperator.execute(offSpring[1]);
-          problem_.evaluate(offSpring[0]);
-          problem_.evaluateConstraints(offSpring[0]);
-          problem_.evaluate(offSpring[1]);
-          problem_.evaluateConstraints(offSpring[1]);
+          EvaluationCache.evaluate(problem_, offSpring[0], cache);
+          EvaluationCache.evaluate(problem_, offSpring[1], cache);
           offspringPopulation.add(offSpring[0]);
           offspringPopulation.add(offSpring[1]);
           evaluations += 2;
@@ -177,7 +211,16 @@ public class NSGAII extends Algorithm {
           requiredEvaluations = evaluations;
         } // if
       } // if
+
+      // Store the state of the run at the end of the generation
+      if ((checkpointFile != null) && (evaluations >= nextCheckpoint) && (evaluations < maxEvaluations)) {
+        new Checkpoint("NSGAII", population, null, new int[]{evaluations, requiredEvaluations})
+            .write(checkpointFile, checkpointed);
+        nextCheckpoint = (evaluations / checkpointInterval + 1) * checkpointInterval;
+      } // if
     } // while
+    if (checkpointFile != null)
+      Checkpoint.delete(checkpointFile);
 
     // Return as output parameter the required evaluations
     setOutputParameter("evaluations", requiredEvaluations);
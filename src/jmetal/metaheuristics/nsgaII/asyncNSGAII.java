@@ -0,0 +1,217 @@
+//  asyncNSGAII.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.*;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.Ranking;
+import jmetal.util.SplittableRandomGenerator;
+import jmetal.util.cache.EvaluationCache;
+import jmetal.util.ranking.IncrementalRanking;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Asynchronous master-worker version of the steady-state NSGA-II (ssNSGAII). There is no barrier
+ * between generations: the calling thread (the integrator) selects pairs of parents from the current
+ * population and queues them, a fixed number of workers take them, apply the crossover and the mutation
+ * and evaluate the child, and the integrator inserts every child as soon as it is returned, with an
+ * IncrementalRanking, as ssNSGAII does. Twice as many pairs as workers are kept queued, so a worker
+ * never waits for the integrator or for a slower evaluation of another worker.
+ * Each worker owns copies of the operators (see <code>Operator.copy</code>) and its own random stream,
+ * derived from the seed of the run. Children are inserted in the order they are completed, so a run is
+ * only reproducible with a single worker. The evaluation of the problem must be thread-safe. An
+ * EvaluationCache, which is shared by the workers, can be given as input parameter "evaluationCache".
+ */
+public class asyncNSGAII extends Algorithm {
+
+  private int numberOfThreads_ ;
+  private long seed_ ;
+
+  /**
+   * Work item exchanged between the integrator and the workers: a solution to evaluate (the initial
+   * population) or the parents of a child, and then the evaluated solution or the failure
+   */
+  private static class Task {
+    Solution [] parents_ ;
+    Solution solution_ ;
+    Throwable failure_ ;
+  } // Task
+
+  // Tells a worker to stop
+  private static final Task STOP = new Task() ;
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   * @param numberOfThreads Number of workers (0 - use all the available cores)
+   * @param seed Seed of the run
+   */
+  public asyncNSGAII(Problem problem, int numberOfThreads, long seed) {
+    super (problem) ;
+
+    numberOfThreads_ = numberOfThreads ;
+    if (numberOfThreads_ <= 0)
+      numberOfThreads_ = Runtime.getRuntime().availableProcessors() ;
+    seed_ = seed ;
+  } // asyncNSGAII
+
+  /**
+   * Runs the asynchronous ssNSGA-II algorithm.
+   * @return a <code>SolutionSet</code> that is a set of non dominated solutions
+   * as a result of the algorithm execution
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    int populationSize = ((Integer) getInputParameter("populationSize")).intValue() ;
+    int maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue() ;
+    final EvaluationCache cache = (EvaluationCache) getInputParameter("evaluationCache") ;
+
+    Operator selectionOperator = operators_.get("selection") ;
+
+    final BlockingQueue<Task> pending = new LinkedBlockingQueue<Task>() ;
+    final BlockingQueue<Task> done = new LinkedBlockingQueue<Task>() ;
+
+    // Start the workers, each one with its own operators and random stream. The integrator uses stream 0
+    Thread [] workers = new Thread[numberOfThreads_] ;
+    for (int w = 0; w < numberOfThreads_; w++) {
+      final Operator crossover = operators_.get("crossover").copy() ;
+      final Operator mutation = operators_.get("mutation").copy() ;
+      final IRandomGenerator random = new SplittableRandomGenerator(seed_, w + 1) ;
+      workers[w] = new Thread(() -> work(pending, done, crossover, mutation, random, cache),
+          "asyncNSGAII-worker-" + w) ;
+      workers[w].setDaemon(true) ;
+      workers[w].start() ;
+    } // for
+
+    PseudoRandom.setThreadRandomGenerator(new SplittableRandomGenerator(seed_, 0)) ;
+    SolutionSet population = new SolutionSet(populationSize) ;
+    int evaluations = 0 ;
+    try {
+      // Create the initial solutionSet, evaluated by the workers
+      for (int i = 0; i < populationSize; i++) {
+        Task task = new Task() ;
+        task.solution_ = new Solution(problem_) ;
+        pending.add(task) ;
+      } // for
+      for (int i = 0; i < populationSize; i++)
+        population.add(take(done)) ;
+      evaluations = populationSize ;
+
+      // Fronts of the population, updated at every insertion
+      IncrementalRanking ranking = new IncrementalRanking(population, problem_.getNumberOfObjectives(),
+          populationSize + 1) ;
+
+      // Keep the workers busy: refill the queue of parents whenever a child is inserted
+      int submitted = evaluations ;
+      int inFlight = 2 * numberOfThreads_ ;
+      while (evaluations < maxEvaluations) {
+        while ((submitted < maxEvaluations) && (submitted - evaluations < inFlight)) {
+          Task task = new Task() ;
+          task.parents_ = new Solution[2] ;
+          task.parents_[0] = (Solution) selectionOperator.execute(population) ;
+          task.parents_[1] = (Solution) selectionOperator.execute(population) ;
+          pending.add(task) ;
+          submitted++ ;
+        } // while
+
+        Solution child = take(done) ;
+        evaluations++ ;
+
+        // Insert the child in the fronts and remove the worst solution of the last front
+        ranking.add(child) ;
+        Solution worst = ranking.removeWorst() ;
+        if (worst != child) {
+          for (int i = 0; i < population.size(); i++) {
+            if (population.get(i) == worst) {
+              population.replace(i, child) ;
+              break ;
+            } // if
+          } // for
+        } // if
+      } // while
+    } finally {
+      PseudoRandom.setThreadRandomGenerator(null) ;
+      pending.clear() ;
+      for (int w = 0; w < numberOfThreads_; w++)
+        pending.add(STOP) ;
+    }
+
+    setOutputParameter("evaluations", evaluations) ;
+
+    // Return the first non-dominated front
+    return new Ranking(population).getSubfront(0) ;
+  } // execute
+
+  /**
+   * Takes the next task completed by a worker, propagating its failure
+   */
+  private Solution take(BlockingQueue<Task> done) throws JMException {
+    Task task ;
+    try {
+      task = done.take() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("asyncNSGAII: interrupted") ;
+    }
+    if (task.failure_ != null) {
+      JMException exception = new JMException("asyncNSGAII: " + task.failure_) ;
+      exception.initCause(task.failure_) ;
+      throw exception ;
+    } // if
+    return task.solution_ ;
+  } // take
+
+  /**
+   * Loop of a worker: takes tasks until it is told to stop, and returns each one completed
+   */
+  private void work(BlockingQueue<Task> pending, BlockingQueue<Task> done, Operator crossover,
+                    Operator mutation, IRandomGenerator random, EvaluationCache cache) {
+    PseudoRandom.setThreadRandomGenerator(random) ;
+    try {
+      for (Task task = pending.take(); task != STOP; task = pending.take()) {
+        try {
+          if (task.parents_ != null) {
+            Solution [] offSpring = (Solution []) crossover.execute(task.parents_) ;
+            // A crossover may return a parent itself, which is still in the population
+            if ((offSpring[0] == task.parents_[0]) || (offSpring[0] == task.parents_[1]))
+              offSpring[0] = new Solution(offSpring[0]) ;
+            mutation.execute(offSpring[0]) ;
+            task.solution_ = offSpring[0] ;
+            task.parents_ = null ;
+          } // if
+          EvaluationCache.evaluate(problem_, task.solution_, cache) ;
+        } catch (Throwable e) {
+          task.failure_ = e ;
+        }
+        done.add(task) ;
+      } // for
+    } catch (InterruptedException e) {
+      // Stopped
+    } finally {
+      PseudoRandom.setThreadRandomGenerator(null) ;
+    }
+  } // work
+} // asyncNSGAII
@@ -32,8 +32,8 @@ import jmetal.problems.ProblemFactory;
 import jmetal.qualityIndicator.QualityIndicator;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
+import jmetal.util.parallel.BatchEvaluator;
 import jmetal.util.parallel.IParallelEvaluator;
-import jmetal.util.parallel.MultithreadedEvaluator;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -102,7 +102,7 @@ public class pNSGAII_main {
     } // else
 
     int threads = 4 ; // 0 - use all the available cores
-    IParallelEvaluator parallelEvaluator = new MultithreadedEvaluator(threads) ;
+    IParallelEvaluator parallelEvaluator = new BatchEvaluator(threads) ;
 
     algorithm = new pNSGAII(problem, parallelEvaluator);
 
@@ -0,0 +1,259 @@
+//  pgNSGAII.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.*;
+import jmetal.util.Distance;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.Ranking;
+import jmetal.util.SplittableRandomGenerator;
+import jmetal.util.cache.EvaluationCache;
+import jmetal.util.comparators.CrowdingComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel generational NSGA-II. Unlike pNSGAII, which only evaluates in parallel, the whole
+ * offspring generation (selection, crossover, mutation and evaluation) is split among a fixed number
+ * of workers running on a fork-join pool, and the crowding distances of the selected fronts are also
+ * computed in parallel. Each worker owns copies of the operators (see <code>Operator.copy</code>) and
+ * its own random stream, derived from the seed of the run, and always builds the same slice of the
+ * offspring population, so a run is reproducible for a given seed and number of threads.
+ * The evaluation of the problem must be thread-safe. An EvaluationCache, which is shared by the
+ * workers, can be given as input parameter "evaluationCache"; runs are then reproducible up to the
+ * rounding of equivalent solutions, since which of them is stored first depends on the scheduling.
+ */
+public class pgNSGAII extends Algorithm {
+
+  private int numberOfThreads_ ;
+  private long seed_ ;
+
+  /**
+   * Operators and random stream of a worker
+   */
+  private static class Worker {
+    Operator selection_ ;
+    Operator crossover_ ;
+    Operator mutation_ ;
+    IRandomGenerator random_ ;
+  } // Worker
+
+  /**
+   * Constructor
+   * @param problem Problem to solve
+   * @param numberOfThreads Number of workers (0 - use all the available cores)
+   * @param seed Seed of the run
+   */
+  public pgNSGAII(Problem problem, int numberOfThreads, long seed) {
+    super (problem) ;
+
+    numberOfThreads_ = numberOfThreads ;
+    if (numberOfThreads_ <= 0)
+      numberOfThreads_ = Runtime.getRuntime().availableProcessors() ;
+    seed_ = seed ;
+  } // pgNSGAII
+
+  /**
+   * Runs the pgNSGA-II algorithm.
+   * @return a <code>SolutionSet</code> that is a set of non dominated solutions
+   * as a result of the algorithm execution
+   * @throws JMException
+   */
+  public SolutionSet execute() throws JMException, ClassNotFoundException {
+    int populationSize;
+    int maxEvaluations;
+    int evaluations;
+
+    SolutionSet population;
+    SolutionSet union;
+
+    final Distance distance = new Distance();
+
+    //Read the parameters
+    populationSize = ((Integer) getInputParameter("populationSize")).intValue();
+    maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue();
+    final EvaluationCache cache = (EvaluationCache) getInputParameter("evaluationCache");
+
+    // Create the workers, each one with its own operators and random stream
+    final Worker[] workers = new Worker[numberOfThreads_] ;
+    for (int w = 0; w < numberOfThreads_; w++) {
+      workers[w] = new Worker() ;
+      workers[w].selection_ = operators_.get("selection").copy() ;
+      workers[w].crossover_ = operators_.get("crossover").copy() ;
+      workers[w].mutation_ = operators_.get("mutation").copy() ;
+      workers[w].random_ = new SplittableRandomGenerator(seed_, w) ;
+    } // for
+
+    ForkJoinPool pool = new ForkJoinPool(numberOfThreads_) ;
+    try {
+      // Create the initial solutionSet
+      final Solution[] initial = new Solution[populationSize] ;
+      runWorkers(pool, workers, populationSize, (worker, from, to) -> {
+        for (int i = from; i < to; i++) {
+          initial[i] = new Solution(problem_);
+          EvaluationCache.evaluate(problem_, initial[i], cache);
+        } // for
+      }) ;
+      population = new SolutionSet(populationSize);
+      for (Solution solution : initial)
+        population.add(solution) ;
+      evaluations = populationSize ;
+
+      // Generations
+      while (evaluations < maxEvaluations) {
+        // Create the offSpring solutionSet
+        int pairs = Math.min(populationSize / 2, (maxEvaluations - evaluations + 1) / 2) ;
+        final Solution[] offspring = new Solution[2 * pairs] ;
+        final SolutionSet parentPopulation = population ;
+        runWorkers(pool, workers, pairs, (worker, from, to) -> {
+          Solution[] parents = new Solution[2];
+          for (int i = from; i < to; i++) {
+            //obtain parents
+            parents[0] = (Solution) worker.selection_.execute(parentPopulation);
+            parents[1] = (Solution) worker.selection_.execute(parentPopulation);
+            Solution[] offSpring = (Solution[]) worker.crossover_.execute(parents);
+            for (int k = 0; k < 2; k++) {
+              // A crossover may return the parents themselves, which are shared with other workers
+              if ((offSpring[k] == parents[0]) || (offSpring[k] == parents[1]))
+                offSpring[k] = new Solution(offSpring[k]) ;
+              worker.mutation_.execute(offSpring[k]);
+              EvaluationCache.evaluate(problem_, offSpring[k], cache);
+              offspring[2 * i + k] = offSpring[k] ;
+            } // for
+          } // for
+        }) ;
+        evaluations += offspring.length ;
+
+        SolutionSet offspringPopulation = new SolutionSet(offspring.length);
+        for (Solution solution : offspring)
+          offspringPopulation.add(solution) ;
+
+        // Create the solutionSet union of solutionSet and offSpring
+        union = population.union(offspringPopulation);
+
+        // Ranking the union
+        Ranking ranking = new Ranking(union);
+
+        // Obtain the fronts that fit in the next population, plus the one that has to be truncated
+        List<SolutionSet> fronts = new ArrayList<SolutionSet>() ;
+        int remain = populationSize;
+        int index = 0;
+        while ((remain > 0) && (index < ranking.getNumberOfSubfronts())) {
+          SolutionSet front = ranking.getSubfront(index) ;
+          fronts.add(front) ;
+          remain -= front.size() ;
+          index++ ;
+        } // while
+
+        //Assign crowding distance to individuals of every front in parallel
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>() ;
+        for (final SolutionSet front : fronts) {
+          tasks.add(() -> {
+            distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
+            return null ;
+          }) ;
+        } // for
+        invokeAll(pool, tasks) ;
+
+        population.clear();
+        remain = populationSize;
+        for (SolutionSet front : fronts) {
+          if (remain >= front.size()) {
+            //Add the individuals of this front
+            for (int k = 0; k < front.size(); k++)
+              population.add(front.get(k));
+            remain -= front.size() ;
+          } else {
+            // Remain is less than front(index).size, insert only the best one
+            front.sort(new CrowdingComparator());
+            for (int k = 0; k < remain; k++)
+              population.add(front.get(k));
+            remain = 0 ;
+          } // if
+        } // for
+      } // while
+    } finally {
+      pool.shutdown() ;
+    }
+
+    setOutputParameter("evaluations", evaluations);
+
+    // Return the first non-dominated front
+    Ranking ranking = new Ranking(population);
+    return ranking.getSubfront(0);
+  } // execute
+
+  /**
+   * Work done by a worker on a slice [from, to) of the solutions of a generation
+   */
+  private interface Slice {
+    void run(Worker worker, int from, int to) throws JMException, ClassNotFoundException ;
+  } // Slice
+
+  /**
+   * Splits n items in as many consecutive slices as workers and runs them on the pool. Worker w
+   * always gets slice w and runs it with its random stream, whatever thread executes it
+   */
+  private void runWorkers(ForkJoinPool pool, final Worker[] workers, int n, final Slice slice)
+      throws JMException {
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>() ;
+    for (int w = 0; w < workers.length; w++) {
+      final Worker worker = workers[w] ;
+      final int from = (int) ((long) n * w / workers.length) ;
+      final int to = (int) ((long) n * (w + 1) / workers.length) ;
+      tasks.add(() -> {
+        PseudoRandom.setThreadRandomGenerator(worker.random_) ;
+        try {
+          slice.run(worker, from, to) ;
+        } finally {
+          PseudoRandom.setThreadRandomGenerator(null) ;
+        }
+        return null ;
+      }) ;
+    } // for
+    invokeAll(pool, tasks) ;
+  } // runWorkers
+
+  /**
+   * Runs a list of tasks on the pool, waiting for all of them and propagating their failures
+   */
+  private void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws JMException {
+    try {
+      for (Future<Void> future : pool.invokeAll(tasks))
+        future.get() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("pgNSGAII: interrupted") ;
+    } catch (ExecutionException e) {
+      JMException exception = new JMException("pgNSGAII: " + e.getCause()) ;
+      exception.initCause(e.getCause()) ;
+      throw exception ;
+    }
+  } // invokeAll
+} // pgNSGAII
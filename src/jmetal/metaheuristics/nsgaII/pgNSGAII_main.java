@@ -0,0 +1,156 @@
+//  pgNSGAII_main.java
+//
+//  Author:
+//       Antonio J. Nebro <antonio@lcc.uma.es>
+//
+//  Copyright (c) 2013 Antonio J. Nebro
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+// 
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.metaheuristics.nsgaII;
+
+import jmetal.core.Algorithm;
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.selection.SelectionFactory;
+import jmetal.problems.CVRPTW;
+import jmetal.problems.ProblemFactory;
+import jmetal.qualityIndicator.QualityIndicator;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.logging.FileHandler;
+import java.util.logging.Logger;
+
+/** 
+ * Class to configure and execute the pgNSGAII algorithm. pgNSGAII is a 
+ * multithreaded version of NSGA-II, where whole generations (selection, crossover,
+ * mutation and evaluation) are carried out in parallel.
+ */ 
+
+
+public class pgNSGAII_main {
+  public static Logger      logger_ ;      // Logger object
+  public static FileHandler fileHandler_ ; // FileHandler object
+
+  /**
+   * @param args Command line arguments.
+   * @throws JMException 
+   * @throws IOException 
+   * @throws SecurityException 
+   * Usage: three options
+   *      - jmetal.metaheuristics.nsgaII.pgNSGAII_main
+   *      - jmetal.metaheuristics.nsgaII.pgNSGAII_main problemName
+   *      - jmetal.metaheuristics.nsgaII.pgNSGAII_main problemName paretoFrontFile
+   */
+  public static void main(String [] args) throws 
+  JMException, 
+  SecurityException, 
+  IOException, 
+  ClassNotFoundException {
+    Problem   problem   ; // The problem to solve
+    Algorithm algorithm ; // The algorithm to use
+    Operator  crossover ; // Crossover operator
+    Operator  mutation  ; // Mutation operator
+    Operator  selection ; // Selection operator
+
+    HashMap  parameters ; // Operator parameters
+
+    QualityIndicator indicators ; // Object to get quality indicators
+
+    // Logger object and file to store log messages
+    logger_      = Configuration.logger_ ;
+    fileHandler_ = new FileHandler("pgNSGAII_main.log"); 
+    logger_.addHandler(fileHandler_) ;
+
+    indicators = null ;
+    if (args.length == 1) {
+      Object [] params = {"Real"};
+      problem = (new ProblemFactory()).getProblem(args[0],params);
+    } // if
+    else if (args.length == 2) {
+      Object [] params = {"Real"};
+      problem = (new ProblemFactory()).getProblem(args[0],params);
+      indicators = new QualityIndicator(problem, args[1]) ;
+    } // if
+    else { // CVRPTW problem
+      problem = new CVRPTW("C101.txt");
+      //problem = new Kursawe("Real", 3);
+      //problem = new Water("Real");
+      //problem = new ZDT1("ArrayReal", 100);
+      //problem = new ConstrEx("Real");
+      //problem = new DTLZ1("Real");
+      //problem = new OKA2("Real") ;
+    } // else
+
+    int threads = 4 ; // 0 - use all the available cores
+    long seed = 1 ;   // Runs with the same seed and threads are identical
+
+    algorithm = new pgNSGAII(problem, threads, seed);
+
+    // Algorithm parameters
+    algorithm.setInputParameter("populationSize",100);
+    algorithm.setInputParameter("maxEvaluations",25000);
+
+    // Mutation and Crossover for the CVRPTW giant tour 
+    parameters = new HashMap() ;
+    parameters.put("probability", 0.9) ;
+    crossover = CrossoverFactory.getCrossoverOperator("PMXCrossoverArrayInt", parameters);
+
+    parameters = new HashMap() ;
+    parameters.put("probability", 1.0/problem.getNumberOfVariables()) ;
+    mutation = MutationFactory.getMutationOperator("ExchangeMutation", parameters);
+
+    // Selection Operator 
+    parameters = null ;
+    selection = SelectionFactory.getSelectionOperator("BinaryTournament2", parameters) ;                           
+
+    // Add the operators to the algorithm
+    algorithm.addOperator("crossover",crossover);
+    algorithm.addOperator("mutation",mutation);
+    algorithm.addOperator("selection",selection);
+
+    // Add the indicator object to the algorithm
+    algorithm.setInputParameter("indicators", indicators) ;
+
+    // Execute the Algorithm
+    long initTime = System.currentTimeMillis();
+    SolutionSet population = algorithm.execute();
+    long estimatedTime = System.currentTimeMillis() - initTime;
+
+    // Result messages 
+    logger_.info("Total execution time: "+estimatedTime + "ms");
+    logger_.info("Variables values have been writen to file VAR");
+    population.printVariablesToFile("VAR");    
+    logger_.info("Objectives values have been writen to file FUN");
+    population.printObjectivesToFile("FUN");
+
+    if (indicators != null) {
+      logger_.info("Quality indicators") ;
+      logger_.info("Hypervolume: " + indicators.getHypervolume(population)) ;
+      logger_.info("GD         : " + indicators.getGD(population)) ;
+      logger_.info("IGD        : " + indicators.getIGD(population)) ;
+      logger_.info("Spread     : " + indicators.getSpread(population)) ;
+      logger_.info("Epsilon    : " + indicators.getEpsilon(population)) ;  
+
+      int evaluations = ((Integer)algorithm.getOutputParameter("evaluations")).intValue();
+      logger_.info("Speed      : " + evaluations + " evaluations") ;      
+    } // if
+  } //main
+} // pgNSGAII_main
@@ -23,13 +23,29 @@ package jmetal.metaheuristics.nsgaII;
 
 import jmetal.core.*;
 import jmetal.qualityIndicator.QualityIndicator;
-import jmetal.util.Distance;
+import jmetal.util.Configuration;
 import jmetal.util.JMException;
 import jmetal.util.Ranking;
-import jmetal.util.comparators.CrowdingComparator;
+import jmetal.util.cache.EvaluationCache;
+import jmetal.util.checkpoint.Checkpoint;
+import jmetal.util.ranking.IncrementalRanking;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * This class implements a steady-state version of NSGA-II.
+ * An EvaluationCache can be given as input parameter "evaluationCache", so that
+ * repeated solutions are not evaluated again.
+ * If the input parameter "checkpointFile" is given, the state of the run (including
+ * the order of the fronts, which breaks the ties when removing the worst solution)
+ * is stored in that file every "checkpointInterval" evaluations (by default
+ * Checkpoint.DEFAULT_INTERVAL), and a run finding the file resumes from it, giving
+ * the same results as if it had not been interrupted unless an EvaluationCache is
+ * used (the cache is not stored and its hits may differ from a fresh evaluation in
+ * the last bits). The file is deleted when the run finishes.
  */
 public class ssNSGAII extends Algorithm {
 
@@ -53,23 +69,32 @@ public class ssNSGAII extends Algorithm {
     int evaluations;
 
     QualityIndicator indicators; // QualityIndicator object
+    EvaluationCache cache; // Optional cache of evaluations
+    String checkpointFile; // Optional file storing the state of the run
+    int checkpointInterval; // Evaluations between checkpoints
     int requiredEvaluations; // Use in the example of use of the
     // indicators object (see below)
 
     SolutionSet population;
-    SolutionSet offspringPopulation;
-    SolutionSet union;
 
     Operator mutationOperator;
     Operator crossoverOperator;
     Operator selectionOperator;
 
-    Distance distance = new Distance();
-
     //Read the parameters
     populationSize = ((Integer) getInputParameter("populationSize")).intValue();
     maxEvaluations = ((Integer) getInputParameter("maxEvaluations")).intValue();
     indicators = (QualityIndicator) getInputParameter("indicators");
+    cache = (EvaluationCache) getInputParameter("evaluationCache");
+    checkpointFile = (String) getInputParameter("checkpointFile");
+    checkpointInterval = Checkpoint.DEFAULT_INTERVAL;
+    if (getInputParameter("checkpointInterval") != null)
+      checkpointInterval = ((Integer) getInputParameter("checkpointInterval")).intValue();
+    if (checkpointInterval <= 0) {
+      Configuration.logger_.severe("ssNSGAII.execute: checkpointInterval must be positive, got " +
+          checkpointInterval);
+      throw new JMException("Exception in ssNSGAII.execute()");
+    }
 
     //Initialize the variables
     population = new SolutionSet(populationSize);
@@ -82,21 +107,43 @@ public class ssNSGAII extends Algorithm {
     crossoverOperator = operators_.get("crossover");
     selectionOperator = operators_.get("selection");
 
-    // Create the initial solutionSet
-    Solution newSolution;
-    for (int i = 0; i < populationSize; i++) {
-      newSolution = new Solution(problem_);
-      problem_.evaluate(newSolution);
-      problem_.evaluateConstraints(newSolution);
-      evaluations++;
-      population.add(newSolution);
-    } //for       
+    // Resume the run from its checkpoint, or else create the initial solutionSet
+    Operator[] checkpointed = {selectionOperator, crossoverOperator, mutationOperator};
+    Checkpoint checkpoint = null;
+    if (checkpointFile != null)
+      checkpoint = Checkpoint.read(checkpointFile, "ssNSGAII", problem_, checkpointed);
+
+    // Fronts of the population, updated at every step instead of ranking the whole union
+    IncrementalRanking ranking;
+    if (checkpoint != null) {
+      for (int i = 0; i < checkpoint.getPopulation().size(); i++)
+        population.add(checkpoint.getPopulation().get(i));
+      evaluations = checkpoint.getCounters()[0];
+      requiredEvaluations = checkpoint.getCounters()[1];
+
+      List<SolutionSet> fronts = new ArrayList<SolutionSet>();
+      for (int [] indexes : checkpoint.getGroups()) {
+        SolutionSet front = new SolutionSet(indexes.length);
+        for (int index : indexes)
+          front.add(population.get(index));
+        fronts.add(front);
+      } // for
+      ranking = new IncrementalRanking(fronts, problem_.getNumberOfObjectives(), populationSize + 1);
+    } else {
+      Solution newSolution;
+      for (int i = 0; i < populationSize; i++) {
+        newSolution = new Solution(problem_);
+        EvaluationCache.evaluate(problem_, newSolution, cache);
+        evaluations++;
+        population.add(newSolution);
+      } //for
+
+      ranking = new IncrementalRanking(population, problem_.getNumberOfObjectives(), populationSize + 1);
+    } // else
 
     // Generations ...
     while (evaluations < maxEvaluations) {
 
-      // Create the offSpring solutionSet      
-      offspringPopulation = new SolutionSet(populationSize);
       Solution[] parents = new Solution[2];
 
       //obtain parents
@@ -106,60 +153,30 @@ public class ssNSGAII extends Algorithm {
       // crossover
       Solution[] offSpring = (Solution[]) crossoverOperator.execute(parents);
 
+      // A crossover may return a parent itself, which is still in the population
+      if ((offSpring[0] == parents[0]) || (offSpring[0] == parents[1]))
+        offSpring[0] = new Solution(offSpring[0]);
+
       // mutation
       mutationOperator.execute(offSpring[0]);
 
       // evaluation
-      problem_.evaluate(offSpring[0]);
-      problem_.evaluateConstraints(offSpring[0]);
-
-      // insert child into the offspring population
-      offspringPopulation.add(offSpring[0]);
+      EvaluationCache.evaluate(problem_, offSpring[0], cache);
 
       evaluations ++;
 
-      // Create the solutionSet union of solutionSet and offSpring
-      union = ((SolutionSet) population).union(offspringPopulation);
-
-      // Ranking the union
-      Ranking ranking = new Ranking(union);
-
-      int remain = populationSize;
-      int index = 0;
-      SolutionSet front = null;
-      population.clear();
-
-      // Obtain the next front
-      front = ranking.getSubfront(index);
-
-      while ((remain > 0) && (remain >= front.size())) {
-        //Assign crowding distance to individuals
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        //Add the individuals of this front
-        for (int k = 0; k < front.size(); k++) {
-          population.add(front.get(k));
+      // Insert the child in the fronts and remove the worst solution of the last front, which
+      // leaves the same population as ranking the union and truncating its last front
+      ranking.add(offSpring[0]);
+      Solution worst = ranking.removeWorst();
+      if (worst != offSpring[0]) {
+        for (int i = 0; i < population.size(); i++) {
+          if (population.get(i) == worst) {
+            population.replace(i, offSpring[0]);
+            break;
+          } // if
         } // for
-
-        //Decrement remain
-        remain = remain - front.size();
-
-        //Obtain the next front
-        index++;
-        if (remain > 0) {
-          front = ranking.getSubfront(index);
-        } // if        
-      } // while
-
-      // Remain is less than front(index).size, insert only the best one
-      if (remain > 0) {  // front contains individuals to insert                        
-        distance.crowdingDistanceAssignment(front, problem_.getNumberOfObjectives());
-        front.sort(new CrowdingComparator());
-        for (int k = 0; k < remain; k++) {
-          population.add(front.get(k));
-        } // for
-
-        remain = 0;
-      } // if                               
+      } // if
 
       // This piece of code shows how to use the indicator object into the code
       // of NSGA-II. In particular, it finds the number of evaluations required
@@ -172,13 +189,37 @@ public class ssNSGAII extends Algorithm {
           requiredEvaluations = evaluations;
         } // if
       } // if
+
+      // Store the state of the run
+      if ((checkpointFile != null) && (evaluations % checkpointInterval == 0) && (evaluations < maxEvaluations))
+        new Checkpoint("ssNSGAII", population, frontsOf(ranking, population),
+            new int[]{evaluations, requiredEvaluations}).write(checkpointFile, checkpointed);
     } // while
+    if (checkpointFile != null)
+      Checkpoint.delete(checkpointFile);
 
     // Return as output parameter the required evaluations
     setOutputParameter("evaluations", requiredEvaluations);
 
     // Return the first non-dominated front
-    Ranking ranking = new Ranking(population);
-    return ranking.getSubfront(0);
+    return new Ranking(population).getSubfront(0);
   } // execute
+
+  /**
+   * Returns the fronts of a ranking as indexes of their members in the population
+   */
+  private int [][] frontsOf(IncrementalRanking ranking, SolutionSet population) {
+    Map<Solution, Integer> index = new IdentityHashMap<Solution, Integer>();
+    for (int i = 0; i < population.size(); i++)
+      index.put(population.get(i), i);
+
+    int [][] fronts = new int[ranking.getNumberOfSubfronts()][];
+    for (int f = 0; f < fronts.length; f++) {
+      SolutionSet front = ranking.getSubfront(f);
+      fronts[f] = new int[front.size()];
+      for (int k = 0; k < front.size(); k++)
+        fronts[f][k] = index.get(front.get(k));
+    } // for
+    return fronts;
+  } // frontsOf
 } // NSGA-II
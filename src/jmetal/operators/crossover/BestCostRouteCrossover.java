@@ -0,0 +1,325 @@
+//  BestCostRouteCrossover.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.crossover;
+
+import jmetal.core.Solution;
+import jmetal.encodings.solutionType.GiantTourSolutionType;
+import jmetal.encodings.variable.GiantTour;
+import jmetal.encodings.variable.RouteCache;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.util.HashMap;
+
+/**
+ * Best cost route crossover (BCRC, Ombuki et al. 2006) for the giant tours of problem CVRPTW. Each
+ * offspring is a copy of a parent from which the customers of a random route of the other parent are
+ * removed and then re-inserted, one at a time in random order, at the position of the tour adding the
+ * least distance among those keeping the route feasible (time windows and capacity), or adding the
+ * least distance overall if there is none. Whole routes of the parent are kept, the number of
+ * separators never changes and the parents are never returned nor modified, not even their route
+ * caches, so they can be shared by several threads.
+ */
+public class BestCostRouteCrossover extends Crossover {
+
+  private Double crossoverProbability_ = null;
+
+  /**
+   * Constructor
+   */
+  public BestCostRouteCrossover(HashMap<String, Object> parameters) {
+    super(parameters) ;
+
+    if (parameters.get("probability") != null)
+      crossoverProbability_ = (Double) parameters.get("probability") ;
+  } // BestCostRouteCrossover
+
+  /**
+   * Perform the crossover operation
+   * @param probability Crossover probability
+   * @param parent1     The first parent
+   * @param parent2     The second parent
+   * @return An array containing the two offspring
+   */
+  public Solution[] doCrossover(double probability, Solution parent1, Solution parent2) {
+    Solution[] offspring = new Solution[2] ;
+    offspring[0] = new Solution(parent1) ;
+    offspring[1] = new Solution(parent2) ;
+
+    if (PseudoRandom.randDouble() < probability) {
+      CVRPTW problem = (CVRPTW) parent1.getProblem() ;
+      // The routes are read from the copies: the parents may be shared with other threads
+      GiantTour tour1 = (GiantTour) offspring[0].getDecisionVariables()[0] ;
+      GiantTour tour2 = (GiantTour) offspring[1].getDecisionVariables()[0] ;
+
+      int [] route1 = randomRoute(tour1) ;
+      int [] route2 = randomRoute(tour2) ;
+
+      tour1.setTour(reinsert(problem, tour1.array_, route2)) ;
+      tour2.setTour(reinsert(problem, tour2.array_, route1)) ;
+    } // if
+
+    return offspring ;
+  } // doCrossover
+
+  /**
+   * Returns the customers of a random non-empty route of a tour
+   */
+  private static int [] randomRoute(GiantTour tour) {
+    RouteCache routes = tour.getRoutes() ;
+    int nonEmpty = 0 ;
+    for (int r = 0; r < routes.numberOfRoutes_; r++)
+      if (routes.end_[r] > routes.start_[r])
+        nonEmpty++ ;
+    int chosen = PseudoRandom.randInt(0, nonEmpty - 1) ;
+    for (int r = 0; r < routes.numberOfRoutes_; r++) {
+      if (routes.end_[r] > routes.start_[r]) {
+        if (chosen == 0) {
+          int [] customers = new int[routes.end_[r] - routes.start_[r]] ;
+          System.arraycopy(tour.array_, routes.start_[r], customers, 0, customers.length) ;
+          return customers ;
+        } // if
+        chosen-- ;
+      } // if
+    } // for
+    return new int[0] ;
+  } // randomRoute
+
+  /**
+   * Removes some customers from a tour and re-inserts them at their best positions
+   * @param problem The problem
+   * @param tour The tour
+   * @param customers The customers to move
+   * @return The new tour
+   */
+  private static int [] reinsert(CVRPTW problem, int [] tour, int [] customers) {
+    boolean [] removed = new boolean[problem.getCustomerNumber_() + 1] ;
+    for (int customer : customers)
+      removed[customer] = true ;
+    PartialTour partial = new PartialTour(problem, tour, removed) ;
+
+    // Random insertion order
+    for (int i = customers.length - 1; i > 0; i--) {
+      int j = PseudoRandom.randInt(0, i) ;
+      int swap = customers[i] ;
+      customers[i] = customers[j] ;
+      customers[j] = swap ;
+    } // for
+
+    for (int customer : customers)
+      partial.insert(customer) ;
+    return partial.work_ ;
+  } // reinsert
+
+  /**
+   * Tour from which some customers have been removed. Besides the tour it keeps, for every insertion
+   * position, the length of the arc an insertion replaces, and for every route its load and whether it
+   * meets its time windows, with the time the vehicle leaves each customer and the latest arrival time
+   * at each customer (computed backwards from the due date of the depot) that keeps the rest of the route
+   * feasible. Inserting a customer only delays the following ones, so an infeasible route never becomes
+   * feasible and every position of a feasible one is checked in constant time. After an insertion only
+   * the route receiving the customer is re-evaluated
+   */
+  private static class PartialTour {
+    private final CVRPTW problem_ ;
+    private final double [] demand_ ;
+    private final double [] readyTime_ ;
+    private final double [] dueDate_ ;
+    private final double [] service_ ;
+    private final double capacity_ ;
+
+    int [] work_ ;
+    private int size_ ;
+
+    private final double [] arc_ ;
+    private final double [] leave_ ;
+    private final double [] latest_ ;
+    private final double [] load_ ;
+    private final boolean [] feasible_ ;
+
+    PartialTour(CVRPTW problem, int [] tour, boolean [] removed) {
+      problem_ = problem ;
+      demand_ = problem.getDemand_() ;
+      readyTime_ = problem.getReadyTime_() ;
+      dueDate_ = problem.getDueDate_() ;
+      service_ = problem.getService_() ;
+      capacity_ = problem.getCapacity_() ;
+
+      work_ = new int[tour.length] ;
+      size_ = 0 ;
+      int routes = 1 ;
+      for (int i = 0; i < tour.length; i++) {
+        if (tour[i] == 0)
+          routes++ ;
+        if ((tour[i] == 0) || !removed[tour[i]])
+          work_[size_++] = tour[i] ;
+      } // for
+
+      arc_ = new double[tour.length + 1] ;
+      for (int k = 0; k <= size_; k++)
+        arc_[k] = problem_.getDistance(previousOf(k), nextOf(k)) ;
+
+      leave_ = new double[tour.length + 1] ;
+      latest_ = new double[tour.length + 1] ;
+      load_ = new double[routes] ;
+      feasible_ = new boolean[routes] ;
+      int start = 0 ;
+      for (int r = 0; r < routes; r++)
+        start = evaluateRoute(r, start) + 1 ;
+    } // PartialTour
+
+    /**
+     * Returns the node visited before an insertion at position k
+     */
+    private int previousOf(int k) {
+      return (k == 0) ? 0 : work_[k - 1] ;
+    } // previousOf
+
+    /**
+     * Returns the node visited after an insertion at position k
+     */
+    private int nextOf(int k) {
+      return (k == size_) ? 0 : work_[k] ;
+    } // nextOf
+
+    /**
+     * Computes the load, feasibility, leaving times and latest arrival times of a route
+     * @param route Index of the route
+     * @param start First position of the route
+     * @return The position closing the route (a separator or the end of the tour)
+     */
+    private int evaluateRoute(int route, int start) {
+      int end = start ;
+      double load = 0.0 ;
+      double time = 0.0 ;
+      boolean feasible = true ;
+      while ((end < size_) && (work_[end] != 0)) {
+        int node = work_[end] ;
+        time = Math.max(time, readyTime_[node]) ;
+        if (time > dueDate_[node])
+          feasible = false ;
+        time += service_[node] ;
+        leave_[end] = time ;
+        load += demand_[node] ;
+        end++ ;
+      } // while
+      load_[route] = load ;
+      feasible_[route] = feasible && (time <= dueDate_[0]) && (load <= capacity_) ;
+
+      if (feasible_[route]) {
+        latest_[end] = dueDate_[0] ;
+        for (int i = end - 1; i >= start; i--)
+          latest_[i] = Math.min(dueDate_[work_[i]], latest_[i + 1] - service_[work_[i]]) ;
+      } // if
+      return end ;
+    } // evaluateRoute
+
+    /**
+     * Inserts a customer at the position adding the least distance among those keeping its route feasible,
+     * or adding the least distance overall if there is none
+     * @param customer The customer
+     */
+    void insert(int customer) {
+      int bestFeasible = -1, bestFeasibleRoute = -1, bestFeasibleStart = -1 ;
+      double bestFeasibleCost = Double.POSITIVE_INFINITY ;
+      int best = 0, bestRoute = 0, bestStart = 0 ;
+      double bestCost = Double.POSITIVE_INFINITY ;
+
+      int route = 0 ;
+      int start = 0 ;
+      boolean fits = feasible_[0] && (load_[0] + demand_[customer] <= capacity_) ;
+      for (int k = 0; k <= size_; k++) {
+        // Distances are symmetric: reading them from the row of the customer keeps the accesses local
+        double cost = problem_.getDistance(customer, previousOf(k)) + problem_.getDistance(customer, nextOf(k))
+            - arc_[k] ;
+        if (cost < bestCost) {
+          bestCost = cost ;
+          best = k ;
+          bestRoute = route ;
+          bestStart = start ;
+        } // if
+        if (fits && (cost < bestFeasibleCost)) {
+          double arrival = Math.max((k == start) ? 0.0 : leave_[k - 1], readyTime_[customer]) ;
+          if ((arrival <= dueDate_[customer]) && (arrival + service_[customer] <= latest_[k])) {
+            bestFeasibleCost = cost ;
+            bestFeasible = k ;
+            bestFeasibleRoute = route ;
+            bestFeasibleStart = start ;
+          } // if
+        } // if
+
+        if ((k < size_) && (work_[k] == 0)) {
+          route++ ;
+          start = k + 1 ;
+          fits = feasible_[route] && (load_[route] + demand_[customer] <= capacity_) ;
+        } // if
+      } // for
+
+      if (bestFeasible >= 0) {
+        best = bestFeasible ;
+        bestRoute = bestFeasibleRoute ;
+        bestStart = bestFeasibleStart ;
+      } // if
+
+      System.arraycopy(work_, best, work_, best + 1, size_ - best) ;
+      System.arraycopy(arc_, best, arc_, best + 1, size_ + 1 - best) ;
+      System.arraycopy(leave_, best, leave_, best + 1, size_ + 1 - best) ;
+      System.arraycopy(latest_, best, latest_, best + 1, size_ + 1 - best) ;
+      work_[best] = customer ;
+      size_++ ;
+      arc_[best] = problem_.getDistance(customer, previousOf(best)) ;
+      arc_[best + 1] = problem_.getDistance(customer, nextOf(best + 1)) ;
+      evaluateRoute(bestRoute, bestStart) ;
+    } // insert
+  } // PartialTour
+
+  /**
+   * Executes the operation
+   * @param object An object containing an array of two solutions
+   * @throws JMException
+   */
+  public Object execute(Object object) throws JMException {
+    Solution[] parents = (Solution[]) object ;
+
+    if (parents.length < 2) {
+      Configuration.logger_.severe("BestCostRouteCrossover.execute: operator needs two parents") ;
+      Class cls = String.class ;
+      String name = cls.getName() ;
+      throw new JMException("Exception in " + name + ".execute()") ;
+    } // if
+
+    if (!((parents[0].getType() instanceof GiantTourSolutionType) &&
+          (parents[1].getType() instanceof GiantTourSolutionType))) {
+      Configuration.logger_.severe("BestCostRouteCrossover.execute: the solutions " +
+          "are not of the right type. The type should be 'GiantTour', but " +
+          parents[0].getType() + " and " + parents[1].getType() + " are obtained") ;
+      Class cls = String.class ;
+      String name = cls.getName() ;
+      throw new JMException("Exception in " + name + ".execute()") ;
+    } // if
+
+    Double crossoverProbability = (Double) getParameter("probability") ;
+    return doCrossover(crossoverProbability.doubleValue(), parents[0], parents[1]) ;
+  } // execute
+} // BestCostRouteCrossover
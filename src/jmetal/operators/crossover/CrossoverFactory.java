@@ -53,6 +53,10 @@ public class CrossoverFactory {
       return new BLXAlphaCrossover(parameters);
     else if (name.equalsIgnoreCase("PMXCrossoverArrayInt"))
       return new PMXCrossoverArrayInt(parameters);
+    else if (name.equalsIgnoreCase("OrderCrossoverGiantTour"))
+      return new OrderCrossoverGiantTour(parameters);
+    else if (name.equalsIgnoreCase("BestCostRouteCrossover"))
+      return new BestCostRouteCrossover(parameters);
     else {
       Configuration.logger_.severe("CrossoverFactory.getCrossoverOperator. " +
           "Operator '" + name + "' not found ");
@@ -0,0 +1,170 @@
+//  OrderCrossoverGiantTour.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.operators.crossover;
+
+import jmetal.core.Solution;
+import jmetal.encodings.solutionType.GiantTourSolutionType;
+import jmetal.encodings.variable.GiantTour;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.util.HashMap;
+
+/**
+ * Order crossover (OX) for the giant tours of problem CVRPTW. The crossover is applied to the sequences
+ * of customers of the parents (the tours without separators): the offspring keeps a segment of one parent
+ * and gets the remaining customers in the order they appear in the other parent, starting after the
+ * segment. The customers are then placed in the tour of the first parent, so the offspring keeps its
+ * separators (and the number of customers of each vehicle). Every offspring is a valid tour by
+ * construction, so the parents are never returned.
+ */
+public class OrderCrossoverGiantTour extends Crossover {
+
+  private Double crossoverProbability_ = null;
+
+  /**
+   * Constructor
+   */
+  public OrderCrossoverGiantTour(HashMap<String, Object> parameters) {
+    super(parameters) ;
+
+    if (parameters.get("probability") != null)
+      crossoverProbability_ = (Double) parameters.get("probability") ;
+  } // OrderCrossoverGiantTour
+
+  /**
+   * Perform the crossover operation
+   * @param probability Crossover probability
+   * @param parent1     The first parent
+   * @param parent2     The second parent
+   * @return An array containing the two offspring
+   */
+  public Solution[] doCrossover(double probability, Solution parent1, Solution parent2) {
+    Solution[] offspring = new Solution[2] ;
+    offspring[0] = new Solution(parent1) ;
+    offspring[1] = new Solution(parent2) ;
+
+    if (PseudoRandom.randDouble() < probability) {
+      int [] tour1 = ((GiantTour) parent1.getDecisionVariables()[0]).array_ ;
+      int [] tour2 = ((GiantTour) parent2.getDecisionVariables()[0]).array_ ;
+      int customers = ((CVRPTW) parent1.getProblem()).getCustomerNumber_() ;
+
+      int [] sequence1 = customersOf(tour1, customers) ;
+      int [] sequence2 = customersOf(tour2, customers) ;
+
+      // Segment [cut1, cut2] kept from each parent
+      int cut1 = PseudoRandom.randInt(0, customers - 1) ;
+      int cut2 = PseudoRandom.randInt(0, customers - 1) ;
+      if (cut1 > cut2) {
+        int swap = cut1 ;
+        cut1 = cut2 ;
+        cut2 = swap ;
+      } // if
+
+      ((GiantTour) offspring[0].getDecisionVariables()[0]).setTour(
+          place(tour1, orderCrossover(sequence1, sequence2, cut1, cut2))) ;
+      ((GiantTour) offspring[1].getDecisionVariables()[0]).setTour(
+          place(tour2, orderCrossover(sequence2, sequence1, cut1, cut2))) ;
+    } // if
+
+    return offspring ;
+  } // doCrossover
+
+  /**
+   * Returns the customers of a tour in visiting order
+   */
+  private static int [] customersOf(int [] tour, int customers) {
+    int [] sequence = new int[customers] ;
+    int k = 0 ;
+    for (int i = 0; i < tour.length; i++)
+      if (tour[i] != 0)
+        sequence[k++] = tour[i] ;
+    return sequence ;
+  } // customersOf
+
+  /**
+   * Order crossover of two sequences of customers: the segment [cut1, cut2] of the first one is kept
+   * and the other positions are filled, from cut2 + 1 onwards and wrapping around, with the missing
+   * customers in the order they appear in the second one from cut2 + 1
+   */
+  private static int [] orderCrossover(int [] first, int [] second, int cut1, int cut2) {
+    int length = first.length ;
+    int [] child = new int[length] ;
+    boolean [] kept = new boolean[length + 1] ;
+    for (int i = cut1; i <= cut2; i++) {
+      child[i] = first[i] ;
+      kept[first[i]] = true ;
+    } // for
+
+    int position = (cut2 + 1) % length ;
+    for (int i = 0; i < length; i++) {
+      int customer = second[(cut2 + 1 + i) % length] ;
+      if (!kept[customer]) {
+        child[position] = customer ;
+        position = (position + 1) % length ;
+      } // if
+    } // for
+    return child ;
+  } // orderCrossover
+
+  /**
+   * Places a sequence of customers in the non-separator positions of a tour
+   */
+  private static int [] place(int [] tour, int [] sequence) {
+    int [] result = new int[tour.length] ;
+    int k = 0 ;
+    for (int i = 0; i < tour.length; i++)
+      result[i] = (tour[i] == 0) ? 0 : sequence[k++] ;
+    return result ;
+  } // place
+
+  /**
+   * Executes the operation
+   * @param object An object containing an array of two solutions
+   * @throws JMException
+   */
+  public Object execute(Object object) throws JMException {
+    Solution[] parents = (Solution[]) object ;
+
+    if (parents.length < 2) {
+      Configuration.logger_.severe("OrderCrossoverGiantTour.execute: operator needs two parents") ;
+      Class cls = String.class ;
+      String name = cls.getName() ;
+      throw new JMException("Exception in " + name + ".execute()") ;
+    } // if
+
+    if (!((parents[0].getType() instanceof GiantTourSolutionType) &&
+          (parents[1].getType() instanceof GiantTourSolutionType))) {
+      Configuration.logger_.severe("OrderCrossoverGiantTour.execute: the solutions " +
+          "are not of the right type. The type should be 'GiantTour', but " +
+          parents[0].getType() + " and " + parents[1].getType() + " are obtained") ;
+      Class cls = String.class ;
+      String name = cls.getName() ;
+      throw new JMException("Exception in " + name + ".execute()") ;
+    } // if
+
+    Double crossoverProbability = (Double) getParameter("probability") ;
+    return doCrossover(crossoverProbability.doubleValue(), parents[0], parents[1]) ;
+  } // execute
+} // OrderCrossoverGiantTour
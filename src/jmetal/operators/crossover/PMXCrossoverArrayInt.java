@@ -24,7 +24,9 @@ import jmetal.core.Problem;
 import jmetal.core.Solution;
 import jmetal.core.Variable;
 import jmetal.encodings.solutionType.ArrayIntSolutionType;
+import jmetal.encodings.solutionType.GiantTourSolutionType;
 import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.GiantTour;
 import jmetal.problems.CVRPTW;
 import jmetal.util.Configuration;
 import jmetal.util.JMException;
@@ -47,7 +49,7 @@ public class PMXCrossoverArrayInt extends Crossover {
   /**
    * Valid solution types to apply this operator
    */
-  private static final List VALID_TYPES = Arrays.asList(ArrayIntSolutionType.class);
+  private static final List VALID_TYPES = Arrays.asList(ArrayIntSolutionType.class, GiantTourSolutionType.class);
 
   private Double crossoverProbability_ = null;
 
@@ -237,14 +239,21 @@ public class PMXCrossoverArrayInt extends Crossover {
     } // if
 
     // Check number of separators (only to prevent crossover from returning offspring with wrong number of separators)
-    for (int i = 0; i < arrayLength; i++) {
-      if (((ArrayInt) offspring1).getValue(i) == 0) zerosOffspring1++;
-      if (((ArrayInt) offspring2).getValue(i) == 0) zerosOffspring2++;
+    if ((offspring1 instanceof GiantTour) && (offspring2 instanceof GiantTour)) {
+      // Kept up to date by the tours themselves
+      zerosOffspring1 = ((GiantTour) offspring1).getNumberOfSeparators();
+      zerosOffspring2 = ((GiantTour) offspring2).getNumberOfSeparators();
+    } else {
+      for (int i = 0; i < arrayLength; i++) {
+        if (((ArrayInt) offspring1).getValue(i) == 0) zerosOffspring1++;
+        if (((ArrayInt) offspring2).getValue(i) == 0) zerosOffspring2++;
+      }
     }
     if (zerosOffspring1 != ( ((CVRPTW)parent1.getProblem()).getVehicleNumber_() - 1) ||
             zerosOffspring2 != ( ((CVRPTW)parent1.getProblem()).getVehicleNumber_() - 1)) {
-      offspring[0] = parent1;
-      offspring[1] = parent2;
+      // Copies, since the offspring are mutated while the parents are still in the population
+      offspring[0] = new Solution(parent1);
+      offspring[1] = new Solution(parent2);
     }
 
     return offspring;
@@ -23,6 +23,7 @@ package jmetal.operators.mutation;
 import jmetal.core.Problem;
 import jmetal.core.Solution;
 import jmetal.encodings.solutionType.ArrayIntSolutionType;
+import jmetal.encodings.solutionType.GiantTourSolutionType;
 import jmetal.encodings.variable.ArrayInt;
 import jmetal.problems.CVRPTW;
 import jmetal.util.Configuration;
@@ -42,7 +43,7 @@ public class ExchangeMutation extends Mutation{
   /**
    * Valid solution types to apply this operator
    */
-  private static final List VALID_TYPES = Arrays.asList(ArrayIntSolutionType.class) ;
+  private static final List VALID_TYPES = Arrays.asList(ArrayIntSolutionType.class, GiantTourSolutionType.class) ;
 
   private Double mutationProbability_ = null ;
 
@@ -73,7 +74,7 @@ public class ExchangeMutation extends Mutation{
   public void doMutation(double probability, Solution solution) throws JMException {
     int array[] ;
     int arrayLength ;
-	    if (solution.getType().getClass() == ArrayIntSolutionType.class) {
+	    if (solution.getType() instanceof ArrayIntSolutionType) {
 
 	      arrayLength = ((ArrayInt)solution.getDecisionVariables()[0]).getLength() ;
 	      array = ((ArrayInt)solution.getDecisionVariables()[0]).array_ ;
@@ -95,6 +96,10 @@ public class ExchangeMutation extends Mutation{
 	        int temp = array[pos1];
 	        array[pos1] = array[pos2];
 	        array[pos2] = temp;
+	        if (array[pos1] != array[pos2]) {
+	          ((ArrayInt)solution.getDecisionVariables()[0]).markDirty(pos1) ;
+	          ((ArrayInt)solution.getDecisionVariables()[0]).markDirty(pos2) ;
+	        } // if
 	      } // if
 	    } // if
 	    else  {
@@ -24,16 +24,21 @@ package jmetal.operators.selection;
 import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
 import jmetal.util.PseudoRandom;
+import jmetal.util.checkpoint.Checkpointable;
 import jmetal.util.comparators.DominanceComparator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.HashMap;
 
 /**
  * This class implements an operator for binary selections using the same code
- * in Deb's NSGA-II implementation
+ * in Deb's NSGA-II implementation. The permutation being used and the position in it
+ * are stored in checkpoints
  */
-public class BinaryTournament2 extends Selection {
+public class BinaryTournament2 extends Selection implements Checkpointable {
   
   /**
    * dominance_ store the <code>Comparator</code> for check dominance_
@@ -96,4 +101,20 @@ public class BinaryTournament2 extends Selection {
       else
         return solution2;        
   } // execute
+
+  public void writeState(DataOutput out) throws IOException {
+    out.writeInt(index_) ;
+    out.writeInt((a_ == null) ? -1 : a_.length) ;
+    if (a_ != null)
+      for (int value : a_)
+        out.writeInt(value) ;
+  } // writeState
+
+  public void readState(DataInput in) throws IOException {
+    index_ = in.readInt() ;
+    int length = in.readInt() ;
+    a_ = (length < 0) ? null : new int[length] ;
+    for (int i = 0; i < length; i++)
+      a_[i] = in.readInt() ;
+  } // readState
 } // BinaryTournament2
@@ -23,20 +23,25 @@ package jmetal.problems;
 
 import jmetal.core.Problem;
 import jmetal.core.Solution;
-import jmetal.encodings.solutionType.ArrayIntSolutionType;
+import jmetal.encodings.solutionType.GiantTourSolutionType;
 import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.RouteCache;
 import jmetal.util.JMException;
-import jmetal.util.wrapper.XInt;
+import jmetal.util.cache.ICanonicalHash;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
 /**
  * Class representing problem CVRPTW
  */
-public class CVRPTW extends Problem {
+public class CVRPTW extends Problem implements ICanonicalHash {
+    /**
+     * Default amount of memory (in bytes) that may be spent on the precomputed distance matrix
+     */
+    public static final long DEFAULT_MATRIX_MEMORY_BUDGET = 64L * 1024 * 1024;
+
     private Integer vehicleNumber_;
     private double capacity_;
     private Integer customerNumber_;
@@ -45,9 +50,15 @@ public class CVRPTW extends Problem {
     private double [] readyTime_;
     private double [] dueDate_;
     private double [] service_;
+    private CVRPTWInstance instance_;   // Instance data, shared by every problem on the same instance
     private String instanceName_;
     private String instanceFile_;
     private String outputDirectory_;
+    private int nodeNumber_;            // Number of customers plus the depot
+    private double [] distance_;        // Distance matrix, distance_[i * nodeNumber_ + j] (null if not used)
+    private float [] distanceFloat_;    // Single precision distance matrix, used when distance_ doesn't fit the budget
+    private transient ThreadLocal<double []> scratch_ = ThreadLocal.withInitial(() -> new double[4]);
+    private transient ThreadLocal<double []> routeScratch_ = ThreadLocal.withInitial(() -> new double[5]);
 
     public Integer getVehicleNumber_() {
         return vehicleNumber_;
@@ -81,16 +92,53 @@ public class CVRPTW extends Problem {
         return service_;
     }
 
+    /**
+     * Returns the euclidean distance between nodes i and j (node 0 is the depot)
+     * @param i The first node
+     * @param j The second node
+     * @return The distance between both nodes
+     */
+    public double getDistance(int i, int j) {
+        if (distance_ != null)
+            return distance_[i * nodeNumber_ + j];
+        else if (distanceFloat_ != null)
+            return distanceFloat_[i * nodeNumber_ + j];
+        else
+            return instance_.euclideanDistance(i, j);
+    } // getDistance
+
     /**
   * Creates a new instance of problem CVRPTW.
   * @param instanceName Name of the instance. Must be in jMetal/data/CVRPTW
   */
   public CVRPTW(String instanceName) {
+    this(instanceName, DEFAULT_MATRIX_MEMORY_BUDGET);
+  } // CVRPTW
+
+  /**
+   * Creates a new instance of problem CVRPTW.
+   * @param instanceName Name of the instance. Must be in jMetal/data/CVRPTW
+   * @param matrixMemoryBudget Maximum number of bytes used by the precomputed distance matrix. A double matrix
+   *                           is used if it fits, a float one otherwise. If neither fits the distances are computed
+   *                           on demand
+   */
+  public CVRPTW(String instanceName, long matrixMemoryBudget) {
 
     outputDirectory_ = "/home/nico/IdeaProjects/jMetal/src/jmetal/data/CVRPTW/output";
 
-    // Parse instance files and assign private attributes
-    readInstanceFile(instanceName);
+    // Get the instance data, which is parsed only the first time the instance is used
+    CVRPTWInstance instance = CVRPTWInstance.getInstance(instanceName);
+    instance_           = instance;
+    vehicleNumber_      = instance.getVehicleNumber();
+    capacity_           = instance.getCapacity();
+    customerNumber_     = instance.getCustomerNumber();
+    customers_          = instance.getCustomers();
+    demand_             = instance.getDemand();
+    readyTime_          = instance.getReadyTime();
+    dueDate_            = instance.getDueDate();
+    service_            = instance.getService();
+    instanceName_       = instance.getInstanceName();
+    instanceFile_       = instance.getInstanceFile();
 
     numberOfVariables_  = customerNumber_ + (vehicleNumber_ - 1);
     numberOfObjectives_ =  2;
@@ -107,186 +155,373 @@ public class CVRPTW extends Problem {
         upperLimit_[var] = customerNumber_;
     } // for
 
-    solutionType_ = new ArrayIntSolutionType(this);
-
+    // Every solution only stores its tour; the bounds above are shared through the problem
+    solutionType_ = new GiantTourSolutionType(this);
+
+    // Use the distance matrix shared by every problem on the same instance, choosing its precision according
+    // to the memory budget
+    nodeNumber_ = customerNumber_ + 1;
+    long cells = (long) nodeNumber_ * nodeNumber_;
+    if (cells * Double.BYTES <= matrixMemoryBudget) {
+        distance_ = instance.getDistanceMatrix();
+    } else if (cells * Float.BYTES <= matrixMemoryBudget) {
+        distanceFloat_ = instance.getFloatDistanceMatrix();
+    }
   } // CVRPTW
 
     /**
-    * Evaluates a solution.
+    * Evaluates a solution. Only the routes changed since the last evaluation of the solution are re-evaluated.
     * @param solution The solution to evaluate.
-    * @throws JMException for using the methods of XInt
+    * @throws JMException
     */
     public void evaluate(Solution solution) throws JMException {
-        XInt x = new XInt(solution);
+        double [] result = evaluateRoutes((ArrayInt)solution.getDecisionVariables()[0]);
 
-        double [] f = new double[numberOfObjectives_];
-        f[0]        = 0.0;  // Total distance
-        f[1]        = 0.0;  // Fuel consumption
+        solution.setObjective(0, result[0]);
+        solution.setObjective(1, result[1]);
+    } // evaluate
 
-        // Evaluate total distance
-        int i = -1;
-        boolean newVehicle;         // Indicates whether we are processing a new vehicle
-        int vehicleNumber = -1;     // Number of used vehicles - 1
+    /**
+     * Evaluates the constraint overhead of a solution
+     * @param solution The solution
+     * @throws JMException
+     */
+    public void evaluateConstraints(Solution solution) throws JMException {
+        setConstraints(solution, evaluateRoutes((ArrayInt)solution.getDecisionVariables()[0]));
+    } // evaluateConstraints
 
-        // Evaluate global fuel consumption
-        double[] capacityVehicle = new double[vehicleNumber_];
-        for (int j = 0; j < capacityVehicle.length; j++) capacityVehicle[j] = 0.0;
+    /**
+     * Evaluates the objectives and constraints of a range of solutions, taking both from a single look-up of the
+     * route cache of each solution
+     * @param solutions The solutions
+     * @param from First solution of the range
+     * @param to Position after the last solution of the range
+     * @throws JMException
+     */
+    public void evaluateAll(Solution [] solutions, int from, int to) throws JMException {
+        for (int i = from; i < to; i++) {
+            double [] result = evaluateRoutes((ArrayInt)solutions[i].getDecisionVariables()[0]);
+            solutions[i].setObjective(0, result[0]);
+            solutions[i].setObjective(1, result[1]);
+            setConstraints(solutions[i], result);
+        }
+    } // evaluateAll
 
-        // Evaluate de total distance and calculate the demand for each vehicle
-        while (i < x.getNumberOfDecisionVariables()) {
-            // Skip the contiguous zeros (unused vehicles)
-            do {
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) == 0);
+    /**
+     * Sets the overall constraint violation and the number of violated constraints of a solution
+     * @param solution The solution
+     * @param result The totals of the solution (objectives followed by the constraint violations)
+     */
+    private void setConstraints(Solution solution, double [] result) {
+        double total = 0.0;
+        int number = 0;
+        for (int j = 0; j < this.getNumberOfConstraints(); j++) {
+            if (result[2 + j] < 0.0) {
+                total += result[2 + j];
+                number++;
+            }
+        }
 
-            if (i == x.getNumberOfDecisionVariables()) continue;
+        solution.setOverallConstraintViolation(total);
+        solution.setNumberOfViolatedConstraint(number);
+    } // setConstraints
 
-            newVehicle = true;
-            vehicleNumber++;
-            do {
-                if (newVehicle) {
-                    // Distance from depot to first customer
-                    f[0] += Math.sqrt(Math.pow(customers_[0][0] - customers_[0][x.getValue(i)], 2) +
-                            Math.pow(customers_[1][0] - customers_[1][x.getValue(i)], 2));
-                    newVehicle = false;
-                }
-                // Add capacity demanded by current customer
-                try {
-                    capacityVehicle[vehicleNumber] += demand_[x.getValue(i)];
-                } catch (java.lang.ArrayIndexOutOfBoundsException e) {
-                    int zeros = 0;
-                    for (int k = 0; k < ((ArrayInt)solution.getDecisionVariables()[0]).array_.length; k++) {
-                        System.out.print(((ArrayInt)solution.getDecisionVariables()[0]).array_[k] + " ");
-                        if (((ArrayInt)solution.getDecisionVariables()[0]).array_[k] == 0) zeros++;
-                    }
-                    System.out.println();
-                    System.out.println("Zeros: " + zeros);
-                }
+    /**
+     * Returns a hash of the routes of a solution which ignores the unused vehicles and the order of the routes,
+     * since neither changes the objectives nor the constraints: every non-empty route is hashed in visiting order,
+     * and the mixed hashes of the routes are added.
+     * @param solution The solution
+     * @return The hash of the solution
+     */
+    public long canonicalHash(Solution solution) {
+        int [] tour = ((ArrayInt)solution.getDecisionVariables()[0]).array_;
+        long hash = 0;
+        long route = 0;
+        boolean empty = true;
+        for (int i = 0; i <= tour.length; i++) {
+            if (i == tour.length || tour[i] == 0) {
+                if (!empty)
+                    hash += mix(route);
+                route = 0;
+                empty = true;
+            } else {
+                empty = false;
+                route = route * 0x9e3779b97f4a7c15L + tour[i];
+            }
+        }
+        return hash;
+    } // canonicalHash
 
-                // If there is next customer, add the distance to him
-                if (i+1 < x.getNumberOfDecisionVariables() && x.getValue(i+1) != 0) {
-                    f[0] += Math.sqrt(Math.pow(customers_[0][x.getValue(i)] - customers_[0][x.getValue(i+1)], 2) +
-                            Math.pow(customers_[1][x.getValue(i)] - customers_[1][x.getValue(i+1)], 2));
-                }
+    /**
+     * Brings the route cache of a solution taken from an EvaluationCache up to date, as an evaluation does,
+     * so that the operators reading the routes of a parent shared by several threads do not update it
+     * @param solution The solution
+     */
+    public void refresh(Solution solution) {
+        getRoutes((ArrayInt)solution.getDecisionVariables()[0]);
+    } // refresh
 
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) != 0);
+    /**
+     * SplitMix64 finalizer, spreading the bits of a route hash
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    } // mix
 
-            // Add the distance from the last customer back to the depot
-            f[0] += Math.sqrt(Math.pow(customers_[0][x.getValue(i-1)] - customers_[0][0], 2) +
-                    Math.pow(customers_[1][x.getValue(i-1)] - customers_[1][0], 2));
-            // Add capacity demanded by last customer
-            capacityVehicle[vehicleNumber] += demand_[x.getValue(i-1)];
+    /**
+     * Evaluates a giant tour (routes of consecutive vehicles separated by zeros) in a single pass, computing the
+     * objectives and the constraint violations at the same time.
+     * @param tour The giant tour
+     * @return A per-thread array, overwritten by the next call, holding the total distance, the fuel consumption,
+     * the time window violation and the capacity violation (violations are zero or negative)
+     */
+    public double [] evaluateTour(int [] tour) {
+        double [] result = scratch_.get();
+        double [] route = routeScratch_.get();
+        result[0] = result[1] = result[2] = result[3] = 0.0;
+
+        int start = 0;
+        for (int i = 0; i <= tour.length; i++) {
+            if (i == tour.length || tour[i] == 0) {
+                evaluateRoute(tour, start, i, route);
+                result[0] += route[1];
+                result[1] += route[2];
+                result[2] += route[3];
+                result[3] += route[4];
+                start = i + 1;
+            }
         }
+        return result;
+    } // evaluateTour
 
-        // Evaluate the global fuel consumption based on the demand for each vehicle calculated before
-        i = -1;
-        vehicleNumber = -1;
-        while (i < x.getNumberOfDecisionVariables()) {
-            // Skip the contiguous zeros (unused vehicles)
-            do {
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) == 0);
+    /**
+     * Evaluates a single route of a giant tour.
+     * The fuel of a route is obtained from its total load and its distances: the vehicle leaves the depot with
+     * the whole load and drops the demand of each customer, so each edge weighs (1 + remaining load / capacity).
+     * @param tour The giant tour
+     * @param start First position of the route
+     * @param end Position of the separator closing the route (or the tour length)
+     * @param result Array receiving the load, distance, fuel consumption, time window violation and capacity
+     *               violation of the route
+     */
+    private void evaluateRoute(int [] tour, int start, int end, double [] result) {
+        double routeDistance = 0.0;     // Distance travelled by the vehicle
+        double deliveredDistance = 0.0; // Sum of the delivered load times the length of each edge
+        double delivered = 0.0;         // Load delivered so far by the vehicle
+        double timeSpent = 0.0;         // Time spent by the vehicle
+        double timeViolation = 0.0;     // Time window violation
+        int previous = 0;               // Last visited node, starting from the depot
+
+        if (start == end) {
+            // Unused vehicle
+            result[0] = result[1] = result[2] = result[3] = result[4] = 0.0;
+            return;
+        }
 
-            if (i == x.getNumberOfDecisionVariables()) continue;
+        for (int i = start; i < end; i++) {
+            int customer = tour[i];
+            double distance = getDistance(previous, customer);
+            routeDistance += distance;
+            deliveredDistance += delivered * distance;
+
+            // If arrived before time window begin, wait
+            if (timeSpent < readyTime_[customer]) timeSpent = readyTime_[customer];
+            // Check if we are inside the time window
+            if (timeSpent > dueDate_[customer]) timeViolation -= timeSpent - dueDate_[customer];
+            // Add service time and leave the demanded capacity on the customer
+            timeSpent += service_[customer];
+            delivered += demand_[customer];
+
+            previous = customer;
+        }
 
-            newVehicle = true;
-            vehicleNumber++;
-            do {
-                if (newVehicle) {
-                    // Fuel consumption from depot to first customer
-                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                            Math.sqrt(Math.pow(customers_[0][0] - customers_[0][x.getValue(i)], 2) +
-                            Math.pow(customers_[1][0] - customers_[1][x.getValue(i)], 2));
-                    newVehicle = false;
-                }
+        // Go back to the depot
+        double distance = getDistance(previous, 0);
+        routeDistance += distance;
+        deliveredDistance += delivered * distance;
 
-                // If there is next customer, add fuel consumption to him
-                if (i+1 < x.getNumberOfDecisionVariables() && x.getValue(i+1) != 0) {
-                    capacityVehicle[vehicleNumber] -= demand_[x.getValue(i)]; // Leave demanded capacity on customer
-                    f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                            Math.sqrt(Math.pow(customers_[0][x.getValue(i)] - customers_[0][x.getValue(i+1)], 2) +
-                            Math.pow(customers_[1][x.getValue(i)] - customers_[1][x.getValue(i+1)], 2));
-                }
+        // Check if we make it back to the depot on time
+        if (timeSpent > dueDate_[0]) timeViolation -= timeSpent - dueDate_[0];
 
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) != 0);
-
-            // Add fuel consumption from the last customer back to the depot
-            capacityVehicle[vehicleNumber] -= demand_[x.getValue(i-1)]; // Leave demanded capacity on customer
-            assert capacityVehicle[vehicleNumber] == 0;
-            f[1] += (1 + capacityVehicle[vehicleNumber]/capacity_) *
-                    Math.sqrt(Math.pow(customers_[0][x.getValue(i-1)] - customers_[0][0], 2) +
-                    Math.pow(customers_[1][x.getValue(i-1)] - customers_[1][0], 2));
-        }
+        // The load of the vehicle has always included the demand of its last customer twice, which is kept so
+        // that fuel values remain comparable with previous results (and with Greedy.evaluate)
+        double load = delivered + demand_[previous];
 
-        solution.setObjective(0, f[0]);
-        solution.setObjective(1, f[1]);
-    } // evaluate
+        result[0] = delivered;
+        result[1] = routeDistance;
+        result[2] = routeDistance + (load * routeDistance - deliveredDistance) / capacity_;
+        result[3] = timeViolation;
+        // Check if we didn't exceed the capacity
+        result[4] = (delivered > capacity_) ? -(delivered - capacity_) : 0.0;
+    } // evaluateRoute
 
     /**
-     * Evaluates the constraint overhead of a solution
-     * @param solution The solution
-     * @throws JMException for using the methods of XInt
+     * Returns the objectives and constraint violations of a giant tour, using the route aggregates cached in the
+     * variable.
+     * @param variable The variable holding the giant tour
+     * @return The total distance, the fuel consumption, the time window violation and the capacity violation
      */
-    public void evaluateConstraints(Solution solution) throws JMException {
-        double [] constraint = new double[this.getNumberOfConstraints()];
-        constraint[0] = constraint[1] = 0.0;
-
-        XInt x = new XInt(solution);
+    private double [] evaluateRoutes(ArrayInt variable) {
+        return getRoutes(variable).totals_;
+    } // evaluateRoutes
 
-        // Evaluate used capacity and check time windows at the same time
-        int i = -1;
-        double usedCapacity;    // Capacity used in the current vehicle
-        double timeSpent;       // Time spent by the current vehicle
-
-        while (i < x.getNumberOfDecisionVariables()) {
-            // Skip the contiguous zeros (unused vehicles)
-            do {
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) == 0);
+    /**
+     * Returns the routes of a giant tour with their aggregates, cached in the variable. The cache is built on the
+     * first call and afterwards only the routes marked as dirty by the operators are re-evaluated.
+     * @param variable The variable holding the giant tour
+     * @return The up to date route cache of the variable
+     */
+    public RouteCache getRoutes(ArrayInt variable) {
+        RouteCache cache = variable.getRouteCache();
+        if (cache == null) {
+            cache = new RouteCache(vehicleNumber_);
+            buildRouteCache(variable.array_, cache);
+            variable.setRouteCache(cache);
+        } else if (cache.isDirty()) {
+            cache = updateRouteCache(variable.array_, cache);
+            variable.setRouteCache(cache);
+        }
+        return cache;
+    } // getRoutes
 
-            if (i == x.getNumberOfDecisionVariables()) continue;
+    /**
+     * Evaluates every route of a giant tour and stores their aggregates in a cache
+     * @param tour The giant tour
+     * @param cache The cache
+     */
+    private void buildRouteCache(int [] tour, RouteCache cache) {
+        cache.clear();
+        int start = 0;
+        for (int i = 0; i <= tour.length; i++) {
+            if (i == tour.length || tour[i] == 0) {
+                storeRoute(tour, cache, cache.addRoute(start, i));
+                start = i + 1;
+            }
+        }
+        sumRoutes(cache);
+    } // buildRouteCache
 
-            usedCapacity = 0.0;
-            timeSpent = 0.0;
+    /**
+     * Re-evaluates the dirty routes of a cache. Each block of consecutive dirty routes is bounded by separators
+     * which have not been modified, so it is re-scanned on its own. If the number of routes in the block has not
+     * changed the cache is updated in place; otherwise (a separator was moved to another block) the cache is
+     * rebuilt copying the aggregates of the routes that are up to date.
+     * @param tour The giant tour
+     * @param cache The cache
+     * @return The updated cache
+     */
+    private RouteCache updateRouteCache(int [] tour, RouteCache cache) {
+        boolean sameRoutes = true;
+        for (int first = 0; first < cache.numberOfRoutes_ && sameRoutes; first++) {
+            if (!cache.isDirty(first)) continue;
+            int last = first;
+            while (last + 1 < cache.numberOfRoutes_ && cache.isDirty(last + 1)) last++;
+
+            int separators = 0;
+            for (int i = cache.start_[first]; i < cache.end_[last]; i++) {
+                if (tour[i] == 0) separators++;
+            }
+            sameRoutes = (separators == last - first);
+            first = last;
+        }
 
-            do {
-                // If arrived before time window begin, wait
-                if (timeSpent < readyTime_[x.getValue(i)]) {
-                    timeSpent = readyTime_[x.getValue(i)];
+        RouteCache updated = sameRoutes ? cache : new RouteCache(cache.numberOfRoutes_);
+        int route = 0;
+        while (route < cache.numberOfRoutes_) {
+            if (!cache.isDirty(route)) {
+                if (updated != cache) {
+                    copyRoute(cache, route, updated, updated.addRoute(cache.start_[route], cache.end_[route]));
                 }
-                // Check if we are inside the time window
-                if (timeSpent > dueDate_[x.getValue(i)]) {
-                    constraint[0] += -(timeSpent - dueDate_[x.getValue(i)]);
+                route++;
+                continue;
+            }
+            int last = route;
+            while (last + 1 < cache.numberOfRoutes_ && cache.isDirty(last + 1)) last++;
+
+            // Re-scan the block of dirty routes
+            int to = cache.end_[last];
+            int start = cache.start_[route];
+            int current = route;
+            for (int i = start; i <= to; i++) {
+                if (i == to || tour[i] == 0) {
+                    if (updated == cache) {
+                        cache.start_[current] = start;
+                        cache.end_[current] = i;
+                        storeRoute(tour, cache, current++);
+                    } else {
+                        storeRoute(tour, updated, updated.addRoute(start, i));
+                    }
+                    start = i + 1;
                 }
-                // Add service time for current customer
-                timeSpent += service_[x.getValue(i)];
-                // Accumulate used capacity
-                usedCapacity += demand_[x.getValue(i)];
+            }
+            route = last + 1;
+        }
 
-                i++;
-            } while (i < x.getNumberOfDecisionVariables() && x.getValue(i) != 0);
+        updated.clearDirty();
+        sumRoutes(updated);
+        return updated;
+    } // updateRouteCache
 
-            // Check if we make it back to the depot on time
-            if (timeSpent > dueDate_[0]) constraint[0] += -(timeSpent - dueDate_[0]);
+    /**
+     * Evaluates a route and stores its aggregates in a cache
+     */
+    private void storeRoute(int [] tour, RouteCache cache, int route) {
+        double [] values = routeScratch_.get();
+        evaluateRoute(tour, cache.start_[route], cache.end_[route], values);
+        cache.load_[route] = values[0];
+        cache.distance_[route] = values[1];
+        cache.fuel_[route] = values[2];
+        cache.timeViolation_[route] = values[3];
+        cache.capacityViolation_[route] = values[4];
+    } // storeRoute
 
-            // Check if we didn't exceed the capacity
-            if (usedCapacity > capacity_) constraint[1] += -(usedCapacity - capacity_);
-        } // while
+    /**
+     * Copies the aggregates of a route from one cache to another
+     */
+    private void copyRoute(RouteCache from, int fromRoute, RouteCache to, int toRoute) {
+        to.load_[toRoute] = from.load_[fromRoute];
+        to.distance_[toRoute] = from.distance_[fromRoute];
+        to.fuel_[toRoute] = from.fuel_[fromRoute];
+        to.timeViolation_[toRoute] = from.timeViolation_[fromRoute];
+        to.capacityViolation_[toRoute] = from.capacityViolation_[fromRoute];
+    } // copyRoute
 
-        double total = 0.0;
-        int number = 0;
-        for (int j = 0; j < this.getNumberOfConstraints(); j++) {
-            if (constraint[j] < 0.0) {
-                total += constraint[j];
-                number++;
-            }
+    /**
+     * Sums the aggregates of every route of a cache into its totals
+     */
+    private void sumRoutes(RouteCache cache) {
+        double [] totals = cache.totals_;
+        totals[0] = totals[1] = totals[2] = totals[3] = 0.0;
+        for (int route = 0; route < cache.numberOfRoutes_; route++) {
+            totals[0] += cache.distance_[route];
+            totals[1] += cache.fuel_[route];
+            totals[2] += cache.timeViolation_[route];
+            totals[3] += cache.capacityViolation_[route];
         }
+    } // sumRoutes
 
-        solution.setOverallConstraintViolation(total);
-        solution.setNumberOfViolatedConstraint(number);
-    } // evaluateConstraints
+    /**
+     * Evaluates if a solution is feasible, using the aggregates of its routes
+     * @param solution The solution
+     * @return True iff solution is a feasible solution
+     */
+    public boolean isFeasible(Solution solution) {
+        double [] totals = evaluateRoutes((ArrayInt)solution.getDecisionVariables()[0]);
+        return (totals[2] == 0.0) && (totals[3] == 0.0);
+    } // isFeasible
+
+    /**
+     * Evaluates if a route of a solution is feasible, using its cached aggregates
+     * @param solution The solution
+     * @param route Index of the route
+     * @return True iff the route respects the time windows and the capacity
+     */
+    public boolean isFeasible(Solution solution, int route) {
+        RouteCache routes = getRoutes((ArrayInt)solution.getDecisionVariables()[0]);
+        return (routes.timeViolation_[route] == 0.0) && (routes.capacityViolation_[route] == 0.0);
+    } // isFeasible
 
     /**
      * Evaluates if the solution is feasible
@@ -333,111 +568,12 @@ public class CVRPTW extends Problem {
         return true;
     } // isFeasible
 
-    /**
-     * Reads the instance file and get the information of the problem variables
-     * Sets the class atributes corresponding to the problem variables
-     * @param instanceName Name of the instance file. It must be one of the instances in jMetal/data/CVRPTW folder
-     */
-    private void readInstanceFile(String instanceName) {
-
-        String instanceFileDirectory;               // Directory with instance files
-        String instanceFile             = "";       // Route to the instance file
-        Integer vehicleNumber           = -1;       // Number of vehicles
-        double capacity                 = 0.0;      // Capacity of the vehicles
-        Integer customerNumber          = -1;       // Number of customers. Depot doesn't count
-        double [][] customers           = null;     // Coordinates of customers. It includes depot
-        double [] demand                = null;     // Demand of each customer. Zero for depot
-        double [] readyTime             = null;     // Beginning of each customer's time window. It includes depot
-        double [] dueDate               = null;     // End of each customer's time window. It includes depot
-        double [] service               = null;     // Time spent serving each customer. Zero for depot
-        String outputDirectory          = "";       // Route to output directory
-
-        try {
-            // Set instance files directory
-            instanceFileDirectory = System.getProperty("user.dir")+"/src/jmetal/data/CVRPTW/";
-            instanceFile = instanceFileDirectory + instanceName;
-
-            File fin = new File(instanceFile);
-            FileInputStream fis = new FileInputStream(fin);
-            BufferedReader br = new BufferedReader(new InputStreamReader(fis));
-
-            // First, count the file's number of lines to get the number of customers
-            String line = br.readLine();
-            int numberOfLines = 0;
-            while (line != null) {
-                line = br.readLine();
-                numberOfLines = numberOfLines + 1;
-            }
-            customerNumber = numberOfLines - 10;
-            br.close();
-
-            // Second, read again the file to get the remaining data
-            Scanner scanner = new Scanner(new File(instanceFile));
-            // Skip the first four lines
-            for (int i = 0; i < 4; i++) scanner.nextLine();
-
-            // Get the vehicle number and capacity
-            vehicleNumber = scanner.nextInt();
-            capacity = scanner.nextInt();
-
-            // Allocate memory for the arrays
-            customers   = new double[2][customerNumber + 1];
-            demand      = new double[customerNumber + 1];
-            readyTime   = new double[customerNumber + 1];
-            dueDate     = new double[customerNumber + 1];
-            service     = new double[customerNumber + 1];
-
-            // Get the customers' location, their demands, ready time, due date and service
-
-            // Skip the next four lines
-            for (int i = 0; i < 4; i++) scanner.nextLine();
-
-            for (int i = 0; i < customerNumber + 1; i++) {
-                // Go to next line
-                scanner.nextLine();
-
-                // Skip the first integer of the line, which is the customer number
-                scanner.nextInt();
-
-                // Read customer's coordinates
-                customers[0][i] = scanner.nextInt();
-                customers[1][i] = scanner.nextInt();
-
-                // Read demand
-                demand[i] = scanner.nextInt();
-
-                // Read time window
-                readyTime[i] = scanner.nextInt();
-                dueDate[i] = scanner.nextInt();
-
-                // Read service
-                service[i] = scanner.nextInt();
-            }
-        } catch(IOException e) {
-            e.printStackTrace();
-        }
-
-        // Set attributes of the problem
-        vehicleNumber_      = vehicleNumber;
-        capacity_           = capacity;
-        customerNumber_     = customerNumber;
-        customers_          = customers;
-        demand_             = demand;
-        readyTime_          = readyTime;
-        dueDate_            = dueDate;
-        service_            = service;
-        instanceName_       = instanceName;
-        instanceFile_       = instanceFile;
-        outputDirectory_    = outputDirectory;
-    } // readInstanceFile
-
     // For debugging
     public static void main(String[] args) {
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
         try {
             String s = br.readLine();
             CVRPTW p = new CVRPTW(s);
-            p.readInstanceFile(s);
 
             System.out.println("Vehicle number: " + p.vehicleNumber_);
             System.out.println("Capacity: " + p.capacity_);
@@ -474,4 +610,13 @@ public class CVRPTW extends Problem {
         }
     } // main
 
+    /**
+     * Recreates the scratch arrays of the threads, which are not serialized
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        scratch_ = ThreadLocal.withInitial(() -> new double[4]);
+        routeScratch_ = ThreadLocal.withInitial(() -> new double[5]);
+    } // readObject
+
 } // CVRPTW
@@ -0,0 +1,65 @@
+//  CVRPTWBinaryConverter.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.problems;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts CVRPTW instance files from the Solomon text format to the binary format read by
+ * CVRPTWInstance. The binary file is written next to the text file, with extension .bin, and is used
+ * from then on by every CVRPTW problem on that instance.
+ * Usage:
+ *   java jmetal.problems.CVRPTWBinaryConverter [-matrix] [instance files]
+ * If no instance file is given, every .txt file in jMetal/data/CVRPTW is converted. With -matrix the
+ * distance matrix is also stored in the binary file.
+ */
+public class CVRPTWBinaryConverter {
+
+  public static void main(String[] args) throws IOException {
+    boolean distanceMatrix = false;
+    int first = 0;
+    if ((args.length > 0) && args[0].equals("-matrix")) {
+      distanceMatrix = true;
+      first = 1;
+    }
+
+    String[] instanceFiles;
+    if (args.length > first) {
+      instanceFiles = new String[args.length - first];
+      System.arraycopy(args, first, instanceFiles, 0, instanceFiles.length);
+    } else {
+      File directory = new File(System.getProperty("user.dir") + CVRPTWInstance.INSTANCE_DIRECTORY);
+      File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+      instanceFiles = new String[files == null ? 0 : files.length];
+      for (int i = 0; i < instanceFiles.length; i++)
+        instanceFiles[i] = files[i].getPath();
+    }
+
+    for (String instanceFile : instanceFiles) {
+      CVRPTWInstance instance = CVRPTWInstance.read(new File(instanceFile).getName(), instanceFile);
+      String binaryFile = CVRPTWInstance.binaryFileName(instanceFile);
+      CVRPTWInstance.writeBinary(instance, binaryFile, distanceMatrix);
+      System.out.println(instanceFile + " -> " + binaryFile);
+    } // for
+  } // main
+} // CVRPTWBinaryConverter
@@ -0,0 +1,384 @@
+//  CVRPTWInstance.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.problems;
+
+import jmetal.util.Configuration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class holding the data of a CVRPTW instance file. Instances are immutable and are shared by every
+ * CVRPTW problem created in the process through a cache keyed by instance name, so each file is parsed
+ * only once. The arrays returned by the getters must not be modified.
+ *
+ * Besides the Solomon text format, instances can be stored in a little-endian binary format (see
+ * <code>writeBinary</code> and CVRPTWBinaryConverter), which is loaded by memory-mapping the file:
+ *   int magic, int version, int vehicle number, double capacity, int nodes (customers + depot), int flags,
+ *   then the columns x, y, demand, ready time, due date and service as blocks of nodes doubles and, if
+ *   bit 0 of flags is set, the distance matrix as nodes * nodes doubles.
+ */
+public final class CVRPTWInstance implements Serializable {
+
+  /**
+   * Directory with the instance files
+   */
+  public static final String INSTANCE_DIRECTORY = "/src/jmetal/data/CVRPTW/";
+
+  /**
+   * Extension of the instance files in binary format
+   */
+  public static final String BINARY_EXTENSION = ".bin";
+
+  /**
+   * Binary format identification
+   */
+  private static final int BINARY_MAGIC = 0x42525643;   // "CVRB"
+  private static final int BINARY_VERSION = 1;
+  private static final int BINARY_HEADER_SIZE = 4 + 4 + 4 + 8 + 4 + 4;
+  private static final int FLAG_DISTANCE_MATRIX = 1;
+
+  /**
+   * Instances already read, keyed by instance name
+   */
+  private static final ConcurrentHashMap<String, CVRPTWInstance> cache_ = new ConcurrentHashMap<>();
+
+  private final String instanceName_;
+  private final String instanceFile_;
+  private final int vehicleNumber_;         // Number of vehicles
+  private final double capacity_;           // Capacity of the vehicles
+  private final int customerNumber_;        // Number of customers. Depot doesn't count
+  private final double [][] customers_;     // Coordinates of customers. It includes depot
+  private final double [] demand_;          // Demand of each customer. Zero for depot
+  private final double [] readyTime_;       // Beginning of each customer's time window. It includes depot
+  private final double [] dueDate_;         // End of each customer's time window. It includes depot
+  private final double [] service_;         // Time spent serving each customer. Zero for depot
+
+  // Distance matrices between every pair of nodes, built on demand
+  private volatile double [] distance_;
+  private volatile float [] distanceFloat_;
+
+  /**
+   * Constructor
+   */
+  CVRPTWInstance(String instanceName, String instanceFile, int vehicleNumber, double capacity,
+                 double [][] customers, double [] demand, double [] readyTime, double [] dueDate,
+                 double [] service) {
+    instanceName_ = instanceName;
+    instanceFile_ = instanceFile;
+    vehicleNumber_ = vehicleNumber;
+    capacity_ = capacity;
+    customerNumber_ = demand.length - 1;
+    customers_ = customers;
+    demand_ = demand;
+    readyTime_ = readyTime;
+    dueDate_ = dueDate;
+    service_ = service;
+  } // CVRPTWInstance
+
+  /**
+   * Returns an instance, reading its file only the first time it is requested. If there is a binary version
+   * of the file (same name with extension .bin) which is not older than the text file, it is loaded instead
+   * @param instanceName Name of the instance file. It must be one of the instances in jMetal/data/CVRPTW folder
+   * @return The instance
+   */
+  public static CVRPTWInstance getInstance(String instanceName) {
+    return cache_.computeIfAbsent(instanceName, name -> {
+      String instanceFile = System.getProperty("user.dir") + INSTANCE_DIRECTORY + name;
+      try {
+        if (name.endsWith(BINARY_EXTENSION))
+          return readBinary(name, instanceFile);
+
+        File binaryFile = new File(binaryFileName(instanceFile));
+        if (binaryFile.exists() && (binaryFile.lastModified() >= new File(instanceFile).lastModified()))
+          return readBinary(name, binaryFile.getPath());
+
+        return read(name, instanceFile);
+      } catch (IOException e) {
+        Configuration.logger_.severe("CVRPTWInstance.getInstance: error reading " + instanceFile);
+        throw new UncheckedIOException(e);
+      }
+    });
+  } // getInstance
+
+  /**
+   * Reads an instance file in a single pass. The file has a header with the number of vehicles and their
+   * capacity, followed by one line per node (the depot first) with its number, coordinates, demand, ready
+   * time, due date and service time. Lines not starting with a number are skipped
+   * @param instanceName Name of the instance
+   * @param instanceFile Route to the instance file
+   * @return The instance
+   * @throws IOException
+   */
+  static CVRPTWInstance read(String instanceName, String instanceFile) throws IOException {
+    int vehicleNumber = -1;
+    double capacity = 0.0;
+    int nodes = 0;
+    double [] x = new double[128];
+    double [] y = new double[128];
+    double [] demand = new double[128];
+    double [] readyTime = new double[128];
+    double [] dueDate = new double[128];
+    double [] service = new double[128];
+
+    try (BufferedReader reader = new BufferedReader(new FileReader(instanceFile))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        StringTokenizer tokens = new StringTokenizer(line);
+        if (!tokens.hasMoreTokens()) continue;
+        String first = tokens.nextToken();
+        if (!Character.isDigit(first.charAt(0))) continue;
+
+        if (vehicleNumber == -1) {
+          // Get the vehicle number and capacity
+          vehicleNumber = Integer.parseInt(first);
+          capacity = Double.parseDouble(tokens.nextToken());
+        } else {
+          if (nodes == x.length) {
+            int length = 2 * nodes;
+            x = Arrays.copyOf(x, length);
+            y = Arrays.copyOf(y, length);
+            demand = Arrays.copyOf(demand, length);
+            readyTime = Arrays.copyOf(readyTime, length);
+            dueDate = Arrays.copyOf(dueDate, length);
+            service = Arrays.copyOf(service, length);
+          }
+          // The first number of the line is the customer number
+          x[nodes] = Double.parseDouble(tokens.nextToken());
+          y[nodes] = Double.parseDouble(tokens.nextToken());
+          demand[nodes] = Double.parseDouble(tokens.nextToken());
+          readyTime[nodes] = Double.parseDouble(tokens.nextToken());
+          dueDate[nodes] = Double.parseDouble(tokens.nextToken());
+          service[nodes] = Double.parseDouble(tokens.nextToken());
+          nodes++;
+        }
+      } // while
+    }
+
+    double [][] customers = new double[][] {Arrays.copyOf(x, nodes), Arrays.copyOf(y, nodes)};
+    return new CVRPTWInstance(instanceName, instanceFile, vehicleNumber, capacity, customers,
+            Arrays.copyOf(demand, nodes), Arrays.copyOf(readyTime, nodes), Arrays.copyOf(dueDate, nodes),
+            Arrays.copyOf(service, nodes));
+  } // read
+
+  /**
+   * Returns the name of the binary file corresponding to an instance file
+   * @param instanceFile Route to the instance file
+   */
+  public static String binaryFileName(String instanceFile) {
+    int dot = instanceFile.lastIndexOf('.');
+    if (dot > instanceFile.lastIndexOf(File.separatorChar))
+      instanceFile = instanceFile.substring(0, dot);
+    return instanceFile + BINARY_EXTENSION;
+  } // binaryFileName
+
+  /**
+   * Reads an instance in binary format by mapping the file into memory
+   * @param instanceName Name of the instance
+   * @param instanceFile Route to the binary file
+   * @return The instance
+   * @throws IOException
+   */
+  static CVRPTWInstance readBinary(String instanceName, String instanceFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(instanceFile), StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+      if ((buffer.getInt() != BINARY_MAGIC) || (buffer.getInt() != BINARY_VERSION))
+        throw new IOException(instanceFile + " is not a CVRPTW binary instance file");
+      int vehicleNumber = buffer.getInt();
+      double capacity = buffer.getDouble();
+      int nodes = buffer.getInt();
+      int flags = buffer.getInt();
+
+      DoubleBuffer data = buffer.asDoubleBuffer();
+      double [][] customers = new double[2][nodes];
+      double [] demand = new double[nodes];
+      double [] readyTime = new double[nodes];
+      double [] dueDate = new double[nodes];
+      double [] service = new double[nodes];
+      data.get(customers[0]);
+      data.get(customers[1]);
+      data.get(demand);
+      data.get(readyTime);
+      data.get(dueDate);
+      data.get(service);
+
+      CVRPTWInstance instance = new CVRPTWInstance(instanceName, instanceFile, vehicleNumber, capacity, customers,
+              demand, readyTime, dueDate, service);
+      if ((flags & FLAG_DISTANCE_MATRIX) != 0) {
+        double [] distance = new double[nodes * nodes];
+        data.get(distance);
+        instance.distance_ = distance;
+      }
+      return instance;
+    }
+  } // readBinary
+
+  /**
+   * Writes an instance in binary format
+   * @param instance The instance
+   * @param binaryFile Route to the binary file
+   * @param distanceMatrix If true the distance matrix is also written
+   * @throws IOException
+   */
+  public static void writeBinary(CVRPTWInstance instance, String binaryFile, boolean distanceMatrix)
+          throws IOException {
+    int nodes = instance.customerNumber_ + 1;
+    long size = BINARY_HEADER_SIZE + 6L * nodes * Double.BYTES;
+    if (distanceMatrix)
+      size += (long) nodes * nodes * Double.BYTES;
+
+    try (FileChannel channel = FileChannel.open(Paths.get(binaryFile), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+      buffer.putInt(BINARY_MAGIC);
+      buffer.putInt(BINARY_VERSION);
+      buffer.putInt(instance.vehicleNumber_);
+      buffer.putDouble(instance.capacity_);
+      buffer.putInt(nodes);
+      buffer.putInt(distanceMatrix ? FLAG_DISTANCE_MATRIX : 0);
+
+      DoubleBuffer data = buffer.asDoubleBuffer();
+      data.put(instance.customers_[0]);
+      data.put(instance.customers_[1]);
+      data.put(instance.demand_);
+      data.put(instance.readyTime_);
+      data.put(instance.dueDate_);
+      data.put(instance.service_);
+      if (distanceMatrix)
+        data.put(instance.getDistanceMatrix());
+      buffer.force();
+    }
+  } // writeBinary
+
+  /**
+   * Returns the distance matrix between every pair of nodes, element [i * (customers + 1) + j]
+   * being the distance between nodes i and j. It is computed the first time it is requested
+   */
+  public double [] getDistanceMatrix() {
+    double [] distance = distance_;
+    if (distance == null) {
+      synchronized (this) {
+        distance = distance_;
+        if (distance == null) {
+          int nodes = customerNumber_ + 1;
+          distance = new double[nodes * nodes];
+          for (int i = 0; i < nodes; i++) {
+            for (int j = i; j < nodes; j++) {
+              distance[i * nodes + j] = distance[j * nodes + i] = euclideanDistance(i, j);
+            }
+          }
+          distance_ = distance;
+        }
+      }
+    }
+    return distance;
+  } // getDistanceMatrix
+
+  /**
+   * Returns the distance matrix in single precision. It is computed the first time it is requested
+   */
+  public float [] getFloatDistanceMatrix() {
+    float [] distance = distanceFloat_;
+    if (distance == null) {
+      synchronized (this) {
+        distance = distanceFloat_;
+        if (distance == null) {
+          int nodes = customerNumber_ + 1;
+          distance = new float[nodes * nodes];
+          for (int i = 0; i < nodes; i++) {
+            for (int j = i; j < nodes; j++) {
+              distance[i * nodes + j] = distance[j * nodes + i] = (float) euclideanDistance(i, j);
+            }
+          }
+          distanceFloat_ = distance;
+        }
+      }
+    }
+    return distance;
+  } // getFloatDistanceMatrix
+
+  /**
+   * Returns the euclidean distance between nodes i and j (node 0 is the depot)
+   */
+  public double euclideanDistance(int i, int j) {
+    double dx = customers_[0][i] - customers_[0][j];
+    double dy = customers_[1][i] - customers_[1][j];
+    return Math.sqrt(dx * dx + dy * dy);
+  } // euclideanDistance
+
+  public String getInstanceName() {
+    return instanceName_;
+  }
+
+  public String getInstanceFile() {
+    return instanceFile_;
+  }
+
+  public int getVehicleNumber() {
+    return vehicleNumber_;
+  }
+
+  public double getCapacity() {
+    return capacity_;
+  }
+
+  public int getCustomerNumber() {
+    return customerNumber_;
+  }
+
+  public double [][] getCustomers() {
+    return customers_;
+  }
+
+  public double [] getDemand() {
+    return demand_;
+  }
+
+  public double [] getReadyTime() {
+    return readyTime_;
+  }
+
+  public double [] getDueDate() {
+    return dueDate_;
+  }
+
+  public double [] getService() {
+    return service_;
+  }
+} // CVRPTWInstance
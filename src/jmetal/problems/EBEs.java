@@ -14,9 +14,11 @@ import jmetal.core.Variable;
 import jmetal.encodings.solutionType.ArrayRealSolutionType;
 import jmetal.encodings.solutionType.BinaryRealSolutionType;
 import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.util.BandedCholesky;
 import jmetal.util.JMException;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,7 +26,7 @@ import java.util.logging.Logger;
  * Class representing problem EBEs
  * Spatial Bars Structure (Estructuras de Barras Espaciales)
  */
-public class EBEs extends Problem{
+public class EBEs extends Problem implements Cloneable {
   /**
    * Constructor.
    * Creates a default instance of the EBEs problem.
@@ -36,6 +38,20 @@ public class EBEs extends Problem{
    */
   protected int numberOfEval_ ;
 
+  /**
+   * Workspace of each thread. The intermediate results of an evaluation (sections of the groups,
+   * stiffness matrix, displacements, efforts and strains) live in the fields of the problem, and
+   * evaluateConstraints reads those left by evaluate, so every thread evaluates on its own copy of the
+   * problem, which shares the data of the structure and reuses its arrays from one evaluation to the next.
+   * Created on first use, so that a deserialized problem gets its own
+   */
+  private transient volatile ThreadLocal<EBEs> workspaces_ ;
+
+  /**
+   * Problem this workspace belongs to (null if this is not a workspace)
+   */
+  private EBEs owner_ ;
+
  /*
     protected int maxEvaluations_ ;
 
@@ -271,6 +287,13 @@ public class EBEs extends Problem{
    */
   protected double [][] DisplacementNodes_ ;
 
+  // loads of a hypothesis, replaced by its displacements by EBEsEcuationSubstitution
+  private double [] Load_ ;
+
+  // factorized first order stiffness matrix, kept while the second order pass of a hypothesis
+  // overwrites MatrixStiffness_ with its own
+  private double [] MatrixStiffnessFirstOrder_ ;
+
   public double DisplacementNodes(int node, int hi) {
     return DisplacementNodes_[node][hi];
   } // get DisplacementNodes i
@@ -430,6 +453,15 @@ public class EBEs extends Problem{
   double [][]KjiSOG = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
   double [][]KjjSOG = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
 
+  // auxiliary matrices and vectors of an element, reused by every evaluation of a workspace
+  double [][]r_ = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
+  double [][]s_ = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
+  double [][]t_ = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
+  double []di_ = new double [numberOfLibertyDegree_];
+  double []dj_ = new double [numberOfLibertyDegree_];
+  double []ei_ = new double [numberOfLibertyDegree_];
+  double []ej_ = new double [numberOfLibertyDegree_];
+
   // matrix indexes of weight element
   int CARGA_UNIFORME_TOTAL = 0;
   int CARGA_PUNTUAL = 1;
@@ -777,6 +809,11 @@ public class EBEs extends Problem{
    * @throws jmetal.util.JMException
    */
   public void evaluate(Solution solution) throws JMException {
+    if (owner_ == null) {
+      getWorkspace().evaluate(solution) ;
+      countEvaluation() ;
+      return ;
+    } // if
 
     int hi=0;
     double [] fx = new double[numberOfObjectives_] ; // functions
@@ -919,12 +956,129 @@ switch(selectedOF){
 
 //  END OBJETIVES FUNCTION
 
+  } // evaluate
 
+  /**
+   * Counts an evaluation, printing the count every 1000 evaluations
+   */
+  private synchronized void countEvaluation() {
     numberOfEval_++;
 
       if((numberOfEval_ % 1000) == 0) System.out.println(numberOfEval_);
+  } // countEvaluation
 
-  } // evaluate
+  /**
+   * Returns the workspace of the calling thread, i.e. the copy of the problem holding the intermediate
+   * results (displacements, efforts, strains...) of the last evaluation done by this thread
+   */
+  public EBEs getWorkspace() {
+    if (owner_ != null)
+      return this ;
+
+    ThreadLocal<EBEs> workspaces = workspaces_ ;
+    if (workspaces == null) {
+      synchronized (this) {
+        if (workspaces_ == null)
+          workspaces_ = ThreadLocal.withInitial(this::newWorkspace) ;
+        workspaces = workspaces_ ;
+      } // synchronized
+    } // if
+    return workspaces.get() ;
+  } // getWorkspace
+
+  /**
+   * Creates a workspace: a shallow copy of the problem, sharing the data of the structure read from the
+   * file, with its own copies of the groups (whose sections are overwritten by every evaluation) and of
+   * the arrays used by the evaluation
+   */
+  private EBEs newWorkspace() {
+    EBEs workspace ;
+    try {
+      workspace = (EBEs) clone() ;
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e) ;
+    }
+    workspace.owner_ = this ;
+    workspace.workspaces_ = null ;
+
+    workspace.Groups_ = new double[Groups_.length][] ;
+    for (int gr = 0; gr < Groups_.length; gr++)
+      workspace.Groups_[gr] = Groups_[gr].clone() ;
+
+    // Arrays of the evaluation, allocated by the first evaluation of the workspace
+    workspace.Efforti_ = null ;
+    workspace.Effortj_ = null ;
+    workspace.DisplacementNodes_ = null ;
+    workspace.Straini_ = null ;
+    workspace.Strainj_ = null ;
+    workspace.StrainMin_ = null ;
+    workspace.StrainMax_ = null ;
+    workspace.StrainCutMax_ = null ;
+    workspace.StrainResidualMin_ = null ;
+    workspace.StrainResidualMax_ = null ;
+    workspace.StrainResidualCut_ = null ;
+    workspace.MatrixStiffness_ = null ;
+    workspace.WeightElement_ = null ;
+    workspace.AxialForcei_ = null ;
+    workspace.AxialForcej_ = null ;
+    workspace.cbi = null ;
+    workspace.cbj = null ;
+    workspace.PQ = null ;
+    workspace.Reaction_ = null ;
+    workspace.Load_ = null ;
+    workspace.MatrixStiffnessFirstOrder_ = null ;
+
+    // Vectors and matrices of an element
+    int n = numberOfLibertyDegree_ ;
+    workspace.Qi = new double[n] ;
+    workspace.Qj = new double[n] ;
+    workspace.pi = new double[n] ;
+    workspace.pj = new double[n] ;
+    workspace.di_ = new double[n] ;
+    workspace.dj_ = new double[n] ;
+    workspace.ei_ = new double[n] ;
+    workspace.ej_ = new double[n] ;
+    workspace.Kii = new double[n][n] ;
+    workspace.Kij = new double[n][n] ;
+    workspace.Kji = new double[n][n] ;
+    workspace.Kjj = new double[n][n] ;
+    workspace.KGii = new double[n][n] ;
+    workspace.KGij = new double[n][n] ;
+    workspace.KGji = new double[n][n] ;
+    workspace.KGjj = new double[n][n] ;
+    workspace.Rij = new double[n][n] ;
+    workspace.Rji = new double[n][n] ;
+    workspace.RTij = new double[n][n] ;
+    workspace.RTji = new double[n][n] ;
+    workspace.Rpij = new double[n][n] ;
+    workspace.Rpji = new double[n][n] ;
+    workspace.RpTij = new double[n][n] ;
+    workspace.RpTji = new double[n][n] ;
+    workspace.KiiSOG = new double[n][n] ;
+    workspace.KijSOG = new double[n][n] ;
+    workspace.KjiSOG = new double[n][n] ;
+    workspace.KjjSOG = new double[n][n] ;
+    workspace.r_ = new double[n][n] ;
+    workspace.s_ = new double[n][n] ;
+    workspace.t_ = new double[n][n] ;
+    return workspace ;
+  } // newWorkspace
+
+  /**
+   * Sets to zero every value of an array
+   */
+  private static void clear(double [][] a) {
+    for (double [] row : a)
+      Arrays.fill(row, 0.0) ;
+  } // clear
+
+  /**
+   * Sets to zero every value of an array
+   */
+  private static void clear(double [][][] a) {
+    for (double [][] m : a)
+      clear(m) ;
+  } // clear
 
   /**
    * Evaluates the constraint overhead of a solution 
@@ -932,6 +1086,10 @@ switch(selectedOF){
    * @throws jmetal.util.JMException
    */
   public void evaluateConstraints(Solution solution) throws JMException {
+    if (owner_ == null) {
+      getWorkspace().evaluateConstraints(solution) ;
+      return ;
+    } // if
 
     double [] constraint = new double[this.getNumberOfConstraints()];
     Variable[] x = solution.getDecisionVariables();
@@ -1330,10 +1488,10 @@ switch(selectedOF){
       WeightElement_[el][Qa_] = 0.0;
       WeightElement_[el][Qb_] = 0.0;
 
-      Qi = new double[numberOfLibertyDegree_];
-      Qj = new double[numberOfLibertyDegree_];
-      pi = new double[numberOfLibertyDegree_];
-      pj = new double[numberOfLibertyDegree_];
+      Arrays.fill(Qi, 0.0);
+      Arrays.fill(Qj, 0.0);
+      Arrays.fill(pi, 0.0);
+      Arrays.fill(pj, 0.0);
       EBEsWeightDistributedUniformly(el, WeightElement_[el]);
 
       int hi = 0;
@@ -1375,45 +1533,61 @@ switch(selectedOF){
   public void EBEsCalculus() throws JMException{
     //  Module de calc
 
-    // Effort in boundary element
-    Efforti_ = new double[numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
-    Effortj_ = new double[numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
-
-    // corrimientos y rotaciones de los nudos por hipÃ³tesis de cargas 
-    DisplacementNodes_= new double[numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
-
-    // Strain in extrem i por hipÃ³tesis de cargas
-    Straini_ = new double[3][numberOfElements_][numberOfWeigthHypothesis_];
-    // Strain in extrem j  por hipÃ³tesis de cargas
-    Strainj_ = new double[3][numberOfElements_][numberOfWeigthHypothesis_];
-    // Strain minimun por hipÃ³tesis de cargas
-    // StrainMin_ = new double[2][numberOfElements_][numberOfWeigthHypothesis_];
-    StrainMin_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
-    // Strain maximus  por hipÃ³tesis de cargas     
-    // StrainMax_ = new double[2][numberOfElements_][numberOfWeigthHypothesis_];
-    StrainMax_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
-    // stress tangencial mamimun
-    StrainCutMax_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
-    // Negative Strain residual  por hipÃ³tesis de cargas
-    StrainResidualMin_ = new double[numberOfWeigthHypothesis_];
-    // Positive Strain residual  por hipÃ³tesis de cargas
-    StrainResidualMax_ = new double[numberOfWeigthHypothesis_];
-    // Cut Strain residual  por hipÃ³tesis de cargas
-    StrainResidualCut_ = new double[numberOfWeigthHypothesis_];
-
-    MatrixStiffness_ = new double [numberOfLibertyDegree_* numberOfLibertyDegree_*numberOfNodes_*(elementsBetweenDiffGreat_+1)];
-
-    // load inself witch element
-    WeightElement_ = new double[numberOfElements_][8];
-
-    //variables load in extrem of beams
-    cbi= new double [numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
-    cbj= new double [numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
-
-    // total equivalent load nodes in all structure witch load on elements and load nodes
-    PQ= new double [numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
-
-    Reaction_= new double [numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
+    // The arrays are allocated by the first evaluation and cleared by the next ones
+    if (Efforti_ == null) {
+      // Effort in boundary element
+      Efforti_ = new double[numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
+      Effortj_ = new double[numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
+
+      // corrimientos y rotaciones de los nudos por hipótesis de cargas
+      DisplacementNodes_= new double[numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
+
+      // Strain in extrem i por hipótesis de cargas
+      Straini_ = new double[3][numberOfElements_][numberOfWeigthHypothesis_];
+      // Strain in extrem j  por hipótesis de cargas
+      Strainj_ = new double[3][numberOfElements_][numberOfWeigthHypothesis_];
+      // Strain minimun por hipótesis de cargas
+      StrainMin_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
+      // Strain maximus  por hipótesis de cargas
+      StrainMax_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
+      // stress tangencial mamimun
+      StrainCutMax_ = new double[numberOfGroupElements_][numberOfWeigthHypothesis_];
+      // Negative Strain residual  por hipótesis de cargas
+      StrainResidualMin_ = new double[numberOfWeigthHypothesis_];
+      // Positive Strain residual  por hipótesis de cargas
+      StrainResidualMax_ = new double[numberOfWeigthHypothesis_];
+      // Cut Strain residual  por hipótesis de cargas
+      StrainResidualCut_ = new double[numberOfWeigthHypothesis_];
+
+      MatrixStiffness_ = new double [numberOfLibertyDegree_* numberOfLibertyDegree_*numberOfNodes_*(elementsBetweenDiffGreat_+1)];
+
+      // load inself witch element
+      WeightElement_ = new double[numberOfElements_][8];
+
+      //variables load in extrem of beams
+      cbi= new double [numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
+      cbj= new double [numberOfLibertyDegree_][numberOfElements_][numberOfWeigthHypothesis_];
+
+      // total equivalent load nodes in all structure witch load on elements and load nodes
+      PQ= new double [numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
+
+      Reaction_= new double [numberOfLibertyDegree_*numberOfNodes_][numberOfWeigthHypothesis_];
+    } else {
+      clear(Efforti_);
+      clear(Effortj_);
+      clear(DisplacementNodes_);
+      clear(StrainMin_);
+      clear(StrainMax_);
+      clear(StrainCutMax_);
+      Arrays.fill(StrainResidualMin_, 0.0);
+      Arrays.fill(StrainResidualMax_, 0.0);
+      Arrays.fill(StrainResidualCut_, 0.0);
+      clear(WeightElement_);
+      clear(cbi);
+      clear(cbj);
+      clear(PQ);
+      clear(Reaction_);
+    } // if
 
     EBEsWeightNodes();
 
@@ -1427,22 +1601,38 @@ switch(selectedOF){
     if(lSecondOrderGeometric)
         NumIter=1;
 
+    // first order: the stiffness matrix does not depend on the load hypothesis, so it is
+    // factorized once and every hypothesis is solved by substitution
+    EBEsMatrixGlobal(0);
+    //imprime la matriz de rigidez penalizada
+    //EBEsPrintArchTxtMKG("2", 0);
+
+    EBEsEcuationFactorization();
+    if(lSecondOrderGeometric){
+      if(MatrixStiffnessFirstOrder_ == null)
+        MatrixStiffnessFirstOrder_ = new double [MatrixStiffness_.length];
+      System.arraycopy(MatrixStiffness_, 0, MatrixStiffnessFirstOrder_, 0, MatrixStiffness_.length);
+    }
+
     // load hypotesis
     for(int hi=0; hi<numberOfWeigthHypothesis_;hi++){
 
       for(int countIter=0;countIter<=NumIter;countIter++){
 
-        EBEsMatrixWeight(hi);
+        if(countIter==0 && hi>0 && lSecondOrderGeometric){
+          // the second order pass of the previous hypothesis replaced the first order factorization
+          System.arraycopy(MatrixStiffnessFirstOrder_, 0, MatrixStiffness_, 0, MatrixStiffness_.length);
+        }
 
-        EBEsMatrixGlobalFactory(countIter);
-        //imprime la matriz de rigidez
-        //EBEsPrintArchTxtMKG("1", hi);
+        if(countIter==1){
+          // second order: the stiffness matrix depends on the axial forces of the hypothesis
+          EBEsMatrixGlobal(countIter);
+          EBEsEcuationFactorization();
+        }
 
-        EBEsMatrixGlobalPenalization();
-        // matriz penalizada
-        //EBEsPrintArchTxtMKG("2", hi);
+        EBEsMatrixWeight(hi);
 
-        EBEsEcuationSolution(hi);
+        EBEsEcuationSubstitution(hi);
 
         EBEsEffortsElements3D(hi, countIter, DisplacementNodes_);
 
@@ -1471,10 +1661,10 @@ switch(selectedOF){
     // cÃ¡lculo de las tensiones, por barra calculo en los extremos
     // faltarÃ­a calcular en los tramos y quedarme con el mÃ¡ximo
     // tensiones en i
-    Straini_=EBEsStrainNode(Efforti_);
+    EBEsStrainNode(Efforti_, Straini_);
 
     // tensiones en extriemo j
-    Strainj_=EBEsStrainNode(Effortj_);
+    EBEsStrainNode(Effortj_, Strainj_);
 
     // tensiones mÃ¡ximas en cada barra
     // EBEsStrainMaxWhitElement();
@@ -1495,8 +1685,10 @@ switch(selectedOF){
 
   public void EBEsAssignAxialForces(int hi){
 
-	  AxialForcei_ = new double[numberOfElements_];
-	  AxialForcej_ = new double[numberOfElements_];
+	  if (AxialForcei_ == null) {
+	    AxialForcei_ = new double[numberOfElements_];
+	    AxialForcej_ = new double[numberOfElements_];
+	  }
 	  
     for(int el=0;el<numberOfElements_;el++){
       AxialForcei_[el] = Efforti_[aX_][el][hi];
@@ -1571,10 +1763,10 @@ switch(selectedOF){
 
       if(lSecondOrderGeometric && countIter==1){
         EBEsMat3DL_SOG(el);
-        Kii=EBEsMatrixAdd(Kii, KiiSOG);
-        Kij=EBEsMatrixAdd(Kij, KijSOG);
-        Kji=EBEsMatrixAdd(Kji, KjiSOG);
-        Kjj=EBEsMatrixAdd(Kjj, KjjSOG);
+        EBEsMatrixAdd(Kii, KiiSOG, Kii);
+        EBEsMatrixAdd(Kij, KijSOG, Kij);
+        EBEsMatrixAdd(Kji, KjiSOG, Kji);
+        EBEsMatrixAdd(Kjj, KjjSOG, Kjj);
       }
 
       // matriz de rotaciÃ³n de ejes principales de secciÃ³n a ejes locales (xp,yp)
@@ -1686,10 +1878,10 @@ switch(selectedOF){
     //bucle para todas las barras cargadas
     for(int i = 0; i< numberOfWeigthsElements_;i++){
 
-      Qi = new double[numberOfLibertyDegree_];
-      Qj = new double[numberOfLibertyDegree_];
-      pi = new double[numberOfLibertyDegree_];
-      pj = new double[numberOfLibertyDegree_];
+      Arrays.fill(Qi, 0.0);
+      Arrays.fill(Qj, 0.0);
+      Arrays.fill(pi, 0.0);
+      Arrays.fill(pj, 0.0);
       //int hi = (int)OverloadInElement_[nQ][QH_];
       // load element
       int el = (int)OverloadInElement_[i][QE_];
@@ -1754,7 +1946,7 @@ switch(selectedOF){
 
     int vi, vj;
     double xi, xj, yi, yj, zi, zj;
-    double [][]R = new double [numberOfLibertyDegree_][numberOfLibertyDegree_];
+    double [][]R = r_;
 
     //longitud de la barra en coordenadas locales
     // double lij = Math.sqrt(Math.pow((xj - xi), 2.0) + Math.pow((yj - yi), 2.0) + Math.pow((zj - zi), 2.0));
@@ -2054,13 +2246,13 @@ switch(selectedOF){
 
     //para el extremo ii
     //pi = (Rpij * Rij) * Qi
-    R = EBEsMatrizMultiplicar(Rpij, Rij);
-    pi = EBEsMatrizVectorMultiplicar(R, Qi);
+    EBEsMatrizMultiplicar(Rpij, Rij, R);
+    EBEsMatrizVectorMultiplicar(R, Qi, pi);
 
     //para el extremo jj
     //pj = ( Rpji * Rji) * Qj
-    R = EBEsMatrizMultiplicar(Rpji, Rji);
-    pj= EBEsMatrizVectorMultiplicar(R, Qj);
+    EBEsMatrizMultiplicar(Rpji, Rji, R);
+    EBEsMatrizVectorMultiplicar(R, Qj, pj);
   }
 
   public void EBEsMatRot3DLpSaL(int e){
@@ -2117,7 +2309,7 @@ switch(selectedOF){
     Rpij[5][3] = lz; Rpij[5][4] = mz; Rpij[5][5] = nz;
 
     //trasponer la matriz de rotaciÃ³n
-    RpTij = EBEsMatrizTraspuesta(Rpij);
+    EBEsMatrizTraspuesta(Rpij, RpTij);
 
     //para el nudo j de la barra ij
     lx = 1.0;
@@ -2150,15 +2342,22 @@ switch(selectedOF){
     Rpji[5][3] = lz; Rpji[5][4] = mz; Rpji[5][5] = nz;
 
     //trasponer la matriz de rotaciÃ³n
-    RpTji = EBEsMatrizTraspuesta(Rpji);
+    EBEsMatrizTraspuesta(Rpji, RpTji);
 
   }
 
   public double [][]EBEsMatrizTraspuesta(double m[][]){
 
+    double[][] mt = new double [m.length][m[0].length];
+    EBEsMatrizTraspuesta(m, mt);
+    return mt;
+  }
+
+  // transpone m en mt, sin reservar memoria
+  public void EBEsMatrizTraspuesta(double m[][], double mt[][]){
+
     int row=m.length;
     int col=m[0].length;
-    double[][] mt = new double [row][col];
 
     for(int i = 0; i< row; i++){
       // cantidad de elementos de la 1ra dimensiÃ³n
@@ -2167,10 +2366,44 @@ switch(selectedOF){
         mt[j][i] = m[i][j];
       }
     }
+  }
 
-    return mt;
+  // builds the penalized stiffness matrix of the structure
+  public void EBEsMatrixGlobal(int countIter) throws JMException{
+
+    Arrays.fill(MatrixStiffness_, 0.0);
+
+    EBEsMatrixGlobalFactory(countIter);
+
+    EBEsMatrixGlobalPenalization();
+  }
+
+  // factorizes the penalized stiffness matrix, for EBEsEcuationSubstitution
+  public void EBEsEcuationFactorization(){
+
+    BandedCholesky.factorize(MatrixStiffness_, numberOfLibertyDegree_ * numberOfNodes_, matrixWidthBand_);
   }
 
+  // solves the displacements of a load hypothesis with the factorized stiffness matrix; the
+  // loads of the hypothesis are replaced by the displacements, as in EBEsEcuationSolution
+  public void EBEsEcuationSubstitution(int hi){
+
+    int n2 = numberOfLibertyDegree_ * numberOfNodes_;
+    if(Load_ == null){
+      Load_ = new double [n2];
+    }
+    for(int i=0; i<n2; i++){
+      Load_[i] = DisplacementNodes_[i][hi];
+    }
+    BandedCholesky.solve(MatrixStiffness_, n2, matrixWidthBand_, Load_);
+    for(int i=0; i<n2; i++){
+      DisplacementNodes_[i][hi] = Load_[i];
+    }
+  }
+
+  // solves a load hypothesis by gaussian elimination of the stiffness matrix and the loads together
+  // (EBEsEcuationFactorization and EBEsEcuationSubstitution give the same displacements, factorizing
+  // the matrix only once for all the hypotheses)
   public void EBEsEcuationSolution(int hi) throws JMException{
 
     // Formacion del sistema de ecuaciones
@@ -3200,7 +3433,7 @@ switch(selectedOF){
     Rij[5][3] = lz; Rij[5][4] = mz; Rij[5][5] = nz;
 
     // trasponer la matriz de rotaciÃ³n
-    RTij = EBEsMatrizTraspuesta(Rij);
+    EBEsMatrizTraspuesta(Rij, RTij);
 
     // matriz de rotaciÃ³n de desplazamientos locales a ejes globales XYZ si los ejes principales de la
     // secciÃ³n "yp,zp" coinciden con los ejes locales "y,z" de la barra
@@ -3223,44 +3456,44 @@ switch(selectedOF){
     Rji[5][3]= lz; Rji[5][4]= mz; Rji[5][5]= nz;
 
     // trasponer la matriz de rotaciÃ³n
-    RTji=EBEsMatrizTraspuesta(Rji);
+    EBEsMatrizTraspuesta(Rji, RTji);
 
   }
 
   public void EBEsMat3DGij() throws JMException{
     // CONSTRUYE LA MATRIZ DE RIGIDEZ DE UNA BARRA EN COORDENADAS GLOBALES
 
-    double [][]r=new double[numberOfLibertyDegree_][numberOfLibertyDegree_];
-    double [][]s=new double[numberOfLibertyDegree_][numberOfLibertyDegree_];
-    double [][]t=new double[numberOfLibertyDegree_][numberOfLibertyDegree_];
+    double [][]r=r_;
+    double [][]s=s_;
+    double [][]t=t_;
 
     // para el extremo ii
     // KGii = RTij * RpTij * KjjSOGSOGSOG * Rpij * Rij
-    r=EBEsMatrizMultiplicar(Rpij, Rij);
-    s=EBEsMatrizMultiplicar(Kii, r);
-    t=EBEsMatrizMultiplicar(RpTij, s);
-    KGii=EBEsMatrizMultiplicar(RTij, t);
+    EBEsMatrizMultiplicar(Rpij, Rij, r);
+    EBEsMatrizMultiplicar(Kii, r, s);
+    EBEsMatrizMultiplicar(RpTij, s, t);
+    EBEsMatrizMultiplicar(RTij, t, KGii);
 
     // para el extremo ij
     // KGij = RTij * RpTij * Kij * Rpji * Rji
-    r=EBEsMatrizMultiplicar(Rpji, Rji);
-    s=EBEsMatrizMultiplicar(Kij, r);
-    t=EBEsMatrizMultiplicar(RpTij, s);
-    KGij=EBEsMatrizMultiplicar(RTij, t);
+    EBEsMatrizMultiplicar(Rpji, Rji, r);
+    EBEsMatrizMultiplicar(Kij, r, s);
+    EBEsMatrizMultiplicar(RpTij, s, t);
+    EBEsMatrizMultiplicar(RTij, t, KGij);
 
     // para el extremo ji
     // KGji = RTji * RpTji * Kji * Rpij * Rij
-    r=EBEsMatrizMultiplicar(Rpij, Rij);
-    s=EBEsMatrizMultiplicar(Kji, r);
-    t=EBEsMatrizMultiplicar(RpTji, s);
-    KGji=EBEsMatrizMultiplicar(RTji, t);
+    EBEsMatrizMultiplicar(Rpij, Rij, r);
+    EBEsMatrizMultiplicar(Kji, r, s);
+    EBEsMatrizMultiplicar(RpTji, s, t);
+    EBEsMatrizMultiplicar(RTji, t, KGji);
 
     // para el extremo jj
     // KGjj = RTji * RpTji * Kjj* Rpji * Rji
-    r=EBEsMatrizMultiplicar(Rpji, Rji);
-    s=EBEsMatrizMultiplicar(Kjj, r);
-    t=EBEsMatrizMultiplicar(RpTji, s);
-    KGjj=EBEsMatrizMultiplicar(RTji, t);
+    EBEsMatrizMultiplicar(Rpji, Rji, r);
+    EBEsMatrizMultiplicar(Kjj, r, s);
+    EBEsMatrizMultiplicar(RpTji, s, t);
+    EBEsMatrizMultiplicar(RTji, t, KGjj);
 
   } // end module
 
@@ -3401,8 +3634,16 @@ switch(selectedOF){
 
   public double []EBEsMatrizVectorMultiplicar(double [][]s, double[]t) throws JMException{
 
-    int f, c;
     double []r = new double [t.length];
+    EBEsMatrizVectorMultiplicar(s, t, r);
+    return r;
+
+  } // end module
+
+  // multiplica s por t en r, sin reservar memoria (r no puede ser t)
+  public void EBEsMatrizVectorMultiplicar(double [][]s, double[]t, double[]r) throws JMException{
+
+    int f, c;
 
     for(f =0; f<s.length; f++){ // cantidad de elementos de la 1ra dimensiÃ³n
       r[f] = 0;
@@ -3411,14 +3652,20 @@ switch(selectedOF){
       } // next c
     }// next f
 
+  } // end module
+
+  public double [][]EBEsMatrizMultiplicar(double [][]s, double[][]t) throws JMException{
+
+    double [][]r = new double [s.length][t[0].length];
+    EBEsMatrizMultiplicar(s, t, r);
     return r;
 
   } // end module
 
-  public double [][]EBEsMatrizMultiplicar(double [][]s, double[][]t) throws JMException{
+  // multiplica s por t en r, sin reservar memoria (r no puede ser s ni t)
+  public void EBEsMatrizMultiplicar(double [][]s, double[][]t, double[][]r) throws JMException{
 
     int f, c, q;
-    double [][]r = new double [s.length][t[0].length];
 
     for(f=0; f<s.length; f++){ // cantidad de elementos de la 1ra dimensiÃ³n
       for(c=0; c<s[f].length; c++){ //cantidad de elementos de la 2ra dimensiÃ³n
@@ -3429,13 +3676,18 @@ switch(selectedOF){
       } // Next c
     } // Next f
 
-    return r;
-
   } // end module
 
   public double [][]EBEsMatrixAdd(double [][]s, double[][]t) throws JMException{
 
 	    double [][]r = new double [s.length][t[0].length];
+	    EBEsMatrixAdd(s, t, r);
+	    return r;
+
+	  } // end module
+
+  // suma s y t en r, sin reservar memoria (r puede ser s o t)
+  public void EBEsMatrixAdd(double [][]s, double[][]t, double[][]r) throws JMException{
 
 	    for(int f=0; f<s.length; f++){ // cantidad de elementos de la 1ra dimensiÃ³n
 	      for(int c=0; c<t.length; c++){ //cantidad de elementos de la 2ra dimensiÃ³n
@@ -3443,8 +3695,6 @@ switch(selectedOF){
 	      } // Next c
 	    } // Next f
 
-	    return r;
-
 	  } // end module
   
   public double [][]EBEsMatrixSubtractions(double [][]s, double[][]t) throws JMException{
@@ -3536,20 +3786,18 @@ switch(selectedOF){
 
       if(lSecondOrderGeometric && countIter==1){
         EBEsMat3DL_SOG(ba);
-        Kii=EBEsMatrixAdd(Kii, KiiSOG);
-        Kij=EBEsMatrixAdd(Kij, KijSOG);
-        Kji=EBEsMatrixAdd(Kji, KjiSOG);
-        Kjj=EBEsMatrixAdd(Kjj, KjjSOG);
+        EBEsMatrixAdd(Kii, KiiSOG, Kii);
+        EBEsMatrixAdd(Kij, KijSOG, Kij);
+        EBEsMatrixAdd(Kji, KjiSOG, Kji);
+        EBEsMatrixAdd(Kjj, KjjSOG, Kjj);
       }
 
-      double [][] r  = new double[numberOfLibertyDegree_][numberOfLibertyDegree_];
-      double [][] s  = new double[numberOfLibertyDegree_][numberOfLibertyDegree_];
-      double   []di  = new double[numberOfLibertyDegree_];
-      double   []dj  = new double[numberOfLibertyDegree_];
-      double   []eii = new double[numberOfLibertyDegree_];
-      double   []eij = new double[numberOfLibertyDegree_];
-      double   []eji = new double[numberOfLibertyDegree_];
-      double   []ejj = new double[numberOfLibertyDegree_];
+      double [][] r  = r_;
+      double [][] s  = s_;
+      double   []di  = di_;
+      double   []dj  = dj_;
+      double   []e1  = ei_;
+      double   []e2  = ej_;
 
       // matriz de rotaciÃ³n de la barra del sistema principal al local
       EBEsMatRot3DLpSaL(ba);
@@ -3566,31 +3814,32 @@ switch(selectedOF){
 
       // para el extremo ii
       // eii = (Kii * Rpij * Rij) * Di
-      r=EBEsMatrizMultiplicar(Rpij, Rij);
-      s=EBEsMatrizMultiplicar(Kii, r);
-      eii=EBEsMatrizVectorMultiplicar(s, di);
+      EBEsMatrizMultiplicar(Rpij, Rij, r);
+      EBEsMatrizMultiplicar(Kii, r, s);
+      EBEsMatrizVectorMultiplicar(s, di, e1);
 
       // para el extremo ij
       // eij = (Kij * Rpji * Rji) * Dj
-      r=EBEsMatrizMultiplicar(Rpji, Rji);
-      s=EBEsMatrizMultiplicar(Kij, r);
-      eij=EBEsMatrizVectorMultiplicar(s, dj);
+      EBEsMatrizMultiplicar(Rpji, Rji, r);
+      EBEsMatrizMultiplicar(Kij, r, s);
+      EBEsMatrizVectorMultiplicar(s, dj, e2);
+      for(i=0; i<numberOfLibertyDegree_; i++){
+        Efforti_[i][ba][hi] = e1[i] + e2[i];
+      } //i
 
       // para el extremo ji
       // eji =(Kji * Rpij * Rij) * Di
-      r=EBEsMatrizMultiplicar(Rpij, Rij);
-      s=EBEsMatrizMultiplicar(Kji, r);
-      eji=EBEsMatrizVectorMultiplicar(s, di);
+      EBEsMatrizMultiplicar(Rpij, Rij, r);
+      EBEsMatrizMultiplicar(Kji, r, s);
+      EBEsMatrizVectorMultiplicar(s, di, e1);
 
       // para el extremo jj
       // ejj= (Kjj * Rpji * Rji) * Dj
-      r=EBEsMatrizMultiplicar(Rpji, Rji);
-      s=EBEsMatrizMultiplicar(Kjj, r);
-      ejj=EBEsMatrizVectorMultiplicar(s, dj);
-
+      EBEsMatrizMultiplicar(Rpji, Rji, r);
+      EBEsMatrizMultiplicar(Kjj, r, s);
+      EBEsMatrizVectorMultiplicar(s, dj, e2);
       for(i=0; i<numberOfLibertyDegree_; i++){
-        Efforti_[i][ba][hi] = eii[i] + eij[i];
-        Effortj_[i][ba][hi] = eji[i] + ejj[i];
+        Effortj_[i][ba][hi] = e1[i] + e2[i];
       } //i
     }// ba
   } // end module
@@ -3651,11 +3900,20 @@ switch(selectedOF){
   }
 
   public double [][][]EBEsStrainNode(double [][][]E) throws JMException{
+    double [][][]Strain = new double [3][numberOfElements_][numberOfWeigthHypothesis_];
+    EBEsStrainNode(E, Strain);
+    return Strain;
+  }
+
+  /**
+   * Computes the strains in an extreme of every element from its efforts, into a given array
+   */
+  public void EBEsStrainNode(double [][][]E, double [][][]Strain) throws JMException{
 
+    clear(Strain);
 // [0]: TensiÃ³n normal de compresiÃ³n
 // [1]: TensiÃ³n normal de tracciÃ³n
 // [2]: TensiÃ³n tangencial
-    double [][][]Strain = new double [3][numberOfElements_][numberOfWeigthHypothesis_];
     double z, y;
     double ez, ey;
     double  A, Iz, Iy, It;
@@ -3793,8 +4051,6 @@ switch(selectedOF){
         }
       } // next ba
     } // next hi
-
-    return Strain;
   }
 
  public double BucklingOmega(double Nxx, double[] G, double[] B) throws JMException{
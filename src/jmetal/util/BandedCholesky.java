@@ -0,0 +1,106 @@
+//  BandedCholesky.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+/**
+ * Root-free (LDL') Cholesky factorization of a symmetric band matrix, solving any number of right
+ * hand sides by substitution once the matrix is factorized. The upper half of the band is stored by
+ * rows in a flat array: the element (i, i + k) of the matrix, 0 <= k < width, is at i * width + k
+ * (the layout of the stiffness matrix of EBEs). The factorization overwrites the band with U = D L',
+ * row i holding the pivot d(i) and the multipliers scaled by it, which is what the banded gaussian
+ * elimination of EBEs computes, so solving gives the same values as eliminating each right hand side
+ * together with the matrix.
+ * Supports penalized by a huge diagonal value (at least RIGID) are not eliminated, and rows with a null
+ * pivot are skipped, as in the elimination of EBEs.
+ */
+public final class BandedCholesky {
+
+  /**
+   * Smallest diagonal value of a penalized (rigid) degree of freedom
+   */
+  public static final double RIGID = 1.0E+25 ;
+
+  /**
+   * Pivots whose absolute value does not exceed this one are taken as null when substituting
+   */
+  public static final double NULL_PIVOT = 1.0E-35 ;
+
+  private BandedCholesky() {
+  } // BandedCholesky
+
+  /**
+   * Factorizes a band matrix in place
+   * @param band Upper half of the band, by rows
+   * @param n Order of the matrix
+   * @param width Width of the band, including the diagonal
+   */
+  public static void factorize(double [] band, int n, int width) {
+    for (int i = 0; i < n - 1; i++) {
+      int row = i * width ;
+      double pivot = band[row] ;
+      if ((pivot >= RIGID) || (pivot == 0))
+        continue ;
+      int last = Math.min(width, n - i) ;
+      for (int k = 1; k < last; k++) {
+        double t = band[row + k] / pivot ;
+        int target = (i + k) * width ;
+        for (int m = 0; m < width - k; m++)
+          band[target + m] = band[target + m] - t * band[row + k + m] ;
+      } // for
+    } // for
+  } // factorize
+
+  /**
+   * Solves the system of a factorized matrix for a right hand side
+   * @param band Band factorized by <code>factorize</code>
+   * @param n Order of the matrix
+   * @param width Width of the band, including the diagonal
+   * @param x Right hand side, replaced by the solution
+   */
+  public static void solve(double [] band, int n, int width, double [] x) {
+    // Forward substitution, with the multipliers of the factorization
+    for (int i = 0; i < n - 1; i++) {
+      int row = i * width ;
+      double pivot = band[row] ;
+      if ((pivot >= RIGID) || (pivot == 0))
+        continue ;
+      int last = Math.min(width, n - i) ;
+      for (int k = 1; k < last; k++) {
+        double t = band[row + k] / pivot ;
+        x[i + k] = x[i + k] - t * x[i] ;
+      } // for
+    } // for
+
+    // Back substitution
+    for (int i = n - 1; i >= 0; i--) {
+      int row = i * width ;
+      int last = Math.min(width, n - i) ;
+      double sum = 0.0 ;
+      for (int k = 1; k < last; k++)
+        sum = sum + x[i + k] * band[row + k] ;
+      if (Math.abs(band[row]) <= NULL_PIVOT)
+        x[i] = NULL_PIVOT ;
+      else
+        x[i] = (x[i] - sum) / band[row] ;
+    } // for
+  } // solve
+} // BandedCholesky
@@ -30,32 +30,84 @@ public class PseudoRandom  {
    * generator used to obtain the random values
    */
   private static IRandomGenerator random_ = null;
-  private static RandomGenerator defaultGenerator_ = new RandomGenerator() ;
+
+  /**
+   * Generator used by the current thread instead of the global one, if any
+   */
+  private static final ThreadLocal<IRandomGenerator> threadRandom_ = new ThreadLocal<IRandomGenerator>() ;
+
+  /**
+   * Streams used when no generator has been set: every thread gets its own stream, split from a
+   * root stream, so that threads never contend on a shared generator
+   */
+  private static final SplittableRandomGenerator root_ = new SplittableRandomGenerator(System.nanoTime()) ;
+  private static final ThreadLocal<IRandomGenerator> defaultRandom_ = new ThreadLocal<IRandomGenerator>() {
+    protected IRandomGenerator initialValue() {
+      synchronized (root_) {
+        return root_.split() ;
+      }
+    }
+  } ;
                
   /** 
    * Constructor.
    * Creates a new instance of PseudoRandom.
    */
   private PseudoRandom() {
-    if (random_ == null){
-      //this.random = new java.util.Random((long)seed);
-      random_ = new RandomGenerator();
-    }
+    //this.random = new java.util.Random((long)seed);
   } // PseudoRandom
     
   public static void setRandomGenerator(IRandomGenerator generator) {
   	random_ = generator ;
   }
+
+  /**
+   * Sets the generator used by the calling thread, so that threads running in parallel
+   * neither share nor contend on the global generator.
+   * @param generator The generator, or null to go back to the global one
+   */
+  public static void setThreadRandomGenerator(IRandomGenerator generator) {
+    if (generator == null)
+      threadRandom_.remove() ;
+    else
+      threadRandom_.set(generator) ;
+  } // setThreadRandomGenerator
+
+  /**
+   * Makes the calling thread use the stream of a run, so that the run can be replayed
+   * @param seed Seed of the experiment
+   * @param run Id of the run
+   */
+  public static void setRun(long seed, long run) {
+    setThreadRandomGenerator(new SplittableRandomGenerator(seed, run)) ;
+  } // setRun
+
+  /**
+   * Returns the generator used by the calling thread (e.g. to store its state in a checkpoint)
+   */
+  public static IRandomGenerator getRandomGenerator() {
+    return generator() ;
+  } // getRandomGenerator
+
+  /**
+   * Returns the generator of the calling thread, the global one if it has none, or else the default
+   * stream of the thread
+   */
+  private static IRandomGenerator generator() {
+    IRandomGenerator generator = threadRandom_.get() ;
+    if (generator != null)
+      return generator ;
+    if (random_ != null)
+      return random_ ;
+    return defaultRandom_.get() ;
+  } // generator
   
   /** 
    * Returns a random int value using the Java random generator.
    * @return A random int value.
    */
   public static int randInt() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return random_.nextInt(Integer.MAX_VALUE);
+    return generator().nextInt(Integer.MAX_VALUE);
   } // randInt
     
   /** 
@@ -63,11 +115,8 @@ public class PseudoRandom  {
    * Returns A random double value.
    */
   public static double randDouble() {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
     //return random_.rndReal(0.0,1.0);
-    return random_.nextDouble();
+    return generator().nextDouble();
     //return randomJava.nextDouble();
   } // randDouble
     
@@ -79,10 +128,7 @@ public class PseudoRandom  {
    * Return A pseudo random int value between minBound and maxBound.
    */
   public static int randInt(int minBound, int maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextInt(maxBound-minBound);
+    return minBound + generator().nextInt(maxBound-minBound);
     //return minBound + randomJava.nextInt(maxBound-minBound+1);
   } // randInt
     
@@ -93,10 +139,7 @@ public class PseudoRandom  {
    * @return A pseudo random double value between minBound and maxBound
    */
   public static double randDouble(double minBound, double maxBound) {
-    if (random_ == null) {
-      random_ = defaultGenerator_ ;
-    }
-    return minBound + random_.nextDouble() * (maxBound-minBound);
+    return minBound + generator().nextDouble() * (maxBound-minBound);
     //return minBound + (maxBound - minBound)*randomJava.nextDouble();
   } // randDouble    
 } // PseudoRandom
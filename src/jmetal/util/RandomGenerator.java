@@ -45,6 +45,15 @@ public class RandomGenerator implements IRandomGenerator{
     this.randomize();
   } // RandomGenerator
 
+  /**
+   * Constructor
+   * @param seed Seed of the generator, in (0, 1)
+   */
+  public RandomGenerator(double seed){
+    this.seed = seed;
+    this.randomize();
+  } // RandomGenerator
+
   /* Get seed number for random and start it up */
   void randomize(){
     int j1;
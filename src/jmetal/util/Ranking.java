@@ -21,10 +21,15 @@
 
 package jmetal.util;
 
+import jmetal.core.Solution;
 import jmetal.core.SolutionSet;
 import jmetal.util.comparators.DominanceComparator;
 import jmetal.util.comparators.OverallConstraintViolationComparator;
+import jmetal.util.ranking.BiObjectiveSorting;
+import jmetal.util.ranking.EfficientNonDominatedSorting;
+import jmetal.util.ranking.INonDominatedSorting;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -62,13 +67,110 @@ public class Ranking {
    */
   private static final Comparator constraint_ = new OverallConstraintViolationComparator();
     
+  /**
+   * Engines used for feasible solutions with two and with more objectives
+   */
+  private static final INonDominatedSorting biObjectiveSorting_ = new BiObjectiveSorting() ;
+  private static final INonDominatedSorting efficientSorting_ = new EfficientNonDominatedSorting() ;
+
   /** 
-   * Constructor.
+   * Constructor. The sorting engine is chosen according to the number of objectives.
    * @param solutionSet The <code>SolutionSet</code> to be ranked.
    */       
   public Ranking(SolutionSet solutionSet) {        
+    this(solutionSet, null) ;
+  } // Ranking
+
+  /** 
+   * Constructor.
+   * @param solutionSet The <code>SolutionSet</code> to be ranked.
+   * @param sorting Engine used to sort the feasible solutions (null - the fastest one for the
+   * number of objectives)
+   */       
+  public Ranking(SolutionSet solutionSet, INonDominatedSorting sorting) {        
     solutionSet_ = solutionSet ;
 
+    int size = solutionSet_.size() ;
+    if (size == 0) {
+      ranking_ = new SolutionSet[0] ;
+      return ;
+    } // if
+    int numberOfObjectives = solutionSet_.get(0).getNumberOfObjectives() ;
+    if (sorting == null)
+      sorting = (numberOfObjectives == 2) ? biObjectiveSorting_ : efficientSorting_ ;
+
+    // Copy the objectives and constraint violations to primitive arrays. The engines assume
+    // violations are zero or negative and no value is NaN; otherwise the generic sort is used
+    double [][] objectives = new double[size][] ;
+    double [] violation = new double[size] ;
+    for (int p = 0; p < size; p++) {
+      Solution solution = solutionSet_.get(p) ;
+      violation[p] = solution.getOverallConstraintViolation() ;
+      if ((solution.getNumberOfObjectives() != numberOfObjectives) || !(violation[p] <= 0)) {
+        fastNonDominatedSort(solutionSet) ;
+        return ;
+      } // if
+      objectives[p] = new double[numberOfObjectives] ;
+      for (int m = 0; m < numberOfObjectives; m++) {
+        objectives[p][m] = solution.getObjective(m) ;
+        if (Double.isNaN(objectives[p][m])) {
+          fastNonDominatedSort(solutionSet) ;
+          return ;
+        } // if
+      } // for
+    } // for
+
+    // Feasible solutions dominate every infeasible one and are sorted by the engine. Infeasible
+    // solutions are only compared by their violation: every violation level is a front of its own
+    int [] rank = new int[size] ;
+    int [] points = new int[size] ;
+    int feasible = 0 ;
+    int infeasible = size ;
+    for (int p = 0; p < size; p++) {
+      if (violation[p] == 0)
+        points[feasible++] = p ;
+      else
+        points[--infeasible] = p ;
+    } // for
+    int numberOfFronts = sorting.sort(objectives, points, feasible, rank) ;
+
+    if (infeasible < size) {
+      double [] levels = new double[size - infeasible] ;
+      for (int i = infeasible; i < size; i++)
+        levels[i - infeasible] = violation[points[i]] ;
+      Arrays.sort(levels) ;
+      int numberOfLevels = 0 ;
+      for (int i = 0; i < levels.length; i++)
+        if ((numberOfLevels == 0) || (levels[i] != levels[numberOfLevels - 1]))
+          levels[numberOfLevels++] = levels[i] ;
+      // The least violated level (the highest one) comes first
+      for (int i = infeasible; i < size; i++) {
+        int level = Arrays.binarySearch(levels, 0, numberOfLevels, violation[points[i]]) ;
+        rank[points[i]] = numberOfFronts + numberOfLevels - 1 - level ;
+      } // for
+      numberOfFronts += numberOfLevels ;
+    } // if
+
+    // Build the fronts, keeping the solutions in their original order
+    int [] frontSize = new int[numberOfFronts] ;
+    for (int p = 0; p < size; p++)
+      frontSize[rank[p]]++ ;
+    ranking_ = new SolutionSet[numberOfFronts] ;
+    for (int j = 0; j < numberOfFronts; j++)
+      ranking_[j] = new SolutionSet(frontSize[j]) ;
+    for (int p = 0; p < size; p++) {
+      Solution solution = solutionSet_.get(p) ;
+      solution.setRank(rank[p]) ;
+      ranking_[rank[p]].add(solution) ;
+    } // for
+  } // Ranking
+
+  /**
+   * Generic fast non-dominated sorting based on the comparators, used when the values of the
+   * solutions do not allow the specialised engines
+   */
+  private void fastNonDominatedSort(SolutionSet solutionSet) {
+
     // dominateMe[i] contains the number of solutions dominating i        
     int [] dominateMe = new int[solutionSet_.size()];
 
@@ -179,7 +281,7 @@ public class Ranking {
       }
     }
     
-  } // Ranking
+  } // fastNonDominatedSort
 
   /**
    * Returns a <code>SolutionSet</code> containing the solutions of a given rank. 
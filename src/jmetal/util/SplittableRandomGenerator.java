@@ -0,0 +1,132 @@
+//  SplittableRandomGenerator.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util;
+
+/**
+ * Xoshiro256** generator whose state is initialized with SplitMix64. It is not synchronized: every
+ * thread (or run) is meant to own its stream, which can be derived deterministically from a seed and
+ * a stream id (e.g. the index of an independent run) or split from another stream.
+ * Like RandomGenerator, <code>nextInt(upperBound)</code> returns a value in [0, upperBound].
+ */
+public class SplittableRandomGenerator implements IRandomGenerator {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long s0_, s1_, s2_, s3_;
+
+  /**
+   * Constructor
+   * @param seed Seed of the stream
+   */
+  public SplittableRandomGenerator(long seed) {
+    long x = seed;
+    s0_ = mix(x += GOLDEN_GAMMA);
+    s1_ = mix(x += GOLDEN_GAMMA);
+    s2_ = mix(x += GOLDEN_GAMMA);
+    s3_ = mix(x += GOLDEN_GAMMA);
+  } // SplittableRandomGenerator
+
+  /**
+   * Constructor of the stream with a given id derived from a seed. Different ids give independent
+   * streams, and the same (seed, id) pair always gives the same stream
+   * @param seed Seed, e.g. the one of an experiment
+   * @param stream Id of the stream, e.g. the index of a run
+   */
+  public SplittableRandomGenerator(long seed, long stream) {
+    this(mix(seed) ^ mix(mix(stream + GOLDEN_GAMMA)));
+  } // SplittableRandomGenerator
+
+  /**
+   * Returns a new stream, independent of this one, advancing this one
+   */
+  public SplittableRandomGenerator split() {
+    return new SplittableRandomGenerator(nextLong());
+  } // split
+
+  /**
+   * Returns the state of the stream, from which <code>setState</code> makes it continue
+   */
+  public long [] getState() {
+    return new long[] {s0_, s1_, s2_, s3_};
+  } // getState
+
+  /**
+   * Restores a state returned by <code>getState</code>
+   */
+  public void setState(long [] state) {
+    s0_ = state[0];
+    s1_ = state[1];
+    s2_ = state[2];
+    s3_ = state[3];
+  } // setState
+
+  /**
+   * Returns a random long value
+   */
+  public long nextLong() {
+    long result = Long.rotateLeft(s1_ * 5, 7) * 9;
+    long t = s1_ << 17;
+    s2_ ^= s0_;
+    s3_ ^= s1_;
+    s1_ ^= s2_;
+    s0_ ^= s3_;
+    s2_ ^= t;
+    s3_ = Long.rotateLeft(s3_, 45);
+    return result;
+  } // nextLong
+
+  /**
+   * Returns a random int value in [0, upperBound] (0 if upperBound is not positive)
+   */
+  public int nextInt(int upperBound) {
+    if (upperBound <= 0)
+      return 0;
+    long bound = (long) upperBound + 1;
+    // Lemire's multiply-and-reject on the upper 32 bits, so that the values are unbiased
+    long m = (nextLong() >>> 32) * bound;
+    long low = m & 0xffffffffL;
+    if (low < bound) {
+      long threshold = (0x100000000L - bound) % bound;
+      while (low < threshold) {
+        m = (nextLong() >>> 32) * bound;
+        low = m & 0xffffffffL;
+      } // while
+    } // if
+    return (int) (m >>> 32);
+  } // nextInt
+
+  /**
+   * Returns a random double value in [0, 1)
+   */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  } // nextDouble
+
+  /**
+   * SplitMix64 finalizer
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  } // mix
+} // SplittableRandomGenerator
@@ -0,0 +1,149 @@
+//  CVRPTWBenchmark.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.operators.crossover.PMXCrossoverArrayInt;
+import jmetal.operators.mutation.ExchangeMutation;
+import jmetal.problems.CVRPTW;
+import jmetal.util.Distance;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.Ranking;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Benchmarks of the hot path of the CVRPTW runs: evaluation (full and after a mutation), constraint
+ * evaluation, PMX crossover, exchange mutation, ranking and crowding distance of a 2N union, and
+ * solution copying. Results can be written to a CSV file to compare them between commits.
+ * Usage:
+ *      - jmetal.util.benchmark.CVRPTWBenchmark [-quick] [-csv file] [instance ...]
+ * where the instances are names of files in src/jmetal/data/CVRPTW without extension (by default
+ * the 100-customer C101, R101 and RC101 and the 1000-customer C110_1, R110_1 and RC110_1).
+ */
+public class CVRPTWBenchmark {
+
+  private static final String [] DEFAULT_INSTANCES = {"C101", "R101", "RC101", "C110_1", "R110_1", "RC110_1"} ;
+  private static final int POPULATION_SIZE = 100 ;
+
+  public static void main(String [] args) throws JMException, ClassNotFoundException, FileNotFoundException {
+    MicroBenchmark harness = new MicroBenchmark(5, 5, 1000) ;
+    String csvFile = null ;
+    List<String> instances = new ArrayList<String>() ;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-quick"))
+        harness = new MicroBenchmark(3, 3, 300) ;
+      else if (args[i].equals("-csv"))
+        csvFile = args[++i] ;
+      else
+        instances.add(args[i]) ;
+    } // for
+    if (instances.isEmpty())
+      for (String instance : DEFAULT_INSTANCES)
+        instances.add(instance) ;
+
+    List<MicroBenchmark.Result> results = new ArrayList<MicroBenchmark.Result>() ;
+    System.out.println(MicroBenchmark.HEADER) ;
+    for (String instance : instances) {
+      for (MicroBenchmark.Result result : run(harness, instance)) {
+        System.out.println(result) ;
+        results.add(result) ;
+      } // for
+    } // for
+
+    if (csvFile != null) {
+      PrintWriter writer = new PrintWriter(csvFile) ;
+      writer.println(MicroBenchmark.CSV_HEADER) ;
+      for (MicroBenchmark.Result result : results)
+        writer.println(result.toCSV()) ;
+      writer.close() ;
+    } // if
+  } // main
+
+  /**
+   * Runs every benchmark on an instance
+   */
+  private static List<MicroBenchmark.Result> run(MicroBenchmark harness, String instance)
+      throws JMException, ClassNotFoundException {
+    List<MicroBenchmark.Result> results = new ArrayList<MicroBenchmark.Result>() ;
+    PseudoRandom.setRun(0, 0) ;
+
+    final CVRPTW problem = new CVRPTW(instance + ".txt") ;
+
+    // A 2N union of evaluated solutions, as ranked by NSGA-II every generation
+    final SolutionSet union = new SolutionSet(2 * POPULATION_SIZE) ;
+    for (int i = 0; i < 2 * POPULATION_SIZE; i++) {
+      Solution solution = new Solution(problem) ;
+      problem.evaluate(solution) ;
+      problem.evaluateConstraints(solution) ;
+      union.add(solution) ;
+    } // for
+    final Solution parent1 = union.get(0) ;
+    final Solution parent2 = union.get(1) ;
+    final Solution target = new Solution(parent1) ;
+    final ArrayInt tour = (ArrayInt) target.getDecisionVariables()[0] ;
+
+    HashMap parameters = new HashMap() ;
+    parameters.put("probability", 1.0) ;
+    final PMXCrossoverArrayInt crossover = new PMXCrossoverArrayInt(parameters) ;
+    final ExchangeMutation mutation = new ExchangeMutation(parameters) ;
+    final Distance distance = new Distance() ;
+
+    results.add(harness.run("CVRPTW.evaluate", instance, () -> {
+      tour.setRouteCache(null) ;
+      problem.evaluate(target) ;
+      return target ;
+    })) ;
+    results.add(harness.run("CVRPTW.evaluate.incremental", instance, () -> {
+      mutation.doMutation(1.0, target) ;
+      problem.evaluate(target) ;
+      return target ;
+    })) ;
+    results.add(harness.run("CVRPTW.evaluateConstraints", instance, () -> {
+      tour.setRouteCache(null) ;
+      problem.evaluateConstraints(target) ;
+      return target ;
+    })) ;
+    results.add(harness.run("PMXCrossover.doCrossover", instance,
+        () -> crossover.doCrossover(1.0, parent1, parent2))) ;
+    results.add(harness.run("ExchangeMutation.doMutation", instance, () -> {
+      mutation.doMutation(1.0, target) ;
+      return target ;
+    })) ;
+    results.add(harness.run("Ranking", instance, () -> new Ranking(union))) ;
+    results.add(harness.run("Distance.crowding", instance, () -> {
+      distance.crowdingDistanceAssignment(union, problem.getNumberOfObjectives()) ;
+      return union ;
+    })) ;
+    results.add(harness.run("Solution.copy", instance, () -> new Solution(parent1))) ;
+
+    PseudoRandom.setThreadRandomGenerator(null) ;
+    return results ;
+  } // run
+} // CVRPTWBenchmark
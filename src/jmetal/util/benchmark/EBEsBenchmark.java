@@ -0,0 +1,154 @@
+//  EBEsBenchmark.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import jmetal.core.Solution;
+import jmetal.problems.EBEs;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmarks of the structural analysis of EBEs: assembly of the penalized stiffness matrix, solution
+ * of a number of load hypotheses by gaussian elimination of the matrix with each hypothesis
+ * (EBEsEcuationSolution) and by factorizing the matrix once and substituting every hypothesis
+ * (EBEsEcuationFactorization and EBEsEcuationSubstitution), and a whole evaluation. Before measuring
+ * it checks that both solutions give the same displacements, solving every hypothesis of the structure
+ * and as many solutions as the largest number of hypotheses benchmarked. The structure is the one EBEs
+ * reads, named by the file EBEs.txt of the working directory. Results can be written to a CSV file.
+ * Usage:
+ *      - jmetal.util.benchmark.EBEsBenchmark [-quick] [-csv file] [hypotheses ...]
+ * where the hypotheses are the numbers of load hypotheses solved per operation (by default 1 and 4).
+ */
+public class EBEsBenchmark {
+
+  private static final int [] DEFAULT_HYPOTHESES = {1, 4} ;
+
+  public static void main(String [] args) throws JMException, ClassNotFoundException, FileNotFoundException {
+    MicroBenchmark harness = new MicroBenchmark(5, 5, 1000) ;
+    String csvFile = null ;
+    List<Integer> hypotheses = new ArrayList<Integer>() ;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-quick"))
+        harness = new MicroBenchmark(3, 3, 300) ;
+      else if (args[i].equals("-csv"))
+        csvFile = args[++i] ;
+      else
+        hypotheses.add(Integer.valueOf(args[i])) ;
+    } // for
+    if (hypotheses.isEmpty())
+      for (int h : DEFAULT_HYPOTHESES)
+        hypotheses.add(h) ;
+
+    PseudoRandom.setRun(0, 0) ;
+    final EBEs problem = new EBEs("Real") ;
+    final Solution solution = new Solution(problem) ;
+    problem.evaluate(solution) ;
+    problem.evaluateConstraints(solution) ;
+    final EBEs workspace = problem.getWorkspace() ;
+    int n = problem.getNumberOfNodes() * 6 ;
+    System.out.println("Degrees of freedom: " + n + ", width of the band: " + problem.getMatrixWidthBand()) ;
+    int solutions = Math.max(Collections.max(hypotheses), problem.getNumberOfWeigthHypothesis()) ;
+    System.out.println(String.format(Locale.US, "Largest difference of the displacements (%d solutions): %g",
+        solutions, difference(workspace, n, solutions))) ;
+
+    List<MicroBenchmark.Result> results = new ArrayList<MicroBenchmark.Result>() ;
+    System.out.println(MicroBenchmark.HEADER) ;
+    results.add(harness.run("EBEs.assembly", "", () -> {
+      workspace.EBEsMatrixGlobal(0) ;
+      return workspace ;
+    })) ;
+    System.out.println(results.get(results.size() - 1)) ;
+    for (final int h : hypotheses) {
+      results.add(harness.run("EBEs.solve.elimination", "h=" + h, () -> {
+        for (int hi = 0; hi < h; hi++) {
+          workspace.EBEsMatrixGlobal(0) ;
+          workspace.EBEsMatrixWeight(0) ;
+          workspace.EBEsEcuationSolution(0) ;
+        } // for
+        return workspace ;
+      })) ;
+      System.out.println(results.get(results.size() - 1)) ;
+      results.add(harness.run("EBEs.solve.factorized", "h=" + h, () -> {
+        workspace.EBEsMatrixGlobal(0) ;
+        workspace.EBEsEcuationFactorization() ;
+        for (int hi = 0; hi < h; hi++) {
+          workspace.EBEsMatrixWeight(0) ;
+          workspace.EBEsEcuationSubstitution(0) ;
+        } // for
+        return workspace ;
+      })) ;
+      System.out.println(results.get(results.size() - 1)) ;
+    } // for
+    results.add(harness.run("EBEs.evaluate", "", () -> {
+      problem.evaluate(solution) ;
+      problem.evaluateConstraints(solution) ;
+      return solution ;
+    })) ;
+    System.out.println(results.get(results.size() - 1)) ;
+    PseudoRandom.setThreadRandomGenerator(null) ;
+
+    if (csvFile != null) {
+      PrintWriter writer = new PrintWriter(csvFile) ;
+      writer.println(MicroBenchmark.CSV_HEADER) ;
+      for (MicroBenchmark.Result result : results)
+        writer.println(result.toCSV()) ;
+      writer.close() ;
+    } // if
+  } // main
+
+  /**
+   * Returns the largest absolute difference between the displacements given by the elimination and by
+   * the factorization over a number of solutions, which go through the load hypotheses of the structure
+   * in turn. The matrix is factorized once and every solution substitutes on it, so a substitution
+   * damaging the factorization shows up in the next ones
+   */
+  private static double difference(EBEs workspace, int n, int solutions) throws JMException {
+    int hypotheses = workspace.getNumberOfWeigthHypothesis() ;
+    double [][] displacements = new double[solutions][n] ;
+    for (int k = 0; k < solutions; k++) {
+      workspace.EBEsMatrixGlobal(0) ;
+      workspace.EBEsMatrixWeight(k % hypotheses) ;
+      workspace.EBEsEcuationSolution(k % hypotheses) ;
+      for (int i = 0; i < n; i++)
+        displacements[k][i] = workspace.DisplacementNodes(i, k % hypotheses) ;
+    } // for
+
+    workspace.EBEsMatrixGlobal(0) ;
+    workspace.EBEsEcuationFactorization() ;
+    double difference = 0 ;
+    for (int k = 0; k < solutions; k++) {
+      workspace.EBEsMatrixWeight(k % hypotheses) ;
+      workspace.EBEsEcuationSubstitution(k % hypotheses) ;
+      for (int i = 0; i < n; i++)
+        difference = Math.max(difference,
+            Math.abs(displacements[k][i] - workspace.DisplacementNodes(i, k % hypotheses))) ;
+    } // for
+    return difference ;
+  } // difference
+} // EBEsBenchmark
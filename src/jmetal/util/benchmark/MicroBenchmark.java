@@ -0,0 +1,160 @@
+//  MicroBenchmark.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.benchmark;
+
+import jmetal.util.JMException;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Minimal micro-benchmark harness in the spirit of JMH, usable without a build system: every task
+ * runs some warm-up iterations and then timed iterations of fixed length, and the harness reports
+ * its throughput (mean and standard deviation over the iterations) and the bytes allocated per
+ * operation by the benchmarking thread (like the gc profiler of JMH). The results of the tasks are
+ * stored in a volatile field so that the JIT cannot drop the work.
+ */
+public class MicroBenchmark {
+
+  /**
+   * Operation to measure
+   */
+  public interface Task {
+    Object run() throws JMException ;
+  } // Task
+
+  /**
+   * Measurement of a task
+   */
+  public static class Result {
+    public String benchmark_ ;
+    public String parameter_ ;
+    public double opsPerSecond_ ;
+    public double error_ ;
+    public double bytesPerOp_ ;
+    public double allocationRate_ ; // MB/s
+
+    public String toString() {
+      return String.format(Locale.US, "%-28s %-10s %14.1f %12.1f %12.1f %10.1f",
+          benchmark_, parameter_, opsPerSecond_, error_, bytesPerOp_, allocationRate_) ;
+    } // toString
+
+    public String toCSV() {
+      return String.format(Locale.US, "%s,%s,%.3f,%.3f,%.1f,%.3f",
+          benchmark_, parameter_, opsPerSecond_, error_, bytesPerOp_, allocationRate_) ;
+    } // toCSV
+  } // Result
+
+  public static final String HEADER = String.format(Locale.US, "%-28s %-10s %14s %12s %12s %10s",
+      "Benchmark", "Param", "ops/s", "+-", "B/op", "MB/s") ;
+  public static final String CSV_HEADER = "benchmark,param,ops_per_s,error,bytes_per_op,alloc_mb_per_s" ;
+
+  private static volatile Object sink_ ;
+
+  private int warmupIterations_ ;
+  private int measurementIterations_ ;
+  private long iterationNanos_ ;
+  private com.sun.management.ThreadMXBean threads_ ;
+
+  /**
+   * Constructor
+   * @param warmupIterations Number of iterations run before measuring
+   * @param measurementIterations Number of measured iterations
+   * @param iterationMillis Length of every iteration
+   */
+  public MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+    warmupIterations_ = warmupIterations ;
+    measurementIterations_ = measurementIterations ;
+    iterationNanos_ = iterationMillis * 1000000L ;
+
+    threads_ = null ;
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+      threads_ = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ;
+      if (threads_.isThreadAllocatedMemorySupported())
+        threads_.setThreadAllocatedMemoryEnabled(true) ;
+      else
+        threads_ = null ;
+    } // if
+  } // MicroBenchmark
+
+  /**
+   * Measures a task
+   * @param benchmark Name of the benchmark
+   * @param parameter Parameter of the benchmark (e.g. the instance)
+   * @param task The task
+   * @return The measurement
+   */
+  public Result run(String benchmark, String parameter, Task task) throws JMException {
+    for (int i = 0; i < warmupIterations_; i++)
+      iteration(task) ;
+
+    double [] throughput = new double[measurementIterations_] ;
+    long operations = 0 ;
+    long nanos = 0 ;
+    long bytes = 0 ;
+    for (int i = 0; i < measurementIterations_; i++) {
+      long allocated = allocatedBytes() ;
+      long start = System.nanoTime() ;
+      long count = iteration(task) ;
+      long elapsed = System.nanoTime() - start ;
+      bytes += allocatedBytes() - allocated ;
+      operations += count ;
+      nanos += elapsed ;
+      throughput[i] = count * 1e9 / elapsed ;
+    } // for
+
+    Result result = new Result() ;
+    result.benchmark_ = benchmark ;
+    result.parameter_ = parameter ;
+    double mean = 0 ;
+    for (double value : throughput)
+      mean += value ;
+    mean /= throughput.length ;
+    double variance = 0 ;
+    for (double value : throughput)
+      variance += (value - mean) * (value - mean) ;
+    result.opsPerSecond_ = mean ;
+    result.error_ = (throughput.length > 1) ? Math.sqrt(variance / (throughput.length - 1)) : 0 ;
+    result.bytesPerOp_ = (threads_ == null) ? Double.NaN : (double) bytes / operations ;
+    result.allocationRate_ = (threads_ == null) ? Double.NaN : bytes / 1048576.0 / (nanos / 1e9) ;
+    return result ;
+  } // run
+
+  /**
+   * Runs the task in batches until the length of an iteration is reached
+   * @return The number of operations done
+   */
+  private long iteration(Task task) throws JMException {
+    long count = 0 ;
+    long start = System.nanoTime() ;
+    do {
+      for (int i = 0; i < 16; i++)
+        sink_ = task.run() ;
+      count += 16 ;
+    } while (System.nanoTime() - start < iterationNanos_) ;
+    return count ;
+  } // iteration
+
+  private long allocatedBytes() {
+    return (threads_ == null) ? 0 : threads_.getThreadAllocatedBytes(Thread.currentThread().getId()) ;
+  } // allocatedBytes
+} // MicroBenchmark
@@ -0,0 +1,323 @@
+//  EvaluationCache.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.cache;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe memo of the evaluations of a problem, keyed by the canonical hash of the
+ * solutions (see ICanonicalHash). An entry holds the objectives, the overall constraint violation and
+ * the number of violated constraints of a solution, so a hit replaces both <code>evaluate</code> and
+ * <code>evaluateConstraints</code> (the rest of the state an evaluation leaves in the solution is brought
+ * up to date by <code>ICanonicalHash.refresh</code>). Solutions are only identified by their 64-bit hash: a collision would
+ * give a solution the values of another one, which is negligible for the sizes of a run. Equivalent
+ * solutions get the values of the first one evaluated, which may differ in the last bits from their own
+ * when they are floating point sums in another order (e.g. of the same routes).
+ * The cache is split in segments, each one locked on its own, and every segment evicts with the CLOCK
+ * (second chance) policy. Evaluations are done outside the locks.
+ */
+public class EvaluationCache {
+
+  /**
+   * Default number of segments
+   */
+  private static final int SEGMENTS = 16 ;
+
+  private final Problem problem_ ;
+  private final ICanonicalHash hash_ ;
+  private final int width_ ;
+  private final Segment [] segments_ ;
+  private final int segmentShift_ ;
+
+  private final LongAdder hits_ = new LongAdder() ;
+  private final LongAdder misses_ = new LongAdder() ;
+  private final LongAdder evictions_ = new LongAdder() ;
+
+  /**
+   * Constructor
+   * @param problem Problem whose evaluations are memoized, which must implement ICanonicalHash
+   * @param capacity Maximum number of entries
+   * @throws JMException
+   */
+  public EvaluationCache(Problem problem, int capacity) throws JMException {
+    if (!(problem instanceof ICanonicalHash)) {
+      Configuration.logger_.severe("EvaluationCache: problem " + problem.getName() +
+          " does not implement ICanonicalHash") ;
+      throw new JMException("Exception in EvaluationCache()") ;
+    } // if
+    if (capacity <= 0) {
+      Configuration.logger_.severe("EvaluationCache: the capacity must be positive, not " + capacity) ;
+      throw new JMException("Exception in EvaluationCache()") ;
+    } // if
+
+    problem_ = problem ;
+    hash_ = (ICanonicalHash) problem ;
+    width_ = problem.getNumberOfObjectives() + 2 ;
+
+    int segments = Math.min(SEGMENTS, Integer.highestOneBit(capacity)) ;
+    segments_ = new Segment[segments] ;
+    for (int i = 0; i < segments; i++)
+      segments_[i] = new Segment((int) ((long) capacity * (i + 1) / segments - (long) capacity * i / segments)) ;
+    segmentShift_ = 64 - Integer.numberOfTrailingZeros(segments) ;
+  } // EvaluationCache
+
+  /**
+   * Evaluates the objectives and constraints of a solution, using the memoized values if the solution
+   * (or an equivalent one) has already been evaluated
+   * @param solution The solution
+   * @return true if the values have been found in the cache
+   * @throws JMException
+   */
+  public boolean evaluate(Solution solution) throws JMException {
+    long key = hash_.canonicalHash(solution) ;
+    Segment segment = segmentOf(key) ;
+
+    double [] values = new double[width_] ;
+    if (segment.get(key, values)) {
+      hits_.increment() ;
+      for (int i = 0; i < width_ - 2; i++)
+        solution.setObjective(i, values[i]) ;
+      solution.setOverallConstraintViolation(values[width_ - 2]) ;
+      solution.setNumberOfViolatedConstraint((int) values[width_ - 1]) ;
+      hash_.refresh(solution) ;
+      return true ;
+    } // if
+
+    misses_.increment() ;
+    problem_.evaluate(solution) ;
+    problem_.evaluateConstraints(solution) ;
+    for (int i = 0; i < width_ - 2; i++)
+      values[i] = solution.getObjective(i) ;
+    values[width_ - 2] = solution.getOverallConstraintViolation() ;
+    values[width_ - 1] = solution.getNumberOfViolatedConstraint() ;
+    if (segment.put(key, values))
+      evictions_.increment() ;
+    return false ;
+  } // evaluate
+
+  /**
+   * Evaluates the objectives and constraints of a solution, through a cache if there is one
+   * @param problem The problem, used when there is no cache
+   * @param solution The solution
+   * @param cache The cache of the evaluations of the problem, or null
+   * @throws JMException
+   */
+  public static void evaluate(Problem problem, Solution solution, EvaluationCache cache) throws JMException {
+    if (cache != null)
+      cache.evaluate(solution) ;
+    else {
+      problem.evaluate(solution) ;
+      problem.evaluateConstraints(solution) ;
+    } // else
+  } // evaluate
+
+  /**
+   * Returns the segment of a key, chosen with the highest bits of its multiplicative hash (the lowest bits
+   * of the key index the table of the segment)
+   */
+  private Segment segmentOf(long key) {
+    return (segments_.length == 1) ? segments_[0] :
+        segments_[(int) ((key * 0x9e3779b97f4a7c15L) >>> segmentShift_)] ;
+  } // segmentOf
+
+  /**
+   * Returns the number of evaluations found in the cache
+   */
+  public long getHits() {
+    return hits_.sum() ;
+  } // getHits
+
+  /**
+   * Returns the number of evaluations not found in the cache
+   */
+  public long getMisses() {
+    return misses_.sum() ;
+  } // getMisses
+
+  /**
+   * Returns the number of entries evicted to make room for new ones
+   */
+  public long getEvictions() {
+    return evictions_.sum() ;
+  } // getEvictions
+
+  /**
+   * Returns the fraction of the evaluations found in the cache (0 if there has been none)
+   */
+  public double getHitRate() {
+    long hits = hits_.sum() ;
+    long total = hits + misses_.sum() ;
+    return (total == 0) ? 0.0 : (double) hits / total ;
+  } // getHitRate
+
+  /**
+   * Returns the number of entries of the cache
+   */
+  public int size() {
+    int size = 0 ;
+    for (Segment segment : segments_)
+      size += segment.size() ;
+    return size ;
+  } // size
+
+  /**
+   * Removes all the entries and resets the statistics
+   */
+  public void clear() {
+    for (Segment segment : segments_)
+      segment.clear() ;
+    hits_.reset() ;
+    misses_.reset() ;
+    evictions_.reset() ;
+  } // clear
+
+  public String toString() {
+    return "EvaluationCache: " + size() + " entries, " + getHits() + " hits, " + getMisses() + " misses (" +
+        String.format("%.2f", 100.0 * getHitRate()) + "% hit rate), " + getEvictions() + " evictions" ;
+  } // toString
+
+  /**
+   * Segment of the cache: a fixed number of slots, indexed by an open addressing table with linear probing,
+   * and a CLOCK hand going over the slots when one has to be evicted
+   */
+  private class Segment {
+    private final long [] keys_ ;
+    private final double [] values_ ;
+    private final boolean [] referenced_ ;
+    private final int [] table_ ;   // Slot + 1 of each key in the table, 0 if empty
+    private final int mask_ ;
+    private int size_ ;
+    private int hand_ ;
+
+    Segment(int capacity) {
+      keys_ = new long[capacity] ;
+      values_ = new double[capacity * width_] ;
+      referenced_ = new boolean[capacity] ;
+      table_ = new int[Integer.highestOneBit(Math.max(1, capacity)) * 4] ;
+      mask_ = table_.length - 1 ;
+      size_ = 0 ;
+      hand_ = 0 ;
+    } // Segment
+
+    private int home(long key) {
+      return (int) (key ^ (key >>> 32)) & mask_ ;
+    } // home
+
+    /**
+     * Returns the table index of a key, or -1 if it is not stored
+     */
+    private int find(long key) {
+      for (int i = home(key); table_[i] != 0; i = (i + 1) & mask_)
+        if (keys_[table_[i] - 1] == key)
+          return i ;
+      return -1 ;
+    } // find
+
+    /**
+     * Copies the values of a key, marking it as referenced
+     * @return false if the key is not stored
+     */
+    synchronized boolean get(long key, double [] values) {
+      int index = find(key) ;
+      if (index < 0)
+        return false ;
+      int slot = table_[index] - 1 ;
+      referenced_[slot] = true ;
+      System.arraycopy(values_, slot * width_, values, 0, width_) ;
+      return true ;
+    } // get
+
+    /**
+     * Stores the values of a key
+     * @return true if another entry has been evicted
+     */
+    synchronized boolean put(long key, double [] values) {
+      int index = find(key) ;
+      if (index >= 0) {
+        // Stored meanwhile by another thread
+        System.arraycopy(values, 0, values_, (table_[index] - 1) * width_, width_) ;
+        return false ;
+      } // if
+
+      int slot ;
+      boolean evicted = false ;
+      if (size_ < keys_.length) {
+        slot = size_++ ;
+      } else {
+        while (referenced_[hand_]) {
+          referenced_[hand_] = false ;
+          hand_ = (hand_ + 1) % keys_.length ;
+        } // while
+        slot = hand_ ;
+        hand_ = (hand_ + 1) % keys_.length ;
+        remove(find(keys_[slot])) ;
+        evicted = true ;
+      } // if
+
+      keys_[slot] = key ;
+      referenced_[slot] = false ;
+      System.arraycopy(values, 0, values_, slot * width_, width_) ;
+      int i = home(key) ;
+      while (table_[i] != 0)
+        i = (i + 1) & mask_ ;
+      table_[i] = slot + 1 ;
+      return evicted ;
+    } // put
+
+    /**
+     * Removes an index of the table, shifting back the following entries of its probing sequence
+     */
+    private void remove(int index) {
+      int i = index ;
+      int j = index ;
+      while (true) {
+        j = (j + 1) & mask_ ;
+        if (table_[j] == 0)
+          break ;
+        int k = home(keys_[table_[j] - 1]) ;
+        // The entry at j can fill the gap at i if its home is not in (i, j] (cyclically)
+        if ((i <= j) ? ((k <= i) || (k > j)) : ((k <= i) && (k > j))) {
+          table_[i] = table_[j] ;
+          i = j ;
+        } // if
+      } // while
+      table_[i] = 0 ;
+    } // remove
+
+    synchronized int size() {
+      return size_ ;
+    } // size
+
+    synchronized void clear() {
+      Arrays.fill(table_, 0) ;
+      Arrays.fill(referenced_, false) ;
+      size_ = 0 ;
+      hand_ = 0 ;
+    } // clear
+  } // Segment
+} // EvaluationCache
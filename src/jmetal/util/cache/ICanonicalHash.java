@@ -0,0 +1,47 @@
+//  ICanonicalHash.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.cache;
+
+import jmetal.core.Solution;
+
+/**
+ * Interface of the problems whose solutions can be memoized by an EvaluationCache. The hash must be
+ * computed from a canonical form of the solution, so that solutions with the same objectives and
+ * constraints by construction (e.g. the same routes in another order) get the same value.
+ */
+public interface ICanonicalHash {
+  /**
+   * Returns a 64-bit hash of the canonical form of a solution
+   * @param solution The solution
+   */
+  public long canonicalHash(Solution solution) ;
+
+  /**
+   * Brings up to date the state that the evaluation of a solution leaves in it besides its values (e.g.
+   * cached aggregates of its parts), for a solution whose values are taken from the cache instead. A
+   * solution may be shared by several threads once it is in a population, so it must not be left with
+   * state its readers would update
+   * @param solution The solution
+   */
+  public default void refresh(Solution solution) {
+  } // refresh
+} // ICanonicalHash
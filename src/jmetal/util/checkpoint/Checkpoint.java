@@ -0,0 +1,328 @@
+//  Checkpoint.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.checkpoint;
+
+import jmetal.core.Operator;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.variable.ArrayInt;
+import jmetal.encodings.variable.GiantTour;
+import jmetal.util.Configuration;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
+import jmetal.util.SplittableRandomGenerator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Snapshot of the state of a run, stored in a compact binary file from which the run can be resumed
+ * giving the same results as if it had not been interrupted. It holds the population (decision
+ * variables, objectives, constraint violation, crowding distance and rank of every solution, in order),
+ * optional groups of solutions given by their indexes in the population (e.g. the fronts kept by a
+ * steady-state algorithm), the counters of the algorithm (the first one being the number of
+ * evaluations), the state of the random stream of the thread and the state of the operators which
+ * implement <code>Checkpointable</code>.
+ * The random stream has to be a <code>SplittableRandomGenerator</code> (the default stream of every
+ * thread, or the one of a run set with <code>PseudoRandom.setRun</code>). The variables of the solutions
+ * can be tours (<code>ArrayInt</code>) or single numeric values. A checkpoint is written to a temporary
+ * file which is then renamed, so an interrupted write leaves the previous checkpoint untouched.
+ * An EvaluationCache is not part of the checkpoint: a resumed run starts with an empty one, and as a
+ * hit may differ from a fresh evaluation in the last bits, resuming only gives the same results as an
+ * uninterrupted run when no cache is used.
+ */
+public class Checkpoint {
+
+  /**
+   * Default number of evaluations between checkpoints
+   */
+  public static final int DEFAULT_INTERVAL = 10000 ;
+
+  private static final int MAGIC = 0x4a4d434b ; // "JMCK"
+  private static final int VERSION = 1 ;
+  private static final byte TOUR = 0 ;
+  private static final byte VALUE = 1 ;
+
+  private String algorithm_ ;
+  private SolutionSet population_ ;
+  private int [][] groups_ ;
+  private int [] counters_ ;
+
+  /**
+   * Constructor
+   * @param algorithm Name of the algorithm, checked when the checkpoint is read
+   * @param population Population of the run
+   * @param groups Groups of solutions, as indexes in the population (null - none)
+   * @param counters Counters of the algorithm, starting with the number of evaluations
+   */
+  public Checkpoint(String algorithm, SolutionSet population, int [][] groups, int [] counters) {
+    algorithm_ = algorithm ;
+    population_ = population ;
+    groups_ = (groups == null) ? new int[0][] : groups ;
+    counters_ = counters ;
+  } // Checkpoint
+
+  public SolutionSet getPopulation() {
+    return population_ ;
+  } // getPopulation
+
+  public int [][] getGroups() {
+    return groups_ ;
+  } // getGroups
+
+  public int [] getCounters() {
+    return counters_ ;
+  } // getCounters
+
+  /**
+   * Writes the checkpoint, with the state of the random stream of the calling thread
+   * @param file Checkpoint file, replaced once the new checkpoint is complete
+   * @param operators Operators of the algorithm, in the order given when reading it
+   * @throws JMException
+   */
+  public void write(String file, Operator [] operators) throws JMException {
+    SplittableRandomGenerator random = randomStream() ;
+    String temporary = file + ".tmp" ;
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary))) ;
+      try {
+        out.writeInt(MAGIC) ;
+        out.writeInt(VERSION) ;
+        out.writeUTF(algorithm_) ;
+
+        out.writeInt(population_.size()) ;
+        for (int i = 0; i < population_.size(); i++)
+          writeSolution(out, population_.get(i)) ;
+
+        out.writeInt(groups_.length) ;
+        for (int [] group : groups_)
+          writeInts(out, group) ;
+        writeInts(out, counters_) ;
+
+        for (long value : random.getState())
+          out.writeLong(value) ;
+
+        for (Operator operator : operators) {
+          out.writeBoolean(operator instanceof Checkpointable) ;
+          if (operator instanceof Checkpointable)
+            ((Checkpointable) operator).writeState(out) ;
+        } // for
+      } finally {
+        out.close() ;
+      }
+
+      try {
+        Files.move(Paths.get(temporary), Paths.get(file), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING) ;
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(Paths.get(temporary), Paths.get(file), StandardCopyOption.REPLACE_EXISTING) ;
+      }
+    } catch (IOException e) {
+      Configuration.logger_.severe("Checkpoint.write: cannot write " + file + ": " + e) ;
+      JMException exception = new JMException("Exception in Checkpoint.write()") ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // write
+
+  /**
+   * Reads a checkpoint, restoring the state of the random stream of the calling thread and of the
+   * operators
+   * @param file Checkpoint file
+   * @param algorithm Name of the algorithm which wrote it
+   * @param problem Problem of the run
+   * @param operators Operators of the algorithm, in the order given when writing it
+   * @return The checkpoint, or null if the file does not exist
+   * @throws JMException if the file is not a checkpoint of the algorithm on the problem
+   */
+  public static Checkpoint read(String file, String algorithm, Problem problem, Operator [] operators)
+      throws JMException {
+    if (!new File(file).isFile())
+      return null ;
+
+    // The solutions are copies of a prototype created before restoring the random stream
+    SplittableRandomGenerator random = randomStream() ;
+    Solution prototype ;
+    try {
+      prototype = new Solution(problem) ;
+    } catch (ClassNotFoundException e) {
+      Configuration.logger_.severe("Checkpoint.read: cannot create a solution of " +
+          problem.getName() + ": " + e) ;
+      JMException exception = new JMException("Exception in Checkpoint.read()") ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+    try {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))) ;
+      try {
+        if ((in.readInt() != MAGIC) || (in.readInt() != VERSION))
+          throw new IOException("not a checkpoint file") ;
+        String name = in.readUTF() ;
+        if (!name.equals(algorithm))
+          throw new IOException("checkpoint of " + name + " instead of " + algorithm) ;
+
+        int size = in.readInt() ;
+        SolutionSet population = new SolutionSet(size) ;
+        for (int i = 0; i < size; i++)
+          population.add(readSolution(in, prototype)) ;
+
+        int [][] groups = new int[in.readInt()][] ;
+        for (int g = 0; g < groups.length; g++)
+          groups[g] = readInts(in) ;
+        int [] counters = readInts(in) ;
+
+        long [] state = new long[4] ;
+        for (int i = 0; i < state.length; i++)
+          state[i] = in.readLong() ;
+
+        for (Operator operator : operators) {
+          if (in.readBoolean() != (operator instanceof Checkpointable))
+            throw new IOException("the operators do not match those of the run") ;
+          if (operator instanceof Checkpointable)
+            ((Checkpointable) operator).readState(in) ;
+        } // for
+
+        random.setState(state) ;
+        return new Checkpoint(algorithm, population, groups, counters) ;
+      } finally {
+        in.close() ;
+      }
+    } catch (IOException e) {
+      Configuration.logger_.severe("Checkpoint.read: cannot read " + file + ": " + e) ;
+      JMException exception = new JMException("Exception in Checkpoint.read()") ;
+      exception.initCause(e) ;
+      throw exception ;
+    }
+  } // read
+
+  /**
+   * Deletes a checkpoint file, once its run has finished
+   */
+  public static void delete(String file) {
+    new File(file).delete() ;
+  } // delete
+
+  /**
+   * Returns the random stream of the calling thread, which must be splittable to have a state
+   */
+  private static SplittableRandomGenerator randomStream() throws JMException {
+    IRandomGenerator random = PseudoRandom.getRandomGenerator() ;
+    if (!(random instanceof SplittableRandomGenerator)) {
+      Configuration.logger_.severe("Checkpoint: the state of the random generator " +
+          random.getClass().getName() + " cannot be stored") ;
+      throw new JMException("Exception in Checkpoint") ;
+    } // if
+    return (SplittableRandomGenerator) random ;
+  } // randomStream
+
+  private static void writeSolution(DataOutputStream out, Solution solution) throws IOException {
+    Variable [] variables = solution.getDecisionVariables() ;
+    out.writeInt(variables.length) ;
+    for (Variable variable : variables) {
+      if (variable instanceof ArrayInt) {
+        out.writeByte(TOUR) ;
+        writeInts(out, ((ArrayInt) variable).array_) ;
+      } else {
+        out.writeByte(VALUE) ;
+        try {
+          out.writeDouble(variable.getValue()) ;
+        } catch (JMException e) {
+          throw new IOException("variables of type " + variable.getClass().getName() + " are not supported") ;
+        }
+      } // else
+    } // for
+
+    out.writeInt(solution.getNumberOfObjectives()) ;
+    for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+      out.writeDouble(solution.getObjective(i)) ;
+    out.writeDouble(solution.getOverallConstraintViolation()) ;
+    out.writeInt(solution.getNumberOfViolatedConstraint()) ;
+    out.writeDouble(solution.getCrowdingDistance()) ;
+    out.writeInt(solution.getRank()) ;
+  } // writeSolution
+
+  private static Solution readSolution(DataInputStream in, Solution prototype) throws IOException {
+    Solution solution = new Solution(prototype) ;
+    Variable [] variables = solution.getDecisionVariables() ;
+    if (in.readInt() != variables.length)
+      throw new IOException("the solutions do not match the problem") ;
+    for (Variable variable : variables) {
+      byte kind = in.readByte() ;
+      if ((kind == TOUR) && (variable instanceof ArrayInt)) {
+        int [] tour = readInts(in) ;
+        int [] array = ((ArrayInt) variable).array_ ;
+        if (tour.length != array.length)
+          throw new IOException("the tours do not match the problem") ;
+        if (variable instanceof GiantTour)
+          ((GiantTour) variable).setTour(tour) ;
+        else {
+          System.arraycopy(tour, 0, array, 0, tour.length) ;
+          for (int i = 0; i < tour.length; i++)
+            ((ArrayInt) variable).markDirty(i) ;
+        } // else
+      } else if ((kind == VALUE) && !(variable instanceof ArrayInt)) {
+        try {
+          variable.setValue(in.readDouble()) ;
+        } catch (JMException e) {
+          throw new IOException("variables of type " + variable.getClass().getName() + " are not supported") ;
+        }
+      } else
+        throw new IOException("the solutions do not match the problem") ;
+    } // for
+
+    if (in.readInt() != solution.getNumberOfObjectives())
+      throw new IOException("the solutions do not match the problem") ;
+    for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+      solution.setObjective(i, in.readDouble()) ;
+    solution.setOverallConstraintViolation(in.readDouble()) ;
+    solution.setNumberOfViolatedConstraint(in.readInt()) ;
+    solution.setCrowdingDistance(in.readDouble()) ;
+    solution.setRank(in.readInt()) ;
+    return solution ;
+  } // readSolution
+
+  private static void writeInts(DataOutputStream out, int [] values) throws IOException {
+    out.writeInt(values.length) ;
+    for (int value : values)
+      out.writeInt(value) ;
+  } // writeInts
+
+  private static int [] readInts(DataInputStream in) throws IOException {
+    int [] values = new int[in.readInt()] ;
+    for (int i = 0; i < values.length; i++)
+      values[i] = in.readInt() ;
+    return values ;
+  } // readInts
+} // Checkpoint
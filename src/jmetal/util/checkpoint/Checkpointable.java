@@ -0,0 +1,43 @@
+//  Checkpointable.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Operator with an internal state which has to be stored in a checkpoint for a resumed run to take
+ * the same decisions as the uninterrupted one (e.g. the permutation of a tournament selection)
+ */
+public interface Checkpointable {
+
+  /**
+   * Writes the state of the operator
+   */
+  void writeState(DataOutput out) throws IOException ;
+
+  /**
+   * Restores the state written by <code>writeState</code>
+   */
+  void readState(DataInput in) throws IOException ;
+} // Checkpointable
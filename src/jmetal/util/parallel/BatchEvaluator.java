@@ -0,0 +1,177 @@
+//  BatchEvaluator.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.parallel;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.util.Configuration;
+import jmetal.util.JMException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel evaluator which hands the solutions to <code>Problem.evaluateAll</code> in batches. The
+ * solutions added since the last evaluation are split in one contiguous chunk per thread, each one
+ * evaluated by a single task (the calling thread takes the last one), on a pool of threads kept from
+ * <code>startEvaluator</code> to <code>stopEvaluator</code>. The solutions are returned in the order they
+ * were added, and a failure of the evaluation of any of them is thrown by
+ * <code>parallelEvaluation</code>.
+ * For evaluations which block (e.g. waiting for a simulator or a remote service) the evaluator can be
+ * created in blocking mode: every solution is then a task of its own, run on a virtual thread when the
+ * JVM provides them and on a cached pool of threads otherwise.
+ */
+public class BatchEvaluator implements IParallelEvaluator {
+  private int numberOfThreads_ ;
+  private final boolean blocking_ ;
+  private Problem problem_ ;
+  private ExecutorService executor_ ;
+  private List<Solution> solutions_ ;
+
+  /**
+   * Constructor
+   * @param threads Number of threads (0 - use all the available cores)
+   */
+  public BatchEvaluator(int threads) {
+    this(threads, false) ;
+  } // BatchEvaluator
+
+  /**
+   * Constructor
+   * @param threads Number of threads (0 - use all the available cores), ignored in blocking mode
+   * @param blocking Whether the evaluations block, so that each one gets its own thread
+   */
+  public BatchEvaluator(int threads, boolean blocking) {
+    numberOfThreads_ = threads ;
+    if (threads <= 0) {
+      if (threads < 0)
+        Configuration.logger_.severe("BatchEvaluator: the number of threads cannot be " +
+            "negative number " + threads + ", using all the available cores") ;
+      numberOfThreads_ = Runtime.getRuntime().availableProcessors() ;
+    } // if
+    blocking_ = blocking ;
+    solutions_ = new ArrayList<Solution>() ;
+  } // BatchEvaluator
+
+  /**
+   * Starts the pool of threads used to evaluate the solutions of a problem
+   * @param problem Problem to solve
+   */
+  public void startEvaluator(Problem problem) {
+    problem_ = problem ;
+    solutions_.clear() ;
+    // The calling thread evaluates a chunk itself, so it needs one thread less
+    if ((executor_ == null) && (blocking_ || (numberOfThreads_ > 1)))
+      executor_ = blocking_ ? blockingExecutor() : Executors.newFixedThreadPool(numberOfThreads_ - 1,
+          daemonThreads()) ;
+  } // startEvaluator
+
+  /**
+   * Adds a solution to the next batch
+   * @param solution Solution to be evaluated
+   */
+  public void addSolutionForEvaluation(Solution solution) {
+    solutions_.add(solution) ;
+  } // addSolutionForEvaluation
+
+  /**
+   * Evaluates the solutions added since the last call
+   * @return The evaluated solutions, in the order they were added
+   * @throws JMException if the evaluation of a solution fails
+   */
+  public List<Solution> parallelEvaluation() throws JMException {
+    final Solution [] batch = solutions_.toArray(new Solution[solutions_.size()]) ;
+    solutions_.clear() ;
+
+    int chunks = blocking_ ? batch.length : Math.min(numberOfThreads_, batch.length) ;
+    List<Future<?>> futures = new ArrayList<Future<?>>(chunks) ;
+    try {
+      for (int c = 0; c < chunks - (blocking_ ? 0 : 1); c++) {
+        final int from = (int) ((long) batch.length * c / chunks) ;
+        final int to = (int) ((long) batch.length * (c + 1) / chunks) ;
+        futures.add(executor_.submit(() -> {
+          problem_.evaluateAll(batch, from, to) ;
+          return null ;
+        })) ;
+      } // for
+      if (!blocking_ && (chunks > 0))
+        problem_.evaluateAll(batch, (int) ((long) batch.length * (chunks - 1) / chunks), batch.length) ;
+
+      for (Future<?> future : futures)
+        future.get() ;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt() ;
+      throw new JMException("BatchEvaluator: interrupted") ;
+    } catch (ExecutionException e) {
+      JMException exception = new JMException("BatchEvaluator: " + e.getCause()) ;
+      exception.initCause(e.getCause()) ;
+      throw exception ;
+    } finally {
+      // Do not leave tasks running after a failure
+      for (Future<?> future : futures)
+        future.cancel(true) ;
+    }
+
+    return new ArrayList<Solution>(Arrays.asList(batch)) ;
+  } // parallelEvaluation
+
+  /**
+   * Shuts the pool of threads down
+   */
+  public void stopEvaluator() {
+    if (executor_ != null) {
+      executor_.shutdown() ;
+      executor_ = null ;
+    } // if
+  } // stopEvaluator
+
+  /**
+   * Returns an executor running each task on a new virtual thread if the JVM provides them (Java 21 or
+   * later), or on a cached pool of threads otherwise
+   */
+  private static ExecutorService blockingExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) ;
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(daemonThreads()) ;
+    }
+  } // blockingExecutor
+
+  /**
+   * Returns a factory of daemon threads, so that a pool which is not stopped does not keep the JVM alive
+   */
+  private static ThreadFactory daemonThreads() {
+    final AtomicInteger count = new AtomicInteger() ;
+    return (Runnable runnable) -> {
+      Thread thread = new Thread(runnable, "BatchEvaluator-" + count.incrementAndGet()) ;
+      thread.setDaemon(true) ;
+      return thread ;
+    } ;
+  } // daemonThreads
+} // BatchEvaluator
@@ -23,6 +23,7 @@ package jmetal.util.parallel;
 import jmetal.core.Problem;
 import jmetal.core.Solution;
 import jmetal.util.Configuration;
+import jmetal.util.cache.EvaluationCache;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,6 +40,7 @@ public class MultithreadedEvaluator implements IParallelEvaluator {
   private Problem problem_ ;
   private ExecutorService executor_ ;
   private Collection<Callable<Solution>> taskList_ ;
+  private EvaluationCache cache_ ;
 
   /**
    * @author Antonio J. Nebro
@@ -61,8 +63,12 @@ public class MultithreadedEvaluator implements IParallelEvaluator {
 
     public Solution call() throws Exception {
       long initTime = System.currentTimeMillis();
-      problem_.evaluate(solution_) ;
-      problem_.evaluateConstraints(solution_) ;
+      if (cache_ != null)
+        cache_.evaluate(solution_) ;
+      else {
+        problem_.evaluate(solution_) ;
+        problem_.evaluateConstraints(solution_) ;
+      }
       //long estimatedTime = System.currentTimeMillis() - initTime;
       //System.out.println("Time: "+ estimatedTime) ;
       return solution_ ;
@@ -86,6 +92,16 @@ public class MultithreadedEvaluator implements IParallelEvaluator {
     }
   }
 
+  /**
+   * Constructor
+   * @param threads
+   * @param cache Cache of evaluations shared by the threads (null - no cache)
+   */
+  public MultithreadedEvaluator(int threads, EvaluationCache cache) {
+    this(threads) ;
+    cache_ = cache ;
+  }
+
   /**
    * Constructor
    * @param problem problem to solve
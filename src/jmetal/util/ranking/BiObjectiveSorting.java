@@ -0,0 +1,57 @@
+//  BiObjectiveSorting.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * O(N log N) non-dominated sorting for two objectives. The points are swept in lexicographic order
+ * and each one goes to the first front whose last point does not dominate it, which is found by
+ * binary search since the last points of the fronts have increasing second objective values.
+ */
+public class BiObjectiveSorting implements INonDominatedSorting {
+
+  public int sort(double [][] objectives, int [] points, int numberOfPoints, int [] rank) {
+    LexicographicOrder.sort(objectives, points, numberOfPoints) ;
+
+    // last[k] is the last point added to front k
+    int [] last = new int[numberOfPoints] ;
+    int fronts = 0 ;
+    for (int i = 0; i < numberOfPoints; i++) {
+      int p = points[i] ;
+      double [] point = objectives[p] ;
+      int low = 0 ;
+      int high = fronts ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        double [] candidate = objectives[last[middle]] ;
+        if ((candidate[1] < point[1]) || ((candidate[1] == point[1]) && (candidate[0] < point[0])))
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+      rank[p] = low ;
+      last[low] = p ;
+      if (low == fronts)
+        fronts++ ;
+    } // for
+    return fronts ;
+  } // sort
+} // BiObjectiveSorting
@@ -0,0 +1,70 @@
+//  EfficientNonDominatedSorting.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Efficient non-dominated sorting with binary search (ENS-BS, Zhang et al. 2015) for any number of
+ * objectives. The points are processed in lexicographic order, so a point is only compared with the
+ * points already assigned, and its front is found by binary search over the fronts, checking the
+ * members of each front from the last added one.
+ */
+public class EfficientNonDominatedSorting implements INonDominatedSorting {
+
+  public int sort(double [][] objectives, int [] points, int numberOfPoints, int [] rank) {
+    LexicographicOrder.sort(objectives, points, numberOfPoints) ;
+
+    // The members of the fronts, stored as linked lists in a flat array (newest first)
+    int [] head = new int[numberOfPoints] ;
+    int [] next = new int[numberOfPoints] ;
+    int fronts = 0 ;
+    for (int i = 0; i < numberOfPoints; i++) {
+      double [] point = objectives[points[i]] ;
+      int low = 0 ;
+      int high = fronts ;
+      while (low < high) {
+        int middle = (low + high) >>> 1 ;
+        if (isDominatedBy(point, objectives, points, head[middle], next))
+          low = middle + 1 ;
+        else
+          high = middle ;
+      } // while
+      rank[points[i]] = low ;
+      next[i] = (low == fronts) ? -1 : head[low] ;
+      head[low] = i ;
+      if (low == fronts)
+        fronts++ ;
+    } // for
+    return fronts ;
+  } // sort
+
+  /**
+   * Returns true if a member of a front (given by the position of its newest member) dominates point
+   */
+  private boolean isDominatedBy(double [] point, double [][] objectives, int [] points, int member,
+                                int [] next) {
+    for (; member >= 0; member = next[member]) {
+      if (LexicographicOrder.dominates(objectives[points[member]], point))
+        return true ;
+    } // for
+    return false ;
+  } // isDominatedBy
+} // EfficientNonDominatedSorting
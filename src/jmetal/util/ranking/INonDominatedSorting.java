@@ -0,0 +1,38 @@
+//  INonDominatedSorting.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Interface representing non-dominated sorting algorithms working on the objective values of the
+ * solutions (minimization). Points with equal objective vectors do not dominate each other
+ */
+public interface INonDominatedSorting {
+  /**
+   * Assigns the front of a subset of points, starting from 0 for the non-dominated ones
+   * @param objectives Objective values, objectives[p][m] being objective m of point p
+   * @param points Indices of the points to sort; the array can be reordered
+   * @param numberOfPoints Number of valid indices in points
+   * @param rank Output: rank[p] is set to the front of every sorted point p
+   * @return The number of fronts
+   */
+  public int sort(double [][] objectives, int [] points, int numberOfPoints, int [] rank) ;
+} // INonDominatedSorting
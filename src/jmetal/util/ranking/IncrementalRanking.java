@@ -0,0 +1,186 @@
+//  IncrementalRanking.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.Distance;
+import jmetal.util.Ranking;
+import jmetal.util.comparators.DominanceComparator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Non-dominated fronts of a population kept up to date while solutions are added and removed one at a
+ * time, as in a steady-state algorithm. A new solution goes to the first front where no member
+ * dominates it (found by binary search), and the members it dominates are moved one front down,
+ * cascading through the following fronts (efficient non-domination level update, Li et al. 2015).
+ * Only the fronts whose members change get their ranks and crowding distances recomputed.
+ * Dominance is checked with <code>DominanceComparator</code>, so constraints are handled as in
+ * <code>Ranking</code>.
+ */
+public class IncrementalRanking {
+
+  private static final Comparator dominance_ = new DominanceComparator() ;
+
+  private List<SolutionSet> fronts_ ;
+  private int numberOfObjectives_ ;
+  private int capacity_ ;
+  private Distance distance_ ;
+
+  /**
+   * Constructor
+   * @param population Initial solutions
+   * @param numberOfObjectives Number of objectives of the problem
+   * @param capacity Maximum number of solutions stored at the same time
+   */
+  public IncrementalRanking(SolutionSet population, int numberOfObjectives, int capacity) {
+    numberOfObjectives_ = numberOfObjectives ;
+    capacity_ = capacity ;
+    distance_ = new Distance() ;
+    fronts_ = new ArrayList<SolutionSet>() ;
+
+    Ranking ranking = new Ranking(population) ;
+    for (int i = 0; i < ranking.getNumberOfSubfronts(); i++) {
+      SolutionSet front = new SolutionSet(capacity_) ;
+      for (int j = 0; j < ranking.getSubfront(i).size(); j++)
+        front.add(ranking.getSubfront(i).get(j)) ;
+      fronts_.add(front) ;
+      distance_.crowdingDistanceAssignment(front, numberOfObjectives_) ;
+    } // for
+  } // IncrementalRanking
+
+  /**
+   * Constructor of the ranking of some given fronts, e.g. those of a checkpoint. The order of their
+   * members, their ranks and their crowding distances are kept as they are
+   * @param fronts The fronts, from the first one
+   * @param numberOfObjectives Number of objectives of the problem
+   * @param capacity Maximum number of solutions stored at the same time
+   */
+  public IncrementalRanking(List<SolutionSet> fronts, int numberOfObjectives, int capacity) {
+    numberOfObjectives_ = numberOfObjectives ;
+    capacity_ = capacity ;
+    distance_ = new Distance() ;
+    fronts_ = new ArrayList<SolutionSet>() ;
+    for (SolutionSet solutions : fronts) {
+      SolutionSet front = new SolutionSet(capacity_) ;
+      for (int j = 0; j < solutions.size(); j++)
+        front.add(solutions.get(j)) ;
+      fronts_.add(front) ;
+    } // for
+  } // IncrementalRanking
+
+  /**
+   * Inserts a solution, updating the fronts it changes
+   * @param solution The solution
+   * @return The rank of the solution
+   */
+  public int add(Solution solution) {
+    // First front in which no member dominates the solution. If a member of front k dominates it,
+    // so does some member of every previous front
+    int low = 0 ;
+    int high = fronts_.size() ;
+    while (low < high) {
+      int middle = (low + high) >>> 1 ;
+      if (isDominated(solution, fronts_.get(middle)))
+        low = middle + 1 ;
+      else
+        high = middle ;
+    } // while
+    int rank = low ;
+
+    List<Solution> moving = new ArrayList<Solution>() ;
+    moving.add(solution) ;
+    for (int level = rank; !moving.isEmpty(); level++) {
+      if (level == fronts_.size())
+        fronts_.add(new SolutionSet(capacity_)) ;
+      SolutionSet front = fronts_.get(level) ;
+
+      // Members of the front dominated by the incoming solutions go one front down
+      List<Solution> dominated = new ArrayList<Solution>() ;
+      for (int i = front.size() - 1; i >= 0; i--) {
+        Solution member = front.get(i) ;
+        for (Solution incoming : moving) {
+          if (dominance_.compare(incoming, member) == -1) {
+            dominated.add(0, member) ;
+            front.remove(i) ;
+            break ;
+          } // if
+        } // for
+      } // for
+      for (Solution incoming : moving) {
+        incoming.setRank(level) ;
+        front.add(incoming) ;
+      } // for
+      distance_.crowdingDistanceAssignment(front, numberOfObjectives_) ;
+      moving = dominated ;
+    } // for
+    return rank ;
+  } // add
+
+  /**
+   * Removes the solution of the last front with the lowest crowding distance (the last one among
+   * ties), as NSGA-II does when truncating the last front
+   * @return The removed solution
+   */
+  public Solution removeWorst() {
+    SolutionSet last = fronts_.get(fronts_.size() - 1) ;
+    int worst = 0 ;
+    for (int i = 1; i < last.size(); i++)
+      if (last.get(i).getCrowdingDistance() <= last.get(worst).getCrowdingDistance())
+        worst = i ;
+    Solution solution = last.get(worst) ;
+    last.remove(worst) ;
+    if (last.size() == 0)
+      fronts_.remove(fronts_.size() - 1) ;
+    else
+      distance_.crowdingDistanceAssignment(last, numberOfObjectives_) ;
+    return solution ;
+  } // removeWorst
+
+  /**
+   * Returns true if a member of a front dominates the solution
+   */
+  private boolean isDominated(Solution solution, SolutionSet front) {
+    for (int i = 0; i < front.size(); i++)
+      if (dominance_.compare(front.get(i), solution) == -1)
+        return true ;
+    return false ;
+  } // isDominated
+
+  /**
+   * Returns a <code>SolutionSet</code> containing the solutions of a given rank. 
+   * @param rank The rank
+   */
+  public SolutionSet getSubfront(int rank) {
+    return fronts_.get(rank) ;
+  } // getSubfront
+
+  /** 
+   * Returns the total number of subfronts.
+   */
+  public int getNumberOfSubfronts() {
+    return fronts_.size() ;
+  } // getNumberOfSubfronts
+} // IncrementalRanking
@@ -0,0 +1,85 @@
+//  LexicographicOrder.java
+//
+//  Author:
+//       Nicolás Rodríguez <marco.nicolas.rodriguez@fing.edu.uy>
+//       Ignacio Ferreira <ignacio.ferreira@fing.edu.uy>
+//
+//  Copyright (c) 2018 Nicolás Rodríguez, Ignacio Ferreira
+//
+//  This program is free software: you can redistribute it and/or modify
+//  it under the terms of the GNU Lesser General Public License as published by
+//  the Free Software Foundation, either version 3 of the License, or
+//  (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful,
+//  but WITHOUT ANY WARRANTY; without even the implied warranty of
+//  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//  GNU Lesser General Public License for more details.
+//
+//  You should have received a copy of the GNU Lesser General Public License
+//  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+
+package jmetal.util.ranking;
+
+/**
+ * Sorting of point indices by the lexicographic order of their objective vectors. After it, a point
+ * can only be dominated by points placed before it
+ */
+final class LexicographicOrder {
+
+  private LexicographicOrder() {
+  } // LexicographicOrder
+
+  /**
+   * Sorts the first n indices of points (stable merge sort on primitive arrays)
+   */
+  static void sort(double [][] objectives, int [] points, int n) {
+    if (n < 2)
+      return ;
+    int [] buffer = new int[n] ;
+    for (int width = 1; width < n; width *= 2) {
+      for (int low = 0; low < n - width; low += 2 * width) {
+        int middle = low + width ;
+        int high = Math.min(low + 2 * width, n) ;
+        if (compare(objectives[points[middle - 1]], objectives[points[middle]]) <= 0)
+          continue ;
+        int i = low, j = middle, k = low ;
+        while ((i < middle) && (j < high))
+          buffer[k++] = (compare(objectives[points[i]], objectives[points[j]]) <= 0) ? points[i++] : points[j++] ;
+        while (i < middle)
+          buffer[k++] = points[i++] ;
+        while (j < high)
+          buffer[k++] = points[j++] ;
+        System.arraycopy(buffer, low, points, low, high - low) ;
+      } // for
+    } // for
+  } // sort
+
+  /**
+   * Compares two objective vectors lexicographically
+   */
+  static int compare(double [] a, double [] b) {
+    for (int m = 0; m < a.length; m++) {
+      if (a[m] < b[m])
+        return -1 ;
+      if (a[m] > b[m])
+        return 1 ;
+    } // for
+    return 0 ;
+  } // compare
+
+  /**
+   * Returns true if a dominates b, knowing that a is not after b in lexicographic order, so that
+   * a is already no worse than b in the first objective
+   */
+  static boolean dominates(double [] a, double [] b) {
+    boolean better = a[0] < b[0] ;
+    for (int m = 1; m < a.length; m++) {
+      if (a[m] > b[m])
+        return false ;
+      if (a[m] < b[m])
+        better = true ;
+    } // for
+    return better ;
+  } // dominates
+} // LexicographicOrder
@@ -62,7 +62,7 @@ public class XInt {
 		if (type_.getClass() == IntSolutionType.class){
 			return (int)solution_.getDecisionVariables()[index].getValue() ;			
 		} 
-		else if (type_.getClass() == ArrayIntSolutionType.class) {
+		else if (type_ instanceof ArrayIntSolutionType) {
 			return ((ArrayInt)(solution_.getDecisionVariables()[0])).array_[index] ;
 		}
 		else {
@@ -81,8 +81,8 @@ public class XInt {
 	public void setValue(int index, int value) throws JMException {
 		if (type_.getClass() == IntSolutionType.class)
 			solution_.getDecisionVariables()[index].setValue(value) ;
-		else if (type_.getClass() == ArrayIntSolutionType.class)
-			((ArrayInt)(solution_.getDecisionVariables()[0])).array_[index]=value ;
+		else if (type_ instanceof ArrayIntSolutionType)
+			((ArrayInt)(solution_.getDecisionVariables()[0])).setValue(index, value) ;
 		else
 			Configuration.logger_.severe("jmetal.util.wrapper.XInt.setValue, solution type " +
 					type_ + "+ invalid") ;		
@@ -97,7 +97,7 @@ public class XInt {
 	public int getLowerBound(int index) throws JMException {
 		if (type_.getClass() == IntSolutionType.class)
 			return (int)solution_.getDecisionVariables()[index].getLowerBound() ;
-		else if (type_.getClass() == ArrayIntSolutionType.class) 
+		else if (type_ instanceof ArrayIntSolutionType) 
 			return (int)((ArrayInt)(solution_.getDecisionVariables()[0])).getLowerBound(index) ;
 		else {
 			Configuration.logger_.severe("jmetal.util.wrapper.XInt.getLowerBound, solution type " +
@@ -115,7 +115,7 @@ public class XInt {
 	public int getUpperBound(int index) throws JMException {
 		if (type_.getClass() == IntSolutionType.class)		
 			return (int)solution_.getDecisionVariables()[index].getUpperBound() ;
-		else if (type_.getClass() == ArrayIntSolutionType.class) 
+		else if (type_ instanceof ArrayIntSolutionType) 
 			return (int)((ArrayInt)(solution_.getDecisionVariables()[0])).getUpperBound(index) ;
 		else
 			Configuration.logger_.severe("jmetal.util.wrapper.XInt.getUpperBound, solution type " +
@@ -131,7 +131,7 @@ public class XInt {
 	public int getNumberOfDecisionVariables() {
 		if (type_.getClass() == IntSolutionType.class)		
 			return solution_.getDecisionVariables().length ;
-		else if (type_.getClass() == ArrayIntSolutionType.class) 
+		else if (type_ instanceof ArrayIntSolutionType) 
 			return ((ArrayInt)(solution_.getDecisionVariables()[0])).getLength() ;
 		else
 			Configuration.logger_.severe("jmetal.util.wrapper.XInt.size, solution type " +